@@ -0,0 +1,125 @@
+package io.github.vazh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares the JSON results of a JMH run with a stored baseline, and fails when a benchmark regressed.
+ * <p>
+ * A benchmark regressed when its score, or the bytes it allocates per operation ({@code gc.alloc.rate.norm}), is worse
+ * than in the baseline by more than the threshold, in percent. Higher is better for throughput, lower is better for the
+ * other modes. Benchmarks are matched by name and parameters: those missing from either run are listed, but do not fail
+ * the comparison.
+ * <p>
+ * Usage: {@code BenchmarkComparison <results.json> <baseline.json> <threshold>}
+ */
+public final class BenchmarkComparison {
+
+    private static final String ALLOCATION_METRIC = "\u00b7gc.alloc.rate.norm";
+
+    /**
+     * Differences of allocation below this number of bytes per operation are noise of the {@code gc} profiler.
+     */
+    private static final double ALLOCATION_NOISE = 16;
+
+    private BenchmarkComparison() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: BenchmarkComparison <results.json> <baseline.json> <threshold>");
+            System.exit(2);
+        }
+        Path results = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+        if (!Files.exists(baseline)) {
+            System.err.println("No baseline at " + baseline + ", store one with: cp " + results + " " + baseline);
+            System.exit(2);
+        }
+        int regressions = compare(read(results), read(baseline), threshold);
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed by more than " + threshold + "% from " + baseline);
+            System.exit(1);
+        }
+        System.out.println("No benchmark regressed by more than " + threshold + "% from " + baseline);
+    }
+
+    private static int compare(Map<String, JsonNode> results, Map<String, JsonNode> baseline, double threshold) {
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s %9s%n", "Benchmark", "Baseline", "Score", "Change", "Alloc");
+        for (Map.Entry<String, JsonNode> result : results.entrySet()) {
+            JsonNode previous = baseline.get(result.getKey());
+            if (previous == null) {
+                System.out.printf("%-90s %14s%n", result.getKey(), "new");
+                continue;
+            }
+            JsonNode metric = result.getValue().get("primaryMetric");
+            double score = metric.get("score").asDouble();
+            double previousScore = previous.get("primaryMetric").get("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(result.getValue().get("mode").asText());
+            double change = worsening(previousScore, score, higherIsBetter);
+            double previousAllocation = allocation(previous);
+            double allocation = allocation(result.getValue());
+            double allocationChange = Math.abs(allocation - previousAllocation) < ALLOCATION_NOISE
+                ? 0
+                : worsening(previousAllocation, allocation, false);
+            boolean regressed = change > threshold || allocationChange > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(
+                "%-90s %14.3f %14.3f %+8.1f%% %+8.1f%% %s %s%n",
+                result.getKey(),
+                previousScore,
+                score,
+                0.0 - change,
+                0.0 - allocationChange,
+                metric.get("scoreUnit").asText(),
+                regressed ? "REGRESSED" : ""
+            );
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.printf("%-90s %14s%n", key, "missing");
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * @return how much worse the score is than the previous score, in percent, or 0 if it is not comparable.
+     */
+    private static double worsening(double previous, double score, boolean higherIsBetter) {
+        if (Double.isNaN(previous) || Double.isNaN(score) || previous <= 0) {
+            return 0;
+        }
+        double change = (score - previous) / previous * 100;
+        return higherIsBetter ? -change : change;
+    }
+
+    private static double allocation(JsonNode result) {
+        JsonNode metric = result.path("secondaryMetrics").path(ALLOCATION_METRIC);
+        return metric.isMissingNode() ? Double.NaN : metric.get("score").asDouble();
+    }
+
+    private static Map<String, JsonNode> read(Path path) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(path.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            results.put(result.get("benchmark").asText() + (params.isEmpty() ? "" : " " + params), result);
+        }
+        return results;
+    }
+}
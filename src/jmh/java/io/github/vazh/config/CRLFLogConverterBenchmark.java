@@ -0,0 +1,64 @@
+package io.github.vazh.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link CRLFLogConverter}, which runs on every logged message, for a message without line breaks (the usual
+ * case) and for a message with line breaks to replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CRLFLogConverterBenchmark {
+
+    @Param({ "clean", "crlf" })
+    public String message;
+
+    private CRLFLogConverter converter;
+
+    private LoggingEvent event;
+
+    private String in;
+
+    @Setup
+    public void setup() {
+        converter = new CRLFLogConverter();
+        converter.start();
+        LoggerContext loggerContext = new LoggerContext();
+        in =
+            "clean".equals(message)
+                ? "REST request to get User : admin with authorities [ROLE_ADMIN, ROLE_USER]"
+                : "REST request to get User : admin\r\nwith authorities\t[ROLE_ADMIN, ROLE_USER]";
+        event =
+            new LoggingEvent(
+                CRLFLogConverterBenchmark.class.getName(),
+                loggerContext.getLogger("io.github.vazh.web.rest"),
+                Level.INFO,
+                in,
+                null,
+                null
+            );
+    }
+
+    @Benchmark
+    public String transform() {
+        return converter.transform(event, in);
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.vazh.config;
+
+import io.github.vazh.domain.Authority;
+import io.github.vazh.domain.User;
+import io.github.vazh.security.AuthoritiesConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.MarshallingCodec;
+
+/**
+ * Compares writing and reading a cached user with the default Redisson codec and with the {@link CompactCacheCodec}, for
+ * both the {@link User} entity of the Spring caches and the structured entry of the Hibernate second-level cache.
+ * <p>
+ * The size of each encoded value is printed during the setup of each fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    @Param({ "default", "compact" })
+    public String codecName;
+
+    @Param({ "user", "hibernateUser" })
+    public String valueName;
+
+    private Codec codec;
+
+    private Object value;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        codec = "compact".equals(codecName) ? new CompactCacheCodec(new MarshallingCodec(), true) : new MarshallingCodec();
+        value = "user".equals(valueName) ? user() : hibernateUser();
+        ByteBuf buf = codec.getValueEncoder().encode(value);
+        encoded = ByteBufUtil.getBytes(buf);
+        buf.release();
+        System.out.printf("%n%s codec, %s: %d bytes%n", codecName, valueName, encoded.length);
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(value);
+        int size = buf.readableBytes();
+        buf.release();
+        return size;
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return codec.getValueDecoder().decode(Unpooled.wrappedBuffer(encoded), null);
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1001L);
+        user.setLogin("john");
+        user.setPassword("$2a$10$VEjxo0jq2YG9Rbk2HmX9S.k1uZBGYUHdUcid3g/vfiEl7lwWgOH/K");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail("john.doe@localhost");
+        user.setActivated(true);
+        user.setLangKey("en");
+        user.setImageUrl("http://placehold.it/50x50");
+        user.setCreatedBy("system");
+        user.setCreatedDate(Instant.parse("2022-09-01T10:15:30Z"));
+        user.setLastModifiedBy("admin");
+        user.setLastModifiedDate(Instant.parse("2022-09-03T12:00:00Z"));
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        user.setAuthorities(Set.of(authority));
+        return user;
+    }
+
+    private static Map<String, Object> hibernateUser() {
+        User user = user();
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("_subclass", User.class.getName());
+        entry.put("_version", null);
+        entry.put("activated", user.isActivated());
+        entry.put("activationKey", user.getActivationKey());
+        entry.put("authorities", user.getId());
+        entry.put("createdBy", user.getCreatedBy());
+        entry.put("createdDate", user.getCreatedDate());
+        entry.put("email", user.getEmail());
+        entry.put("firstName", user.getFirstName());
+        entry.put("imageUrl", user.getImageUrl());
+        entry.put("langKey", user.getLangKey());
+        entry.put("lastModifiedBy", user.getLastModifiedBy());
+        entry.put("lastModifiedDate", user.getLastModifiedDate());
+        entry.put("lastName", user.getLastName());
+        entry.put("login", user.getLogin());
+        entry.put("password", user.getPassword());
+        entry.put("resetDate", user.getResetDate());
+        entry.put("resetKey", user.getResetKey());
+        return entry;
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.vazh.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Compares building the authentication of a JWT principal from its {@code auth} claim, by splitting the claim for every
+ * request (previous behavior) and through the {@link GrantedAuthorityRegistry}.
+ * <p>
+ * Run with the {@code gc} profiler (enabled by default in the {@code benchmark} Maven profile) and compare the
+ * {@code gc.alloc.rate.norm} metric, which is the number of bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrantedAuthorityRegistryBenchmark {
+
+    @Param({ AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER })
+    public String claim;
+
+    private GrantedAuthorityRegistry registry;
+
+    @Setup
+    public void setup() {
+        registry = new GrantedAuthorityRegistry();
+        registry.fromCommaSeparatedNames(claim);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> splitAuthorities() {
+        return split(claim);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> registryAuthorities() {
+        return registry.fromCommaSeparatedNames(claim);
+    }
+
+    @Benchmark
+    public Authentication splitAuthentication() {
+        return authentication(split(claim));
+    }
+
+    @Benchmark
+    public Authentication registryAuthentication() {
+        return authentication(registry.fromCommaSeparatedNames(claim));
+    }
+
+    private static Collection<? extends GrantedAuthority> split(String claim) {
+        return Arrays
+            .stream(claim.split(","))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+    }
+
+    private static Authentication authentication(Collection<? extends GrantedAuthority> authorities) {
+        User principal = new User("user", "", authorities);
+        return new UsernamePasswordAuthenticationToken(principal, "token", authorities);
+    }
+}
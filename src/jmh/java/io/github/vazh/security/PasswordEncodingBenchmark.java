@@ -0,0 +1,63 @@
+package io.github.vazh.security;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.management.SecurityMetersService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures hashing and checking a password with the {@link BoundedPasswordEncoder}, at the default BCrypt cost and at a
+ * higher one, including the hand-off to the password hashing pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncodingBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({ "10", "12" })
+    public int strength;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    private String encodedPassword;
+
+    @Setup
+    public void setup() {
+        ApplicationProperties.Security.PasswordHashing properties = new ApplicationProperties().getSecurity().getPasswordHashing();
+        properties.setStrength(strength);
+        passwordEncoder = new BoundedPasswordEncoder(properties, new SecurityMetersService(new SimpleMeterRegistry()));
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordEncoder.destroy();
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, encodedPassword);
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.vazh.security.jwt;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.management.SecurityMetersService;
+import io.github.vazh.security.AuthoritiesConstants;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.KeyPair;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Compares the cost of signing and verifying tokens with the HMAC secret ({@code HS512}) and with the asymmetric
+ * algorithms supported by the JWT key set.
+ * <p>
+ * {@code validate} and {@code getAuthentication} bypass the token cache, so they measure the full signature verification
+ * paid on a cache miss, while {@code resolveAuthentication} is served from the token cache, as for each request after the
+ * first one with a token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenSigningBenchmark {
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    @Param({ "HS512", "ES256", "ES384", "RS256" })
+    public String algorithm;
+
+    private TokenProvider tokenProvider;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+        if (!signatureAlgorithm.isHmac()) {
+            KeyPair keyPair = Keys.keyPairFor(signatureAlgorithm);
+            ApplicationProperties.Security.Jwt.JwtKey key = new ApplicationProperties.Security.Jwt.JwtKey();
+            key.setId("benchmark");
+            key.setAlgorithm(algorithm);
+            key.setPublicKey(Encoders.BASE64.encode(keyPair.getPublic().getEncoded()));
+            key.setPrivateKey(Encoders.BASE64.encode(keyPair.getPrivate().getEncoded()));
+            applicationProperties.getSecurity().getJwt().setSigningKeyId("benchmark");
+            applicationProperties.getSecurity().getJwt().getKeys().add(key);
+        }
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+        authentication =
+            new UsernamePasswordAuthenticationToken(
+                "user",
+                "user",
+                Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+            );
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public TokenValidationResult validate() {
+        return tokenProvider.validate(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Optional<Authentication> resolveAuthentication() {
+        return tokenProvider.resolveAuthentication(token);
+    }
+}
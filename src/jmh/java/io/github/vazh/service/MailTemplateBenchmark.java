@@ -0,0 +1,97 @@
+package io.github.vazh.service;
+
+import io.github.vazh.domain.User;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Compares the throughput of rendering each mail template with Thymeleaf for every email (previous behavior, and the
+ * behavior when the Thymeleaf cache is disabled), and with the templates cached per locale by the
+ * {@link MailTemplateRenderer}.
+ * <p>
+ * The templates and messages are read from {@code src/main/resources}, rather than from the classpath where the test
+ * resources replace them, so run the benchmarks from the project directory. The locales are those of the
+ * {@code i18n/messages*.properties} files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    @Param({ "thymeleaf", "cached" })
+    public String rendering;
+
+    @Param({ "mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail" })
+    public String templateName;
+
+    @Param({ "en" })
+    public String langKey;
+
+    private MailTemplateRenderer renderer;
+
+    private String titleKey;
+
+    private User user;
+
+    private long emails;
+
+    @Setup
+    public void setup() {
+        if (!Files.exists(Path.of("src/main/resources/i18n/messages_" + langKey + ".properties"))) {
+            throw new IllegalStateException("No messages for locale " + langKey + ", run from the project directory");
+        }
+        ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
+        messageSource.setBasename("file:src/main/resources/i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        FileTemplateResolver templateResolver = new FileTemplateResolver();
+        templateResolver.setPrefix("src/main/resources/templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+        // The Thymeleaf cache of the parsed templates is enabled in both cases, as in production
+        ThymeleafProperties thymeleafProperties = new ThymeleafProperties();
+        thymeleafProperties.setCache("cached".equals(rendering));
+        titleKey = templateName.equals("mail/passwordResetEmail") ? "email.reset.title" : "email.activation.title";
+        renderer = new MailTemplateRenderer(jHipsterProperties, messageSource, templateEngine, thymeleafProperties);
+        user = new User();
+        user.setLogin("john");
+        user.setEmail("john.doe@example.com");
+        user.setLangKey(langKey);
+        user.setActivationKey("0123456789abcdefghij");
+        user.setResetKey("abcdefghij0123456789");
+    }
+
+    @Benchmark
+    public String render() {
+        // Each email is for another user
+        user.setLogin("john" + emails++);
+        return renderer.render(user, templateName, titleKey).getContent();
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.vazh.service;
+
+import io.github.vazh.JhipsterSampleApplicationApp;
+import io.github.vazh.config.PostgreSqlTestContainer;
+import io.github.vazh.config.RedisTestContainer;
+import io.github.vazh.domain.User;
+import io.github.vazh.repository.AuthorityRepository;
+import io.github.vazh.repository.UserRepository;
+import io.github.vazh.service.dto.AdminUserDTO;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManagerFactory;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares reading a page of 1,000 users for the administrators as managed entities mapped to {@link AdminUserDTO}, with
+ * their authorities loaded lazily (previous behavior), and as projections with the authorities of the page read in a
+ * single query, through {@link UserService#getAllManagedUsers(Pageable)}.
+ * <p>
+ * The application is started against the Postgres and Redis containers of the integration tests, so Docker is required.
+ * Compare the {@code gc.alloc.rate.norm} metric of the {@code gc} profiler, which is the number of bytes allocated per
+ * page. The number of SQL statements per page is printed during the setup of each fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserListingBenchmark {
+
+    private static final int PAGE_SIZE = 1_000;
+
+    private static final Pageable PAGE = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+
+    @Param({ "entity", "projection" })
+    public String mapping;
+
+    private PostgreSqlTestContainer database;
+
+    private RedisTestContainer redis;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private UserRepository userRepository;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup
+    public void setup() {
+        database = new PostgreSqlTestContainer();
+        database.afterPropertiesSet();
+        redis = new RedisTestContainer();
+        redis.afterPropertiesSet();
+        context =
+            new SpringApplicationBuilder(JhipsterSampleApplicationApp.class)
+                .profiles("testdev")
+                .properties(
+                    "server.port=0",
+                    "spring.datasource.url=" + database.getTestContainer().getJdbcUrl(),
+                    "spring.datasource.username=" + database.getTestContainer().getUsername(),
+                    "spring.datasource.password=" + database.getTestContainer().getPassword(),
+                    "jhipster.cache.redis.server=redis://" +
+                    redis.getRedisContainer().getHost() +
+                    ":" +
+                    redis.getRedisContainer().getMappedPort(6379),
+                    "spring.jpa.properties.hibernate.generate_statistics=true"
+                )
+                .run();
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        createUsers(context.getBean(AuthorityRepository.class));
+
+        Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        long statements = statistics.getPrepareStatementCount();
+        int users = listUsers().size();
+        statements = statistics.getPrepareStatementCount() - statements;
+        System.out.printf("%n%s mapping: %d users, %d SQL statements%n", mapping, users, statements);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        redis.destroy();
+        database.destroy();
+    }
+
+    @Benchmark
+    public List<AdminUserDTO> listUsers() {
+        if ("entity".equals(mapping)) {
+            return readOnlyTransaction.execute(status ->
+                userRepository.findAllByIdNotNull(PAGE, User.class).map(AdminUserDTO::new).getContent()
+            );
+        }
+        return userService.getAllManagedUsers(PAGE).getContent();
+    }
+
+    /**
+     * Creates users up to a single full page, so that the page is the last one and is not counted.
+     */
+    private void createUsers(AuthorityRepository authorityRepository) {
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.executeWithoutResult(status -> {
+            List<User> users = new ArrayList<>();
+            for (long i = userRepository.count(); i < PAGE_SIZE; i++) {
+                User user = new User();
+                user.setLogin("user-" + i);
+                user.setEmail("user-" + i + "@localhost");
+                user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+                user.setFirstName("First " + i);
+                user.setLastName("Last " + i);
+                user.setActivated(true);
+                user.setLangKey("en");
+                user.setAuthorities(new HashSet<>(authorityRepository.findAll()));
+                users.add(user);
+            }
+            userRepository.saveAll(users);
+        });
+    }
+}
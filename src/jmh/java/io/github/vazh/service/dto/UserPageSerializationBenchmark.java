@@ -0,0 +1,94 @@
+package io.github.vazh.service.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.vazh.security.AuthoritiesConstants;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measures the JSON serialization of the pages of users returned by the user listings, with the modules and settings of
+ * the application's object mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPageSerializationBenchmark {
+
+    @Param({ "20", "100" })
+    public int pageSize;
+
+    private ObjectWriter adminUsersWriter;
+
+    private ObjectWriter usersWriter;
+
+    private List<AdminUserDTO> adminUsers;
+
+    private List<UserDTO> users;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder
+            .json()
+            .modules(new JavaTimeModule(), new Jdk8Module())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        adminUsersWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, AdminUserDTO.class));
+        usersWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, UserDTO.class));
+        adminUsers = new ArrayList<>(pageSize);
+        users = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            AdminUserDTO user = new AdminUserDTO();
+            user.setId((long) i);
+            user.setLogin("user" + i);
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("user" + i + "@localhost");
+            user.setImageUrl("http://placehold.it/50x50");
+            user.setActivated(true);
+            user.setLangKey("en");
+            user.setCreatedBy("system");
+            user.setCreatedDate(Instant.EPOCH);
+            user.setLastModifiedBy("system");
+            user.setLastModifiedDate(Instant.EPOCH);
+            user.setAuthorities(Set.of(AuthoritiesConstants.USER));
+            adminUsers.add(user);
+            UserDTO publicUser = new UserDTO();
+            publicUser.setId(user.getId());
+            publicUser.setLogin(user.getLogin());
+            users.add(publicUser);
+        }
+    }
+
+    @Benchmark
+    public byte[] adminUsers() throws JsonProcessingException {
+        return adminUsersWriter.writeValueAsBytes(adminUsers);
+    }
+
+    @Benchmark
+    public byte[] users() throws JsonProcessingException {
+        return usersWriter.writeValueAsBytes(users);
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.vazh.service.mapper;
+
+import io.github.vazh.domain.Authority;
+import io.github.vazh.domain.User;
+import io.github.vazh.repository.ManagedUserSummary;
+import io.github.vazh.security.AuthoritiesConstants;
+import io.github.vazh.service.dto.AdminUserDTO;
+import io.github.vazh.service.dto.UserDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+/**
+ * Measures the bulk mappings of the {@link UserMapper}, and the construction of the {@link AdminUserDTO} of a page of users
+ * from entities and from the projections read by the user listings.
+ * <p>
+ * The projections are created by the Spring Data projection factory, so they are proxies backed by a map, as the
+ * projections read from a JPA tuple.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    @Param({ "20", "1000" })
+    public int size;
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private List<User> users;
+
+    private List<AdminUserDTO> userDTOs;
+
+    private List<ManagedUserSummary> summaries;
+
+    private final Set<String> authorities = Set.of(AuthoritiesConstants.USER);
+
+    @Setup
+    public void setup() {
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        users = new ArrayList<>(size);
+        summaries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setLogin("user" + i);
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("user" + i + "@localhost");
+            user.setImageUrl("http://placehold.it/50x50");
+            user.setActivated(true);
+            user.setLangKey("en");
+            user.setCreatedBy("system");
+            user.setCreatedDate(Instant.EPOCH);
+            user.setLastModifiedBy("system");
+            user.setLastModifiedDate(Instant.EPOCH);
+            user.setAuthorities(Set.of(authority));
+            users.add(user);
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", user.getId());
+            row.put("login", user.getLogin());
+            row.put("firstName", user.getFirstName());
+            row.put("lastName", user.getLastName());
+            row.put("email", user.getEmail());
+            row.put("imageUrl", user.getImageUrl());
+            row.put("activated", user.isActivated());
+            row.put("langKey", user.getLangKey());
+            row.put("createdBy", user.getCreatedBy());
+            row.put("createdDate", user.getCreatedDate());
+            row.put("lastModifiedBy", user.getLastModifiedBy());
+            row.put("lastModifiedDate", user.getLastModifiedDate());
+            summaries.add(projectionFactory.createProjection(ManagedUserSummary.class, row));
+        }
+        userDTOs = userMapper.usersToAdminUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<AdminUserDTO> usersToAdminUserDTOs() {
+        return userMapper.usersToAdminUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<User> userDTOsToUsers() {
+        return userMapper.userDTOsToUsers(userDTOs);
+    }
+
+    @Benchmark
+    public List<AdminUserDTO> adminUserDTOsFromProjections() {
+        List<AdminUserDTO> result = new ArrayList<>(summaries.size());
+        for (ManagedUserSummary summary : summaries) {
+            result.add(new AdminUserDTO(summary, authorities));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.vazh.loadtest;
+
+import io.github.vazh.config.PostgreSqlTestContainer;
+import io.github.vazh.config.RedisTestContainer;
+import java.util.List;
+import org.testcontainers.DockerClientFactory;
+
+/**
+ * The Postgres database and the Redis server the application is started against.
+ * <p>
+ * When a database is given with {@code -Dloadtest.datasource.url} (and {@code loadtest.datasource.username},
+ * {@code loadtest.datasource.password} and {@code loadtest.redis.server}), the given servers are used. Otherwise, the
+ * containers of the integration tests are started when Docker is available, and the servers of
+ * {@code src/main/docker/postgresql.yml} and {@code src/main/docker/redis.yml}, on localhost, are used when it is not.
+ */
+final class BackingServices implements AutoCloseable {
+
+    private static final String LOCAL_DATASOURCE_URL = "jdbc:postgresql://localhost:5432/jhipsterSampleApplication";
+
+    private static final String LOCAL_DATASOURCE_USERNAME = "jhipsterSampleApplication";
+
+    private static final String LOCAL_REDIS = "redis://localhost:6379";
+
+    private final PostgreSqlTestContainer database;
+
+    private final RedisTestContainer redis;
+
+    private final String datasourceUrl;
+
+    private final String datasourceUsername;
+
+    private final String datasourcePassword;
+
+    private final String redisServer;
+
+    private BackingServices(
+        PostgreSqlTestContainer database,
+        RedisTestContainer redis,
+        String datasourceUrl,
+        String datasourceUsername,
+        String datasourcePassword,
+        String redisServer
+    ) {
+        this.database = database;
+        this.redis = redis;
+        this.datasourceUrl = datasourceUrl;
+        this.datasourceUsername = datasourceUsername;
+        this.datasourcePassword = datasourcePassword;
+        this.redisServer = redisServer;
+    }
+
+    static BackingServices start() {
+        String datasourceUrl = property("loadtest.datasource.url", null);
+        if (datasourceUrl == null && DockerClientFactory.instance().isDockerAvailable()) {
+            PostgreSqlTestContainer database = new PostgreSqlTestContainer();
+            database.afterPropertiesSet();
+            RedisTestContainer redis = new RedisTestContainer();
+            redis.afterPropertiesSet();
+            return new BackingServices(
+                database,
+                redis,
+                database.getTestContainer().getJdbcUrl(),
+                database.getTestContainer().getUsername(),
+                database.getTestContainer().getPassword(),
+                "redis://" + redis.getRedisContainer().getHost() + ":" + redis.getRedisContainer().getMappedPort(6379)
+            );
+        }
+        if (datasourceUrl == null) {
+            System.out.println("Docker is not available, using the Postgres and Redis servers running on localhost");
+        }
+        return new BackingServices(
+            null,
+            null,
+            datasourceUrl == null ? LOCAL_DATASOURCE_URL : datasourceUrl,
+            property("loadtest.datasource.username", LOCAL_DATASOURCE_USERNAME),
+            property("loadtest.datasource.password", ""),
+            property("loadtest.redis.server", LOCAL_REDIS)
+        );
+    }
+
+    /**
+     * @return the command line arguments connecting the application to these servers.
+     */
+    List<String> applicationArguments() {
+        return List.of(
+            "--spring.datasource.url=" + datasourceUrl,
+            "--spring.datasource.username=" + datasourceUsername,
+            "--spring.datasource.password=" + datasourcePassword,
+            "--jhipster.cache.redis.server=" + redisServer
+        );
+    }
+
+    /**
+     * @return the value of a system property, or the default value when it is not set or empty, as when it is left empty
+     * in the Maven profile.
+     */
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    @Override
+    public void close() {
+        if (redis != null) {
+            redis.destroy();
+        }
+        if (database != null) {
+            database.destroy();
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package io.github.vazh.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Load test of the packaged application, started in its own JVM against a Postgres database and a Redis server (see
+ * {@link BackingServices}).
+ * <p>
+ * The {@link Scenario}s run one after the other, each for a warm-up and then a measured period, during which a fixed
+ * number of clients send their requests without pause. The throughput and the latencies are measured by the clients, the
+ * allocation and the garbage collection pauses are read from the Prometheus metrics of the application before and after
+ * the measured period (the allocated memory is counted at each collection, so short periods are approximate).
+ * <p>
+ * The results are written as JSON, and compared with a baseline when there is one: the load test fails when a scenario
+ * has errors, or when its throughput, the 99th percentile of its latencies or the bytes it allocates per request is
+ * worse than in the baseline by more than the threshold, in percent.
+ * <p>
+ * Settings, given as system properties: {@code loadtest.jar}, {@code loadtest.jvm-args}, {@code loadtest.profiles},
+ * {@code loadtest.scenarios}, {@code loadtest.users}, {@code loadtest.warmup} and {@code loadtest.duration} (in
+ * seconds), {@code loadtest.result}, {@code loadtest.baseline} and {@code loadtest.threshold}.
+ */
+public final class LoadTest {
+
+    private static final String ALLOCATED_BYTES = "jvm_gc_memory_allocated_bytes_total";
+
+    private static final String GC_PAUSES = "jvm_gc_pause_seconds_count";
+
+    private static final String GC_PAUSE_SECONDS = "jvm_gc_pause_seconds_sum";
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(System.getProperty("loadtest.jar", "target/jhipster-sample-application-0.0.1-SNAPSHOT.jar"));
+        String scenarioIds = System.getProperty("loadtest.scenarios");
+        List<Scenario> scenarios = scenarioIds == null ? List.of(Scenario.values()) : Scenario.parse(scenarioIds);
+        int users = Integer.getInteger("loadtest.users", 20);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+        Path result = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+        Path baseline = Path.of(System.getProperty("loadtest.baseline", "src/loadtest/baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("loadtest.threshold", "20"));
+        if (!Files.exists(jar)) {
+            System.err.println("No application at " + jar + ", package it with: ./mvnw -Pprod -DskipTests package");
+            System.exit(2);
+        }
+
+        List<ScenarioResult> results = new ArrayList<>();
+        Path log = result.resolveSibling("loadtest-application.log");
+        try (BackingServices services = BackingServices.start()) {
+            int port = freePort();
+            Process application = startApplication(jar, port, services, log);
+            try {
+                LoadTestClient client = new LoadTestClient(URI.create("http://localhost:" + port));
+                awaitReadiness(client, application, log);
+                client.authenticate();
+                System.out.printf(
+                    "%n%-16s %10s %8s %10s %10s %10s %10s %10s %12s %10s %10s%n",
+                    "Scenario",
+                    "Requests",
+                    "Errors",
+                    "Req/s",
+                    "p50 ms",
+                    "p99 ms",
+                    "Max ms",
+                    "Alloc MB/s",
+                    "Alloc B/req",
+                    "GC pauses",
+                    "GC ms"
+                );
+                for (Scenario scenario : scenarios) {
+                    drive(client, scenario, users, warmup);
+                    ScenarioResult scenarioResult = measure(client, scenario, users, duration);
+                    results.add(scenarioResult);
+                    print(scenarioResult);
+                }
+            } finally {
+                stop(application);
+            }
+        }
+
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(result.toFile(), results);
+        System.out.println("\nResults written to " + result + ", logs of the application in " + log);
+
+        long failures = results.stream().filter(scenarioResult -> scenarioResult.getErrors() > 0).count();
+        if (Files.exists(baseline)) {
+            failures += compare(results, read(baseline), threshold);
+        } else {
+            System.out.println("No baseline at " + baseline + ", store one with: cp " + result + " " + baseline);
+        }
+        if (failures > 0) {
+            System.err.println(failures + " scenario(s) had errors or regressed by more than " + threshold + "%");
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static Process startApplication(Path jar, int port, BackingServices services, Path log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String jvmArgs = System.getProperty("loadtest.jvm-args", "-Xms512m -Xmx512m").trim();
+        if (!jvmArgs.isEmpty()) {
+            command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--spring.profiles.active=" + System.getProperty("loadtest.profiles", "prod"));
+        command.add("--server.port=" + port);
+        command.add("--management.metrics.export.prometheus.enabled=true");
+        command.addAll(services.applicationArguments());
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+    }
+
+    private static void awaitReadiness(LoadTestClient client, Process application, Path log) throws InterruptedException {
+        HttpRequest readiness = client.get("/management/health/readiness", null);
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("The application exited with " + application.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(readiness) == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("The application was not ready after " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    private static void stop(Process application) throws InterruptedException {
+        application.destroy();
+        if (!application.waitFor(30, TimeUnit.SECONDS)) {
+            application.destroyForcibly();
+        }
+    }
+
+    private static ScenarioResult measure(LoadTestClient client, Scenario scenario, int users, Duration duration)
+        throws IOException, InterruptedException {
+        Map<String, Double> before = metrics(client);
+        long start = System.nanoTime();
+        Measure measure = drive(client, scenario, users, duration);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Map<String, Double> after = metrics(client);
+
+        long requests = measure.latencies.getTotalCount();
+        double allocated = after.get(ALLOCATED_BYTES) - before.get(ALLOCATED_BYTES);
+        return new ScenarioResult(
+            scenario.id(),
+            requests,
+            measure.errors,
+            requests / seconds,
+            measure.latencies.getValueAtPercentile(50) / 1000.0,
+            measure.latencies.getValueAtPercentile(99) / 1000.0,
+            measure.latencies.getMaxValue() / 1000.0,
+            allocated / seconds / (1024 * 1024),
+            requests == 0 ? 0 : allocated / requests,
+            Math.round(after.get(GC_PAUSES) - before.get(GC_PAUSES)),
+            (after.get(GC_PAUSE_SECONDS) - before.get(GC_PAUSE_SECONDS)) * 1000
+        );
+    }
+
+    /**
+     * Sends the requests of a scenario from the given number of clients, each sending its next request as soon as it gets
+     * the response to the previous one.
+     */
+    private static Measure drive(LoadTestClient client, Scenario scenario, int users, Duration duration) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        AtomicLong sequence = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Measure>> clients = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            clients.add(
+                executor.submit(() -> {
+                    Measure measure = new Measure();
+                    while (System.nanoTime() < deadline) {
+                        long n = sequence.getAndIncrement();
+                        Scenario step = scenario.select(n);
+                        HttpRequest request = step.request(client, n);
+                        long start = System.nanoTime();
+                        boolean expected;
+                        try {
+                            expected = client.send(request) == step.expectedStatus();
+                        } catch (IOException e) {
+                            expected = false;
+                        }
+                        measure.record(System.nanoTime() - start, expected);
+                    }
+                    return measure;
+                })
+            );
+        }
+        executor.shutdown();
+        Measure total = new Measure();
+        try {
+            for (Future<Measure> measure : clients) {
+                total.add(measure.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not send the requests of " + scenario.id(), e.getCause());
+        }
+        return total;
+    }
+
+    /**
+     * @return the metrics of the application read by the load test, summed over all their tags.
+     */
+    private static Map<String, Double> metrics(LoadTestClient client) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.sendForText(client.get("/management/prometheus", null));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not read the metrics of the application: " + response.statusCode());
+        }
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        for (String name : List.of(ALLOCATED_BYTES, GC_PAUSES, GC_PAUSE_SECONDS)) {
+            metrics.put(name, 0.0);
+        }
+        response
+            .body()
+            .lines()
+            .filter(line -> !line.startsWith("#"))
+            .forEach(line -> {
+                int end = line.indexOf('{');
+                String name = line.substring(0, end < 0 ? line.indexOf(' ') : end);
+                if (metrics.containsKey(name)) {
+                    metrics.merge(name, Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)), Double::sum);
+                }
+            });
+        return metrics;
+    }
+
+    private static void print(ScenarioResult result) {
+        System.out.printf(
+            "%-16s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.1f %12.0f %10d %10.1f%n",
+            result.getScenario(),
+            result.getRequests(),
+            result.getErrors(),
+            result.getThroughput(),
+            result.getP50(),
+            result.getP99(),
+            result.getMax(),
+            result.getAllocationRate(),
+            result.getAllocatedPerRequest(),
+            result.getGcPauses(),
+            result.getGcPauseTime()
+        );
+    }
+
+    private static int compare(List<ScenarioResult> results, Map<String, ScenarioResult> baseline, double threshold) {
+        int regressions = 0;
+        System.out.printf("%n%-16s %12s %12s %12s%n", "Scenario", "Req/s", "p99", "Alloc B/req");
+        for (ScenarioResult result : results) {
+            ScenarioResult previous = baseline.get(result.getScenario());
+            if (previous == null) {
+                System.out.printf("%-16s %12s%n", result.getScenario(), "new");
+                continue;
+            }
+            double throughputChange = worsening(previous.getThroughput(), result.getThroughput(), true);
+            double latencyChange = worsening(previous.getP99(), result.getP99(), false);
+            double allocationChange = worsening(previous.getAllocatedPerRequest(), result.getAllocatedPerRequest(), false);
+            boolean regressed = throughputChange > threshold || latencyChange > threshold || allocationChange > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(
+                "%-16s %+11.1f%% %+11.1f%% %+11.1f%% %s%n",
+                result.getScenario(),
+                0.0 - throughputChange,
+                0.0 - latencyChange,
+                0.0 - allocationChange,
+                regressed ? "REGRESSED" : ""
+            );
+        }
+        return regressions;
+    }
+
+    /**
+     * @return how much worse the value is than the previous value, in percent, or 0 if it is not comparable.
+     */
+    private static double worsening(double previous, double value, boolean higherIsBetter) {
+        if (previous <= 0) {
+            return 0;
+        }
+        double change = (value - previous) / previous * 100;
+        return higherIsBetter ? -change : change;
+    }
+
+    private static Map<String, ScenarioResult> read(Path path) throws IOException {
+        Map<String, ScenarioResult> results = new LinkedHashMap<>();
+        for (ScenarioResult result : new ObjectMapper().readValue(path.toFile(), ScenarioResult[].class)) {
+            results.put(result.getScenario(), result);
+        }
+        return results;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * The latencies, in microseconds, and the number of errors seen by the clients.
+     */
+    private static final class Measure {
+
+        private final Histogram latencies = new Histogram(3);
+
+        private long errors;
+
+        void record(long nanos, boolean expected) {
+            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+            if (!expected) {
+                errors++;
+            }
+        }
+
+        void add(Measure other) {
+            latencies.add(other.latencies);
+            errors += other.errors;
+        }
+    }
+}
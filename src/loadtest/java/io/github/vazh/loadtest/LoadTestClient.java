@@ -0,0 +1,104 @@
+package io.github.vazh.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Sends the requests of the {@link Scenario}s to the application, with the tokens of the {@code admin} and {@code user}
+ * accounts created by Liquibase.
+ */
+final class LoadTestClient {
+
+    static final String USER_LOGIN = "user";
+
+    static final String USER_EMAIL = "user@localhost";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient
+        .newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(TIMEOUT)
+        .build();
+
+    private final URI baseUri;
+
+    /**
+     * Distinguishes the accounts registered by this run from those of the previous runs against the same database.
+     */
+    private final String runId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private String adminToken;
+
+    private String userToken;
+
+    LoadTestClient(URI baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    void authenticate() throws IOException, InterruptedException {
+        adminToken = token("admin", "admin");
+        userToken = token(USER_LOGIN, "user");
+    }
+
+    String runId() {
+        return runId;
+    }
+
+    String adminToken() {
+        return adminToken;
+    }
+
+    String userToken() {
+        return userToken;
+    }
+
+    HttpRequest get(String path, String token) {
+        HttpRequest.Builder request = request(path).GET();
+        if (token != null) {
+            request.header("Authorization", token);
+        }
+        return request.build();
+    }
+
+    HttpRequest postJson(String path, String json) {
+        return request(path).header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    HttpRequest postText(String path, String text) {
+        return request(path).header("Content-Type", "text/plain").POST(HttpRequest.BodyPublishers.ofString(text)).build();
+    }
+
+    HttpRequest authentication(String login, String password) {
+        return postJson("/api/authenticate", "{\"username\":\"" + login + "\",\"password\":\"" + password + "\"}");
+    }
+
+    /**
+     * Sends a request and discards the body of the response.
+     *
+     * @return the status of the response.
+     */
+    int send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    HttpResponse<String> sendForText(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String token(String login, String password) throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(authentication(login, password), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not authenticate " + login + ": " + response.statusCode());
+        }
+        return response.headers().firstValue("Authorization").orElseThrow();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(TIMEOUT).header("Accept", "application/json");
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.vazh.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * The requests sent by the load test. Each scenario repeats a single request, except {@link #MIXED}, which interleaves
+ * all of them in the proportions of a typical day: mostly authenticated reads, some logins, and a few registrations and
+ * password resets.
+ */
+enum Scenario {
+    LOGIN("login", 200) {
+        @Override
+        HttpRequest request(LoadTestClient client, long sequence) {
+            return client.authentication(LoadTestClient.USER_LOGIN, "user");
+        }
+    },
+    ACCOUNT("account", 200) {
+        @Override
+        HttpRequest request(LoadTestClient client, long sequence) {
+            return client.get("/api/account", client.userToken());
+        }
+    },
+    ADMIN_USERS("admin-users", 200) {
+        @Override
+        HttpRequest request(LoadTestClient client, long sequence) {
+            return client.get("/api/admin/users?page=0&size=20&sort=id,asc", client.adminToken());
+        }
+    },
+    REGISTER("register", 201) {
+        @Override
+        HttpRequest request(LoadTestClient client, long sequence) {
+            String login = "load-" + client.runId() + "-" + sequence;
+            return client.postJson(
+                "/api/register",
+                "{\"login\":\"" + login + "\",\"email\":\"" + login + "@localhost\",\"password\":\"password\",\"langKey\":\"en\"}"
+            );
+        }
+    },
+    RESET_PASSWORD("reset-password", 200) {
+        @Override
+        HttpRequest request(LoadTestClient client, long sequence) {
+            return client.postText("/api/account/reset-password/init", LoadTestClient.USER_EMAIL);
+        }
+    },
+    MIXED("mixed", 0) {
+        @Override
+        Scenario select(long sequence) {
+            return MIX.get((int) (sequence % MIX.size()));
+        }
+
+        @Override
+        HttpRequest request(LoadTestClient client, long sequence) {
+            return select(sequence).request(client, sequence);
+        }
+    };
+
+    /**
+     * The requests of the {@link #MIXED} scenario, out of 20.
+     */
+    private static final List<Scenario> MIX = mix();
+
+    private final String id;
+
+    private final int expectedStatus;
+
+    Scenario(String id, int expectedStatus) {
+        this.id = id;
+        this.expectedStatus = expectedStatus;
+    }
+
+    String id() {
+        return id;
+    }
+
+    /**
+     * @return the scenario whose request is sent as the request with the given sequence number.
+     */
+    Scenario select(long sequence) {
+        return this;
+    }
+
+    int expectedStatus() {
+        return expectedStatus;
+    }
+
+    abstract HttpRequest request(LoadTestClient client, long sequence);
+
+    /**
+     * @return the scenarios with the given ids, separated by commas.
+     */
+    static List<Scenario> parse(String ids) {
+        return Arrays
+            .stream(ids.split(","))
+            .map(String::trim)
+            .map(id ->
+                Arrays
+                    .stream(values())
+                    .filter(scenario -> scenario.id.equals(id))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown scenario: " + id))
+            )
+            .collect(Collectors.toList());
+    }
+
+    private static List<Scenario> mix() {
+        Scenario[] mix = new Scenario[20];
+        Arrays.fill(mix, 0, 12, ACCOUNT);
+        Arrays.fill(mix, 12, 16, ADMIN_USERS);
+        Arrays.fill(mix, 16, 18, LOGIN);
+        mix[18] = REGISTER;
+        mix[19] = RESET_PASSWORD;
+        List<Scenario> list = Arrays.asList(mix);
+        // Spreads the logins and the writes between the reads
+        Collections.shuffle(list, new Random(20));
+        return List.copyOf(list);
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.vazh.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The measures of a {@link Scenario}: the throughput and the latencies seen by the clients, and the memory allocated and
+ * the garbage collection pauses of the application while it ran.
+ */
+final class ScenarioResult {
+
+    private final String scenario;
+
+    private final long requests;
+
+    private final long errors;
+
+    private final double throughput;
+
+    private final double p50;
+
+    private final double p99;
+
+    private final double max;
+
+    private final double allocationRate;
+
+    private final double allocatedPerRequest;
+
+    private final long gcPauses;
+
+    private final double gcPauseTime;
+
+    @JsonCreator
+    ScenarioResult(
+        @JsonProperty("scenario") String scenario,
+        @JsonProperty("requests") long requests,
+        @JsonProperty("errors") long errors,
+        @JsonProperty("throughput") double throughput,
+        @JsonProperty("p50") double p50,
+        @JsonProperty("p99") double p99,
+        @JsonProperty("max") double max,
+        @JsonProperty("allocationRate") double allocationRate,
+        @JsonProperty("allocatedPerRequest") double allocatedPerRequest,
+        @JsonProperty("gcPauses") long gcPauses,
+        @JsonProperty("gcPauseTime") double gcPauseTime
+    ) {
+        this.scenario = scenario;
+        this.requests = requests;
+        this.errors = errors;
+        this.throughput = throughput;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.max = max;
+        this.allocationRate = allocationRate;
+        this.allocatedPerRequest = allocatedPerRequest;
+        this.gcPauses = gcPauses;
+        this.gcPauseTime = gcPauseTime;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return the number of requests which failed or were answered with an unexpected status.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the number of requests per second.
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * @return the median latency, in milliseconds.
+     */
+    public double getP50() {
+        return p50;
+    }
+
+    /**
+     * @return the 99th percentile of the latencies, in milliseconds.
+     */
+    public double getP99() {
+        return p99;
+    }
+
+    /**
+     * @return the maximum latency, in milliseconds.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return the number of megabytes allocated per second by the application.
+     */
+    public double getAllocationRate() {
+        return allocationRate;
+    }
+
+    /**
+     * @return the number of bytes allocated by the application per request.
+     */
+    public double getAllocatedPerRequest() {
+        return allocatedPerRequest;
+    }
+
+    /**
+     * @return the number of garbage collection pauses of the application.
+     */
+    public long getGcPauses() {
+        return gcPauses;
+    }
+
+    /**
+     * @return the total time of the garbage collection pauses of the application, in milliseconds.
+     */
+    public double getGcPauseTime() {
+        return gcPauseTime;
+    }
+}
@@ -1,12 +1,21 @@
 package io.github.vazh.aop.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
@@ -14,17 +23,43 @@ import org.springframework.core.env.Profiles;
 import tech.jhipster.config.JHipsterConstants;
 
 /**
- * Aspect for logging execution of service and repository Spring components.
+ * Aspect for logging execution of service and repository Spring components, and for timing a sample of their calls.
  *
- * By default, it only runs with the "dev" profile.
+ * By default, it only runs with the "dev" profile, when the application loggers are at the debug level. When it only runs
+ * to time calls, nothing is logged. The logger and the timer of each method are looked up once, and a call which is
+ * neither logged nor sampled only pays for the checks.
  */
 @Aspect
 public class LoggingAspect {
 
+    public static final String METHOD_METER_NAME = "method.sampled";
+    public static final String METHOD_METER_DESCRIPTION = "Indicates the time spent in a sample of the calls of the application methods.";
+
     private final Environment env;
 
+    private final boolean logging;
+
+    private final Supplier<MeterRegistry> registry;
+
+    private final double sampleRate;
+
+    private final Map<Method, MethodInstrumentation> instrumentations = new ConcurrentHashMap<>();
+
     public LoggingAspect(Environment env) {
+        this(env, true, null, 0);
+    }
+
+    /**
+     * @param env the environment.
+     * @param logging whether calls and exceptions are logged, or only timed.
+     * @param registry supplies the registry of the method timers on the first timed call, or {@code null} if no call is timed.
+     * @param sampleRate the fraction of the calls of each method which are timed, from 0 to 1.
+     */
+    public LoggingAspect(Environment env, boolean logging, Supplier<MeterRegistry> registry, double sampleRate) {
         this.env = env;
+        this.logging = logging;
+        this.registry = registry;
+        this.sampleRate = registry == null ? 0 : sampleRate;
     }
 
     /**
@@ -48,13 +83,14 @@ public class LoggingAspect {
     }
 
     /**
-     * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
+     * Retrieves the logger and the timer of the method of the given {@link JoinPoint}, which are created on its first call.
      *
-     * @param joinPoint join point we want the logger for.
-     * @return {@link Logger} associated to the given {@link JoinPoint}.
+     * @param joinPoint join point we want the instrumentation for.
+     * @return the instrumentation of the method.
      */
-    private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+    private MethodInstrumentation instrumentation(JoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        return instrumentations.computeIfAbsent(signature.getMethod(), method -> new MethodInstrumentation(signature));
     }
 
     /**
@@ -65,27 +101,29 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
+        if (!logging) {
+            return;
+        }
+        Logger log = instrumentation(joinPoint).log;
         if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
-            logger(joinPoint)
-                .error(
-                    "Exception in {}() with cause = '{}' and exception = '{}'",
-                    joinPoint.getSignature().getName(),
-                    e.getCause() != null ? e.getCause() : "NULL",
-                    e.getMessage(),
-                    e
-                );
+            log.error(
+                "Exception in {}() with cause = '{}' and exception = '{}'",
+                joinPoint.getSignature().getName(),
+                e.getCause() != null ? e.getCause() : "NULL",
+                e.getMessage(),
+                e
+            );
         } else {
-            logger(joinPoint)
-                .error(
-                    "Exception in {}() with cause = {}",
-                    joinPoint.getSignature().getName(),
-                    e.getCause() != null ? e.getCause() : "NULL"
-                );
+            log.error(
+                "Exception in {}() with cause = {}",
+                joinPoint.getSignature().getName(),
+                e.getCause() != null ? e.getCause() : "NULL"
+            );
         }
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that logs when a method is entered and exited, and times a sample of the calls.
      *
      * @param joinPoint join point for advice.
      * @return result.
@@ -93,19 +131,85 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = logger(joinPoint);
-        if (log.isDebugEnabled()) {
+        MethodInstrumentation instrumentation = instrumentation(joinPoint);
+        Logger log = instrumentation.log;
+        boolean debug = logging && log.isDebugEnabled();
+        boolean sampled = sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+        if (!debug && !sampled) {
+            return proceed(joinPoint, logging ? log : null);
+        }
+        if (debug) {
             log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
         }
+        long start = sampled ? System.nanoTime() : 0;
+        Throwable failure = null;
         try {
-            Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
+            Object result = proceed(joinPoint, logging ? log : null);
+            if (debug) {
                 log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
             }
             return result;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (sampled) {
+                instrumentation.timer(failure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * @param log the logger of illegal arguments, or {@code null} if they are not logged.
+     */
+    private static Object proceed(ProceedingJoinPoint joinPoint, Logger log) throws Throwable {
+        try {
+            return joinPoint.proceed();
         } catch (IllegalArgumentException e) {
+            if (log == null) {
+                throw e;
+            }
             log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
             throw e;
         }
     }
+
+    private final class MethodInstrumentation {
+
+        private final Logger log;
+
+        private final String className;
+
+        private final String methodName;
+
+        private volatile Timer timer;
+
+        private MethodInstrumentation(MethodSignature signature) {
+            this.log = LoggerFactory.getLogger(signature.getDeclaringTypeName());
+            this.className = signature.getDeclaringType().getSimpleName();
+            this.methodName = signature.getName();
+        }
+
+        private Timer timer(Throwable failure) {
+            if (failure != null) {
+                // The registry returns the existing timer of each exception
+                return timerBuilder(failure.getClass().getSimpleName()).register(registry.get());
+            }
+            Timer result = timer;
+            if (result == null) {
+                result = timerBuilder("none").register(registry.get());
+                timer = result;
+            }
+            return result;
+        }
+
+        private Timer.Builder timerBuilder(String exception) {
+            return Timer
+                .builder(METHOD_METER_NAME)
+                .description(METHOD_METER_DESCRIPTION)
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("exception", exception);
+        }
+    }
 }
@@ -1,5 +1,10 @@
 package io.github.vazh.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +15,642 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Security security = new Security();
+
+    private final Cache cache = new Cache();
+
+    private final UserCleanup userCleanup = new UserCleanup();
+
+    private final UserCount userCount = new UserCount();
+
+    private final UserImport userImport = new UserImport();
+
+    private final MailQueue mailQueue = new MailQueue();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final MethodTiming methodTiming = new MethodTiming();
+
+    private final Metrics metrics = new Metrics();
+
+    private final HotPaths hotPaths = new HotPaths();
+
+    private final IdGenerator idGenerator = new IdGenerator();
+
     // jhipster-needle-application-properties-property
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public UserCleanup getUserCleanup() {
+        return userCleanup;
+    }
+
+    public UserCount getUserCount() {
+        return userCount;
+    }
+
+    public UserImport getUserImport() {
+        return userImport;
+    }
+
+    public MailQueue getMailQueue() {
+        return mailQueue;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public MethodTiming getMethodTiming() {
+        return methodTiming;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public HotPaths getHotPaths() {
+        return hotPaths;
+    }
+
+    public IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Security {
+
+        private final TokenCache tokenCache = new TokenCache();
+
+        private final Jwt jwt = new Jwt();
+
+        private final PasswordHashing passwordHashing = new PasswordHashing();
+
+        private final UnknownLoginCache unknownLoginCache = new UnknownLoginCache();
+
+        public TokenCache getTokenCache() {
+            return tokenCache;
+        }
+
+        public Jwt getJwt() {
+            return jwt;
+        }
+
+        public PasswordHashing getPasswordHashing() {
+            return passwordHashing;
+        }
+
+        public UnknownLoginCache getUnknownLoginCache() {
+            return unknownLoginCache;
+        }
+
+        public static class TokenCache {
+
+            private boolean enabled = true;
+
+            private long maxSize = 10_000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(long maxSize) {
+                this.maxSize = maxSize;
+            }
+        }
+
+        public static class Jwt {
+
+            private String signingKeyId;
+
+            private List<JwtKey> keys = new ArrayList<>();
+
+            private boolean requireKeyId = false;
+
+            public String getSigningKeyId() {
+                return signingKeyId;
+            }
+
+            public void setSigningKeyId(String signingKeyId) {
+                this.signingKeyId = signingKeyId;
+            }
+
+            public List<JwtKey> getKeys() {
+                return keys;
+            }
+
+            public void setKeys(List<JwtKey> keys) {
+                this.keys = keys;
+            }
+
+            public boolean isRequireKeyId() {
+                return requireKeyId;
+            }
+
+            public void setRequireKeyId(boolean requireKeyId) {
+                this.requireKeyId = requireKeyId;
+            }
+
+            public static class JwtKey {
+
+                private String id;
+
+                private String algorithm = "ES256";
+
+                private String publicKey;
+
+                private String privateKey;
+
+                public String getId() {
+                    return id;
+                }
+
+                public void setId(String id) {
+                    this.id = id;
+                }
+
+                public String getAlgorithm() {
+                    return algorithm;
+                }
+
+                public void setAlgorithm(String algorithm) {
+                    this.algorithm = algorithm;
+                }
+
+                public String getPublicKey() {
+                    return publicKey;
+                }
+
+                public void setPublicKey(String publicKey) {
+                    this.publicKey = publicKey;
+                }
+
+                public String getPrivateKey() {
+                    return privateKey;
+                }
+
+                public void setPrivateKey(String privateKey) {
+                    this.privateKey = privateKey;
+                }
+            }
+        }
+
+        public static class PasswordHashing {
+
+            private int strength = 10;
+
+            private int poolSize = Runtime.getRuntime().availableProcessors();
+
+            private int queueCapacity = 100;
+
+            private Duration timeout = Duration.ofSeconds(5);
+
+            private Duration retryAfter = Duration.ofSeconds(1);
+
+            public int getStrength() {
+                return strength;
+            }
+
+            public void setStrength(int strength) {
+                this.strength = strength;
+            }
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+
+            public Duration getRetryAfter() {
+                return retryAfter;
+            }
+
+            public void setRetryAfter(Duration retryAfter) {
+                this.retryAfter = retryAfter;
+            }
+        }
+
+        public static class UnknownLoginCache {
+
+            private boolean enabled = true;
+
+            private long maxSize = 100_000;
+
+            private Duration timeToLive = Duration.ofMinutes(5);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(long maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        private final NearCache nearCache = new NearCache();
+
+        private final CompactCodec compactCodec = new CompactCodec();
+
+        public NearCache getNearCache() {
+            return nearCache;
+        }
+
+        public CompactCodec getCompactCodec() {
+            return compactCodec;
+        }
+
+        public static class NearCache {
+
+            private boolean enabled = true;
+
+            private long maxSize = 10_000;
+
+            private Duration timeToLive = Duration.ofMinutes(1);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(long maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+
+        public static class CompactCodec {
+
+            private boolean enabled = false;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+    }
+
+    public static class UserCleanup {
+
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("Invalid user cleanup chunk size " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class UserCount {
+
+        private long exactThreshold = 100_000;
+
+        private Duration refreshAfter = Duration.ofMinutes(5);
+
+        public long getExactThreshold() {
+            return exactThreshold;
+        }
+
+        public void setExactThreshold(long exactThreshold) {
+            this.exactThreshold = exactThreshold;
+        }
+
+        public Duration getRefreshAfter() {
+            return refreshAfter;
+        }
+
+        public void setRefreshAfter(Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+        }
+    }
+
+    public static class UserImport {
+
+        private int batchSize = 500;
+
+        private int hashingParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getHashingParallelism() {
+            return hashingParallelism;
+        }
+
+        public void setHashingParallelism(int hashingParallelism) {
+            this.hashingParallelism = hashingParallelism;
+        }
+    }
+
+    public static class MailQueue {
+
+        /**
+         * What to do with an email when the queue is full.
+         */
+        public enum OverflowPolicy {
+            /** The email is rejected. */
+            REJECT,
+            /** The email replaces the last queued email of a lower priority, if any, or is rejected. */
+            DROP_LOWEST_PRIORITY,
+        }
+
+        private int capacity = 10_000;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_LOWEST_PRIORITY;
+
+        private int batchSize = 20;
+
+        private int maxAttempts = 5;
+
+        private Duration initialBackoff = Duration.ofSeconds(2);
+
+        private Duration maxBackoff = Duration.ofMinutes(5);
+
+        private Duration outboxPollInterval = Duration.ofSeconds(1);
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getOutboxPollInterval() {
+            return outboxPollInterval;
+        }
+
+        public void setOutboxPollInterval(Duration outboxPollInterval) {
+            this.outboxPollInterval = outboxPollInterval;
+        }
+    }
+
+    public static class VirtualThreads {
+
+        private boolean enabled = false;
+
+        private Duration pinnedThreshold = Duration.ofMillis(20);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getPinnedThreshold() {
+            return pinnedThreshold;
+        }
+
+        public void setPinnedThreshold(Duration pinnedThreshold) {
+            this.pinnedThreshold = pinnedThreshold;
+        }
+    }
+
+    public static class MethodTiming {
+
+        private double sampleRate = 0;
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    public static class Metrics {
+
+        private List<String> histogramUris = new ArrayList<>(
+            List.of(
+                "/api/authenticate",
+                "/api/account",
+                "/api/register",
+                "/api/activate",
+                "/api/account/reset-password/**",
+                "/api/admin/users/**"
+            )
+        );
+
+        private List<Duration> slo = new ArrayList<>(
+            List.of(
+                Duration.ofMillis(10),
+                Duration.ofMillis(25),
+                Duration.ofMillis(50),
+                Duration.ofMillis(100),
+                Duration.ofMillis(250),
+                Duration.ofMillis(500),
+                Duration.ofSeconds(1),
+                Duration.ofMillis(2500),
+                Duration.ofSeconds(5)
+            )
+        );
+
+        public List<String> getHistogramUris() {
+            return histogramUris;
+        }
+
+        public void setHistogramUris(List<String> histogramUris) {
+            this.histogramUris = histogramUris;
+        }
+
+        public List<Duration> getSlo() {
+            return slo;
+        }
+
+        public void setSlo(List<Duration> slo) {
+            this.slo = slo;
+        }
+    }
+
+    public static class HotPaths {
+
+        private boolean enabled = false;
+
+        private int size = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+    }
+
+    public static class IdGenerator {
+
+        private final Map<String, Blocks> entities = new HashMap<>();
+
+        /**
+         * @return the identifier blocks of the entities, by JPA entity name.
+         */
+        public Map<String, Blocks> getEntities() {
+            return entities;
+        }
+
+        /**
+         * @return the identifier blocks of an entity, or the default blocks if it is not configured.
+         */
+        public Blocks getBlocks(String entityName) {
+            Blocks blocks = entities.get(entityName);
+            return blocks != null ? blocks : new Blocks();
+        }
+
+        public static class Blocks {
+
+            private int blockSize = 1000;
+
+            private Integer prefetchThreshold;
+
+            public int getBlockSize() {
+                return blockSize;
+            }
+
+            public void setBlockSize(int blockSize) {
+                this.blockSize = blockSize;
+            }
+
+            /**
+             * @return the number of identifiers left when the next block is read, or {@code null} for half of the block.
+             */
+            public Integer getPrefetchThreshold() {
+                return prefetchThreshold;
+            }
+
+            public void setPrefetchThreshold(Integer prefetchThreshold) {
+                this.prefetchThreshold = prefetchThreshold;
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -1,5 +1,7 @@
 package io.github.vazh.config;
 
+import io.github.vazh.management.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,8 +9,10 @@ import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -25,13 +29,27 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, ApplicationProperties applicationProperties) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        if (applicationProperties.getVirtualThreads().isEnabled()) {
+            if (VirtualThreadSupport.isAvailable()) {
+                log.debug("Creating Async Task Executor on virtual threads");
+                // A new virtual thread per task, unbounded: the pool size and queue capacity do not apply
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(
+                    VirtualThreadSupport.threadFactory(taskExecutionProperties.getThreadNamePrefix())
+                );
+                return new ExceptionHandlingAsyncTaskExecutor(executor);
+            }
+            log.warn("Virtual threads are enabled but require Java 21, async tasks run on the task executor pool");
+        }
         log.debug("Creating Async Task Executor");
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
@@ -41,6 +59,28 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * The executor draining the mail queue of the {@code MailDispatcher}, which runs a single task at a time.
+     */
+    @Bean(name = "mailTaskExecutor")
+    public Executor mailTaskExecutor() {
+        log.debug("Creating Mail Task Executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("mail-");
+        return executor;
+    }
+
+    /**
+     * Reports the virtual threads pinned to their carrier thread, when they are enabled.
+     */
+    @Bean
+    @Conditional(VirtualThreadSupport.EnabledCondition.class)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(meterRegistry, applicationProperties.getVirtualThreads().getPinnedThreshold());
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
@@ -1,17 +1,26 @@
 package io.github.vazh.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.net.URI;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import javax.cache.configuration.MutableConfiguration;
 import javax.cache.expiry.CreatedExpiryPolicy;
 import javax.cache.expiry.Duration;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
 import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.MarshallingCodec;
 import org.redisson.config.ClusterServersConfig;
 import org.redisson.config.Config;
 import org.redisson.config.SingleServerConfig;
 import org.redisson.jcache.configuration.RedissonConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.cache.CachesEndpoint;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
@@ -31,10 +40,23 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
 
-    @Bean
-    public javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(JHipsterProperties jHipsterProperties) {
-        MutableConfiguration<Object, Object> jcacheConfig = new MutableConfiguration<>();
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    public RedissonClient redissonClient(JHipsterProperties jHipsterProperties) {
+        return Redisson.create(redissonConfig(jHipsterProperties));
+    }
+
+    /**
+     * Client of the caches of users and authorities only, whose values are written by the {@link CompactCacheCodec}.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public RedissonClient compactCacheRedissonClient(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        Config config = redissonConfig(jHipsterProperties);
+        config.setCodec(new CompactCacheCodec(new MarshallingCodec(), applicationProperties.getCache().getCompactCodec().isEnabled()));
+        return Redisson.create(config);
+    }
 
+    private static Config redissonConfig(JHipsterProperties jHipsterProperties) {
         URI redisUri = URI.create(jHipsterProperties.getCache().getRedis().getServer()[0]);
 
         Config config = new Config();
@@ -61,26 +83,94 @@ public class CacheConfiguration {
                 singleServerConfig.setPassword(redisUri.getUserInfo().substring(redisUri.getUserInfo().indexOf(':') + 1));
             }
         }
+        return config;
+    }
+
+    @Bean
+    @Primary
+    public javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(
+        JHipsterProperties jHipsterProperties,
+        RedissonClient redissonClient
+    ) {
+        return RedissonConfiguration.fromInstance(redissonClient, expiringConfiguration(jHipsterProperties));
+    }
+
+    @Bean
+    public javax.cache.configuration.Configuration<Object, Object> compactJcacheConfiguration(
+        JHipsterProperties jHipsterProperties,
+        @Qualifier("compactCacheRedissonClient") RedissonClient compactCacheRedissonClient
+    ) {
+        return RedissonConfiguration.fromInstance(compactCacheRedissonClient, expiringConfiguration(jHipsterProperties));
+    }
+
+    private static MutableConfiguration<Object, Object> expiringConfiguration(JHipsterProperties jHipsterProperties) {
+        MutableConfiguration<Object, Object> jcacheConfig = new MutableConfiguration<>();
         jcacheConfig.setStatisticsEnabled(true);
         jcacheConfig.setExpiryPolicyFactory(
             CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, jHipsterProperties.getCache().getRedis().getExpiration()))
         );
-        return RedissonConfiguration.fromInstance(Redisson.create(config), jcacheConfig);
+        return jcacheConfig;
+    }
+
+    /**
+     * Puts a {@link NearCache} in front of every Redis cache, for both Spring and Hibernate second-level caches.
+     */
+    @Bean
+    public static BeanPostProcessor nearCacheManagerPostProcessor(
+        ObjectProvider<RedissonClient> redissonClient,
+        ObjectProvider<ApplicationProperties> applicationProperties,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof javax.cache.CacheManager) || bean instanceof NearCacheManager) {
+                    return bean;
+                }
+                ApplicationProperties.Cache.NearCache properties = applicationProperties.getObject().getCache().getNearCache();
+                if (!properties.isEnabled()) {
+                    return bean;
+                }
+                return new NearCacheManager(
+                    (javax.cache.CacheManager) bean,
+                    redissonClient.getObject(),
+                    properties,
+                    meterRegistry.getObject()
+                );
+            }
+        };
     }
 
     @Bean
-    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cm) {
-        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cm);
+    public CachesEndpoint cachesEndpoint(Map<String, org.springframework.cache.CacheManager> cacheManagers) {
+        return new NearCachesEndpoint(cacheManagers);
     }
 
+    /**
+     * Structured second-level cache entries are only read by the nodes writing with the {@link CompactCacheCodec}, so they
+     * are switched on with it.
+     */
     @Bean
-    public JCacheManagerCustomizer cacheManagerCustomizer(javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration) {
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(
+        javax.cache.CacheManager cm,
+        ApplicationProperties applicationProperties
+    ) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cm);
+            hibernateProperties.put(AvailableSettings.USE_STRUCTURED_CACHE, applicationProperties.getCache().getCompactCodec().isEnabled());
+        };
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer(
+        @Qualifier("compactJcacheConfiguration") javax.cache.configuration.Configuration<Object, Object> compactJcacheConfiguration
+    ) {
         return cm -> {
-            createCache(cm, io.github.vazh.repository.UserRepository.USERS_BY_LOGIN_CACHE, jcacheConfiguration);
-            createCache(cm, io.github.vazh.repository.UserRepository.USERS_BY_EMAIL_CACHE, jcacheConfiguration);
-            createCache(cm, io.github.vazh.domain.User.class.getName(), jcacheConfiguration);
-            createCache(cm, io.github.vazh.domain.Authority.class.getName(), jcacheConfiguration);
-            createCache(cm, io.github.vazh.domain.User.class.getName() + ".authorities", jcacheConfiguration);
+            createCache(cm, io.github.vazh.repository.UserRepository.USERS_BY_LOGIN_CACHE, compactJcacheConfiguration);
+            createCache(cm, io.github.vazh.repository.UserRepository.USERS_BY_EMAIL_CACHE, compactJcacheConfiguration);
+            createCache(cm, io.github.vazh.domain.User.class.getName(), compactJcacheConfiguration);
+            createCache(cm, io.github.vazh.domain.Authority.class.getName(), compactJcacheConfiguration);
+            createCache(cm, io.github.vazh.domain.User.class.getName() + ".authorities", compactJcacheConfiguration);
             // jhipster-needle-redis-add-entry
         };
     }
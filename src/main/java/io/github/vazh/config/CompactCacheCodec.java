@@ -0,0 +1,412 @@
+package io.github.vazh.config;
+
+import io.github.vazh.domain.Authority;
+import io.github.vazh.domain.User;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Redisson {@link Codec} writing cached {@link User users} and {@link Authority authorities} in a compact, schema-versioned
+ * binary format instead of the serialized Java objects of the default codec.
+ * <p>
+ * The format covers the {@link User} entries of the Spring caches, and the Hibernate second-level cache entries of users,
+ * authorities and {@code User.authorities}, which Hibernate stores as maps and lists of plain values when
+ * {@code hibernate.cache.use_structured_entries} is enabled. Every encoded value starts with a magic byte and the
+ * {@link #VERSION version} of the format; values of any other type, such as map keys or topic messages, are written by
+ * the fallback codec unchanged.
+ * <p>
+ * It is only the codec of the caches of users and authorities. Entries written in the format of the fallback codec before
+ * this codec was deployed are still read through it, except for the unstructured Hibernate entries, which are read as
+ * misses so that Hibernate loads and caches them again. Entries of another version of the format are read as misses too.
+ * <p>
+ * When disabled, the nodes write unstructured Hibernate entries with the fallback codec only, as the nodes which do not
+ * have this codec, and read the structured entries written by the enabled nodes as misses, as Hibernate could not read
+ * them. The codec is therefore rolled out disabled, then enabled once no node without it is left.
+ */
+public class CompactCacheCodec extends BaseCodec {
+
+    /**
+     * First byte of every value written in the compact format. Streams of the default (JBoss Marshalling) codec start with
+     * the protocol version, which is lower.
+     */
+    static final byte MAGIC = (byte) 0xCB;
+
+    /**
+     * Version of the format, to increment on any change to the layout of {@link User} or to the {@link #SYMBOLS}.
+     */
+    static final byte VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte SYMBOL = 2;
+    private static final byte LONG = 3;
+    private static final byte INTEGER = 4;
+    private static final byte TRUE = 5;
+    private static final byte FALSE = 6;
+    private static final byte INSTANT = 7;
+    private static final byte LIST = 8;
+    private static final byte MAP = 9;
+    private static final byte USER = 10;
+    private static final byte AUTHORITY = 11;
+
+    /**
+     * Strings written as their index: the property names of the Hibernate structured entries, and frequent values.
+     */
+    private static final List<String> SYMBOLS = List.of(
+        "_subclass",
+        "_version",
+        User.class.getName(),
+        Authority.class.getName(),
+        "login",
+        "password",
+        "firstName",
+        "lastName",
+        "email",
+        "activated",
+        "langKey",
+        "imageUrl",
+        "activationKey",
+        "resetKey",
+        "resetDate",
+        "authorities",
+        "createdBy",
+        "createdDate",
+        "lastModifiedBy",
+        "lastModifiedDate",
+        Constants.SYSTEM,
+        "anonymousUser",
+        Constants.DEFAULT_LANGUAGE,
+        "ROLE_ADMIN",
+        "ROLE_USER"
+    );
+
+    private static final Map<String, Integer> SYMBOL_INDEXES = symbolIndexes();
+
+    private final Logger log = LoggerFactory.getLogger(CompactCacheCodec.class);
+
+    private final Codec fallback;
+
+    private final boolean enabled;
+
+    private final Encoder encoder = this::encode;
+
+    private final Decoder<Object> decoder = this::decode;
+
+    /**
+     * @param fallback the codec of the values not covered by the compact format, and of the entries written before it.
+     * @param enabled whether values are written in the compact format, and Hibernate entries are structured; if not, they
+     * are all written by the fallback codec, values of both formats are read, but structured Hibernate entries are read as
+     * misses.
+     */
+    public CompactCacheCodec(Codec fallback, boolean enabled) {
+        this.fallback = fallback;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getMapKeyEncoder() {
+        return fallback.getMapKeyEncoder();
+    }
+
+    @Override
+    public Decoder<Object> getMapKeyDecoder() {
+        return fallback.getMapKeyDecoder();
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return fallback.getClassLoader();
+    }
+
+    private ByteBuf encode(Object value) throws IOException {
+        if (!enabled) {
+            return fallback.getValueEncoder().encode(value);
+        }
+        ByteBuf out = ByteBufAllocator.DEFAULT.buffer();
+        try {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            writeValue(out, value);
+            return out;
+        } catch (UnsupportedValueException e) {
+            out.release();
+            return fallback.getValueEncoder().encode(value);
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    }
+
+    private Object decode(ByteBuf in, State state) throws IOException {
+        if (in.readableBytes() >= 2 && in.getByte(in.readerIndex()) == MAGIC) {
+            byte version = in.getByte(in.readerIndex() + 1);
+            if (version != VERSION) {
+                log.debug("Ignoring cached value of version {} of the compact format", version);
+                return null;
+            }
+            in.skipBytes(2);
+            Object value;
+            try {
+                value = readValue(in);
+            } catch (RuntimeException e) {
+                log.warn("Ignoring cached value which could not be decoded: {}", e.getMessage());
+                return null;
+            }
+            return readable(value);
+        }
+        Object value;
+        try {
+            value = fallback.getValueDecoder().decode(in, state);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring cached value which could not be decoded: {}", e.getMessage());
+            return null;
+        }
+        return readable(value);
+    }
+
+    /**
+     * @return the value, or {@code null} for a Hibernate entry written with the structured entries switched the other way,
+     * which Hibernate could not read.
+     */
+    private Object readable(Object value) {
+        if (enabled && (value instanceof CacheEntry || value instanceof CollectionCacheEntry)) {
+            return null;
+        }
+        if (!enabled && (value instanceof Map || value instanceof List)) {
+            return null;
+        }
+        return value;
+    }
+
+    private static void writeValue(ByteBuf out, Object value) {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            writeString(out, (String) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            writeVarLong(out, zigZag((Long) value));
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            writeVarLong(out, zigZag((Integer) value));
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Instant) {
+            out.writeByte(INSTANT);
+            writeVarLong(out, zigZag(((Instant) value).getEpochSecond()));
+            writeVarLong(out, ((Instant) value).getNano());
+        } else if (value instanceof List) {
+            out.writeByte(LIST);
+            writeVarLong(out, ((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Map) {
+            out.writeByte(MAP);
+            writeVarLong(out, ((Map<?, ?>) value).size());
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writeValue(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else if (value.getClass() == User.class) {
+            out.writeByte(USER);
+            writeUser(out, (User) value);
+        } else if (value.getClass() == Authority.class) {
+            out.writeByte(AUTHORITY);
+            writeValue(out, ((Authority) value).getName());
+        } else {
+            throw new UnsupportedValueException();
+        }
+    }
+
+    private static Object readValue(ByteBuf in) {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return in.readCharSequence((int) readVarLong(in), StandardCharsets.UTF_8).toString();
+            case SYMBOL:
+                return SYMBOLS.get((int) readVarLong(in));
+            case LONG:
+                return unZigZag(readVarLong(in));
+            case INTEGER:
+                return (int) unZigZag(readVarLong(in));
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INSTANT:
+                return Instant.ofEpochSecond(unZigZag(readVarLong(in)), readVarLong(in));
+            case LIST:
+                int size = (int) readVarLong(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            case MAP:
+                int entries = (int) readVarLong(in);
+                Map<Object, Object> map = new HashMap<>((int) (entries / 0.75f) + 1);
+                for (int i = 0; i < entries; i++) {
+                    map.put(readValue(in), readValue(in));
+                }
+                return map;
+            case USER:
+                return readUser(in);
+            case AUTHORITY:
+                Authority authority = new Authority();
+                authority.setName((String) readValue(in));
+                return authority;
+            default:
+                throw new IllegalStateException("Unknown type " + type + " in cached value");
+        }
+    }
+
+    private static void writeUser(ByteBuf out, User user) {
+        writeValue(out, user.getId());
+        writeValue(out, user.getLogin());
+        writeValue(out, user.getPassword());
+        writeValue(out, user.getFirstName());
+        writeValue(out, user.getLastName());
+        writeValue(out, user.getEmail());
+        writeValue(out, user.isActivated());
+        writeValue(out, user.getLangKey());
+        writeValue(out, user.getImageUrl());
+        writeValue(out, user.getActivationKey());
+        writeValue(out, user.getResetKey());
+        writeValue(out, user.getResetDate());
+        writeValue(out, user.getCreatedBy());
+        writeValue(out, user.getCreatedDate());
+        writeValue(out, user.getLastModifiedBy());
+        writeValue(out, user.getLastModifiedDate());
+        Collection<Authority> authorities = user.getAuthorities();
+        if (authorities == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        writeVarLong(out, authorities.size());
+        for (Authority authority : authorities) {
+            writeValue(out, authority.getName());
+        }
+    }
+
+    private static User readUser(ByteBuf in) {
+        User user = new User();
+        user.setId((Long) readValue(in));
+        user.setLogin((String) readValue(in));
+        user.setPassword((String) readValue(in));
+        user.setFirstName((String) readValue(in));
+        user.setLastName((String) readValue(in));
+        user.setEmail((String) readValue(in));
+        user.setActivated((Boolean) readValue(in));
+        user.setLangKey((String) readValue(in));
+        user.setImageUrl((String) readValue(in));
+        user.setActivationKey((String) readValue(in));
+        user.setResetKey((String) readValue(in));
+        user.setResetDate((Instant) readValue(in));
+        user.setCreatedBy((String) readValue(in));
+        user.setCreatedDate((Instant) readValue(in));
+        user.setLastModifiedBy((String) readValue(in));
+        user.setLastModifiedDate((Instant) readValue(in));
+        int size = (int) readVarLong(in);
+        Set<Authority> authorities = new HashSet<>((int) (size / 0.75f) + 1);
+        for (int i = 0; i < size; i++) {
+            Authority authority = new Authority();
+            authority.setName((String) readValue(in));
+            authorities.add(authority);
+        }
+        user.setAuthorities(authorities);
+        return user;
+    }
+
+    private static void writeString(ByteBuf out, String value) {
+        Integer symbol = SYMBOL_INDEXES.get(value);
+        if (symbol != null) {
+            out.writeByte(SYMBOL);
+            writeVarLong(out, symbol);
+            return;
+        }
+        out.writeByte(STRING);
+        writeVarLong(out, ByteBufUtil.utf8Bytes(value));
+        out.writeCharSequence(value, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(ByteBuf out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(ByteBuf in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed variable-length number in cached value");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static Map<String, Integer> symbolIndexes() {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < SYMBOLS.size(); i++) {
+            indexes.put(SYMBOLS.get(i), i);
+        }
+        return indexes;
+    }
+
+    /**
+     * Thrown when a value contains a type not covered by the compact format, to write it with the fallback codec.
+     */
+    private static final class UnsupportedValueException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedValueException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package io.github.vazh.config;
 
+import io.github.vazh.domain.id.PrefetchingSequenceGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
@@ -13,4 +15,14 @@ import tech.jhipster.config.JHipsterConstants;
 @EnableJpaRepositories({ "io.github.vazh.repository" })
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
-public class DatabaseConfiguration {}
+public class DatabaseConfiguration {
+
+    /**
+     * Gives the block sizes of the entities to their {@link PrefetchingSequenceGenerator}.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorPropertiesCustomizer(ApplicationProperties applicationProperties) {
+        return hibernateProperties ->
+            hibernateProperties.put(PrefetchingSequenceGenerator.ID_GENERATOR_SETTING, applicationProperties.getIdGenerator());
+    }
+}
@@ -1,10 +1,19 @@
 package io.github.vazh.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.vazh.management.HotPaths;
+import java.io.IOException;
+import java.lang.reflect.Type;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.zalando.problem.jackson.ProblemModule;
 import org.zalando.problem.violations.ConstraintViolationProblemModule;
 
@@ -48,4 +57,35 @@ public class JacksonConfiguration {
     public ConstraintViolationProblemModule constraintViolationProblemModule() {
         return new ConstraintViolationProblemModule();
     }
+
+    /**
+     * JSON message converter timing the serialization of the requests and responses for the {@link HotPaths}.
+     * @return the message converter.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+                throws IOException, HttpMessageNotReadableException {
+                long start = HotPaths.start();
+                try {
+                    return super.read(type, contextClass, inputMessage);
+                } finally {
+                    HotPaths.stop(HotPaths.Phase.SERIALIZATION, start);
+                }
+            }
+
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+                long start = HotPaths.start();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    HotPaths.stop(HotPaths.Phase.SERIALIZATION, start);
+                }
+            }
+        };
+    }
 }
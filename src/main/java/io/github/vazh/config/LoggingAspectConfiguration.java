@@ -1,17 +1,51 @@
 package io.github.vazh.config;
 
 import io.github.vazh.aop.logging.LoggingAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 import tech.jhipster.config.JHipsterConstants;
 
 @Configuration
 @EnableAspectJAutoProxy
 public class LoggingAspectConfiguration {
 
+    private static final String SAMPLE_RATE_PROPERTY = "application.method-timing.sample-rate";
+
     @Bean
-    @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    @Conditional(InstrumentationCondition.class)
+    public LoggingAspect loggingAspect(Environment env, ObjectProvider<MeterRegistry> meterRegistry) {
+        // The registry is looked up on the first timed call, so that it is not created before the bean post processors
+        return new LoggingAspect(env, loggingEnabled(env), meterRegistry::getObject, sampleRate(env));
+    }
+
+    private static boolean loggingEnabled(Environment env) {
+        return (
+            env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)) &&
+            LoggerFactory.getLogger("io.github.vazh").isDebugEnabled()
+        );
+    }
+
+    private static double sampleRate(Environment env) {
+        return Binder.get(env).bind(SAMPLE_RATE_PROPERTY, Double.class).orElse(0d);
+    }
+
+    /**
+     * Matches when the aspect has something to do: in the "dev" profile with the application loggers at the debug level,
+     * or when method timing is on, in which case it only logs in the former case. Otherwise the beans are not proxied at
+     * all, so a debug level set at runtime only logs the method calls after a restart.
+     */
+    static class InstrumentationCondition implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            Environment env = context.getEnvironment();
+            return loggingEnabled(env) || sampleRate(env) > 0;
+        }
     }
 }
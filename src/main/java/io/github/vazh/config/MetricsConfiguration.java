@@ -0,0 +1,58 @@
+package io.github.vazh.config;
+
+import io.github.vazh.management.HotPathsEndpoint;
+import io.github.vazh.management.HttpRequestsMetricsPolicy;
+import io.github.vazh.management.RequestSpanContextSupplier;
+import io.github.vazh.web.filter.HotPathsFilter;
+import io.github.vazh.web.filter.RequestIdFilter;
+import io.prometheus.client.exemplars.tracer.common.SpanContextSupplier;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public HttpRequestsMetricsPolicy httpRequestsMetricsPolicy(
+        MetricsProperties metricsProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        return new HttpRequestsMetricsPolicy(
+            metricsProperties.getWeb().getServer().getRequest().getMetricName(),
+            applicationProperties.getMetrics().getHistogramUris(),
+            applicationProperties.getMetrics().getSlo()
+        );
+    }
+
+    /**
+     * Makes Spring Boot attach exemplars to the Prometheus histograms.
+     */
+    @Bean
+    public SpanContextSupplier requestSpanContextSupplier() {
+        return new RequestSpanContextSupplier(RequestIdFilter.TRACE_ID, RequestIdFilter.SPAN_ID);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestIdFilter> requestIdFilter() {
+        FilterRegistrationBean<RequestIdFilter> registration = new FilterRegistrationBean<>(new RequestIdFilter());
+        // Before the metrics filter, so that the ids are still set when the request is timed
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public HotPathsEndpoint hotPathsEndpoint(ApplicationProperties applicationProperties) {
+        return new HotPathsEndpoint(applicationProperties.getHotPaths().getSize(), applicationProperties.getHotPaths().isEnabled());
+    }
+
+    @Bean
+    public FilterRegistrationBean<HotPathsFilter> hotPathsFilter() {
+        FilterRegistrationBean<HotPathsFilter> registration = new FilterRegistrationBean<>(new HotPathsFilter());
+        // After the request id filter, so that the trace id of the request is known
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
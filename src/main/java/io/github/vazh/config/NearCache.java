@@ -0,0 +1,427 @@
+package io.github.vazh.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.vazh.management.HotPaths;
+import io.github.vazh.repository.AsyncRemovalCache;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.Configuration;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+import org.redisson.api.CacheAsync;
+
+/**
+ * Two-tier {@link Cache}: a bounded, in-process Caffeine cache in front of a remote (Redis) cache.
+ * <p>
+ * Reads are served from the local tier when possible, and fill it from the remote tier otherwise. Every write goes to
+ * the remote tier, then evicts the key from the local tier of this node and, through the {@link Invalidator}, from the
+ * local tiers of all other nodes. Local entries also expire after a time-to-live, which bounds how stale a node can be
+ * if an invalidation message is lost.
+ * <p>
+ * Values of the local tier are shared by all callers of this node: as with any in-process cache, they must not be
+ * modified.
+ */
+public class NearCache<K, V> implements Cache<K, V>, AsyncRemovalCache<K> {
+
+    /**
+     * Publishes the eviction of a key, or of all keys, to the other nodes.
+     */
+    @FunctionalInterface
+    interface Invalidator {
+        /**
+         * @param cacheName the name of the cache.
+         * @param keys the evicted keys, or {@code null} if all keys are evicted.
+         */
+        void invalidate(String cacheName, Collection<Object> keys);
+    }
+
+    private final Cache<K, V> delegate;
+
+    private final CacheManager cacheManager;
+
+    private final com.github.benmanes.caffeine.cache.Cache<K, V> local;
+
+    private final Invalidator invalidator;
+
+    /**
+     * Incremented on every eviction, so that a value read from the remote tier is not kept locally if it was
+     * invalidated while being read.
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final LongAdder localHits = new LongAdder();
+
+    private final LongAdder localMisses = new LongAdder();
+
+    private final LongAdder remoteHits = new LongAdder();
+
+    private final LongAdder remoteMisses = new LongAdder();
+
+    NearCache(
+        Cache<K, V> delegate,
+        CacheManager cacheManager,
+        ApplicationProperties.Cache.NearCache properties,
+        Invalidator invalidator
+    ) {
+        this.delegate = delegate;
+        this.cacheManager = cacheManager;
+        this.local = Caffeine.newBuilder().maximumSize(properties.getMaxSize()).expireAfterWrite(properties.getTimeToLive()).build();
+        this.invalidator = invalidator;
+    }
+
+    @Override
+    public V get(K key) {
+        V value = local.getIfPresent(key);
+        if (value != null) {
+            localHits.increment();
+            HotPaths.increment(HotPaths.Event.LOCAL_CACHE_HIT, 1);
+            return value;
+        }
+        localMisses.increment();
+        HotPaths.increment(HotPaths.Event.LOCAL_CACHE_MISS, 1);
+        long evictionsBeforeRead = evictions.get();
+        value = delegate.get(key);
+        if (value == null) {
+            remoteMisses.increment();
+            HotPaths.increment(HotPaths.Event.REMOTE_CACHE_MISS, 1);
+            return null;
+        }
+        remoteHits.increment();
+        HotPaths.increment(HotPaths.Event.REMOTE_CACHE_HIT, 1);
+        putLocal(key, value, evictionsBeforeRead);
+        return value;
+    }
+
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        Map<K, V> values = new HashMap<>(local.getAllPresent(keys));
+        localHits.add(values.size());
+        HotPaths.increment(HotPaths.Event.LOCAL_CACHE_HIT, values.size());
+        if (values.size() == keys.size()) {
+            return values;
+        }
+        Set<K> missingKeys = new HashSet<>(keys);
+        missingKeys.removeAll(values.keySet());
+        localMisses.add(missingKeys.size());
+        HotPaths.increment(HotPaths.Event.LOCAL_CACHE_MISS, missingKeys.size());
+        long evictionsBeforeRead = evictions.get();
+        Map<K, V> remoteValues = delegate.getAll(missingKeys);
+        remoteHits.add(remoteValues.size());
+        remoteMisses.add(missingKeys.size() - (long) remoteValues.size());
+        HotPaths.increment(HotPaths.Event.REMOTE_CACHE_HIT, remoteValues.size());
+        HotPaths.increment(HotPaths.Event.REMOTE_CACHE_MISS, missingKeys.size() - remoteValues.size());
+        remoteValues.forEach((key, value) -> putLocal(key, value, evictionsBeforeRead));
+        values.putAll(remoteValues);
+        return values;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return local.getIfPresent(key) != null || delegate.containsKey(key);
+    }
+
+    @Override
+    public void loadAll(Set<? extends K> keys, boolean replaceExistingValues, CompletionListener completionListener) {
+        delegate.loadAll(keys, replaceExistingValues, completionListener);
+        invalidate(keys);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        delegate.put(key, value);
+        invalidate(key);
+    }
+
+    @Override
+    public V getAndPut(K key, V value) {
+        V previousValue = delegate.getAndPut(key, value);
+        invalidate(key);
+        return previousValue;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        delegate.putAll(map);
+        invalidate(map.keySet());
+    }
+
+    @Override
+    public boolean putIfAbsent(K key, V value) {
+        boolean put = delegate.putIfAbsent(key, value);
+        if (put) {
+            invalidate(key);
+        }
+        return put;
+    }
+
+    @Override
+    public boolean remove(K key) {
+        boolean removed = delegate.remove(key);
+        invalidate(key);
+        return removed;
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        boolean removed = delegate.remove(key, oldValue);
+        invalidate(key);
+        return removed;
+    }
+
+    @Override
+    public V getAndRemove(K key) {
+        V previousValue = delegate.getAndRemove(key);
+        invalidate(key);
+        return previousValue;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        boolean replaced = delegate.replace(key, oldValue, newValue);
+        invalidate(key);
+        return replaced;
+    }
+
+    @Override
+    public boolean replace(K key, V value) {
+        boolean replaced = delegate.replace(key, value);
+        invalidate(key);
+        return replaced;
+    }
+
+    @Override
+    public V getAndReplace(K key, V value) {
+        V previousValue = delegate.getAndReplace(key, value);
+        invalidate(key);
+        return previousValue;
+    }
+
+    @Override
+    public void removeAll(Set<? extends K> keys) {
+        delegate.removeAll(keys);
+        invalidate(keys);
+    }
+
+    /**
+     * Removes keys as {@link #removeAll(Set)}, without waiting for the remote tier when it supports asynchronous
+     * operations, so that the removals from several caches can be sent together.
+     *
+     * @param keys the keys to remove.
+     * @return a stage completed once the keys are removed from the remote tier and evicted from the local tier.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletionStage<Void> removeAllAsync(Set<? extends K> keys) {
+        if (!(delegate instanceof CacheAsync)) {
+            removeAll(keys);
+            return CompletableFuture.completedFuture(null);
+        }
+        return ((CacheAsync<K, V>) delegate).removeAllAsync(keys).thenRun(() -> invalidate(keys));
+    }
+
+    @Override
+    public void removeAll() {
+        delegate.removeAll();
+        invalidateAll();
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        invalidateAll();
+    }
+
+    @Override
+    public <C extends Configuration<K, V>> C getConfiguration(Class<C> clazz) {
+        return delegate.getConfiguration(clazz);
+    }
+
+    @Override
+    public <T> T invoke(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments) throws EntryProcessorException {
+        T result = delegate.invoke(key, entryProcessor, arguments);
+        invalidate(key);
+        return result;
+    }
+
+    @Override
+    public <T> Map<K, EntryProcessorResult<T>> invokeAll(
+        Set<? extends K> keys,
+        EntryProcessor<K, V, T> entryProcessor,
+        Object... arguments
+    ) {
+        Map<K, EntryProcessorResult<T>> results = delegate.invokeAll(keys, entryProcessor, arguments);
+        invalidate(keys);
+        return results;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    @Override
+    public void close() {
+        evictAllLocally();
+        delegate.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return delegate.isClosed();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        return delegate.unwrap(clazz);
+    }
+
+    @Override
+    public void registerCacheEntryListener(CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        delegate.registerCacheEntryListener(cacheEntryListenerConfiguration);
+    }
+
+    @Override
+    public void deregisterCacheEntryListener(CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        delegate.deregisterCacheEntryListener(cacheEntryListenerConfiguration);
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return delegate.iterator();
+    }
+
+    /**
+     * Evicts a key from the local tier only, when it has been written on another node.
+     *
+     * @param key the key.
+     */
+    @SuppressWarnings("unchecked")
+    void evictLocally(Object key) {
+        evictions.incrementAndGet();
+        local.invalidate((K) key);
+    }
+
+    /**
+     * Evicts all keys from the local tier only, when the cache has been cleared on another node.
+     */
+    void evictAllLocally() {
+        evictions.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    /**
+     * @return a snapshot of the hits and misses of both tiers.
+     */
+    public Statistics getStatistics() {
+        return new Statistics(localHits.sum(), localMisses.sum(), local.estimatedSize(), remoteHits.sum(), remoteMisses.sum());
+    }
+
+    private void putLocal(K key, V value, long evictionsBeforeRead) {
+        if (evictions.get() == evictionsBeforeRead) {
+            local.put(key, value);
+            if (evictions.get() != evictionsBeforeRead) {
+                // Evicted while being stored
+                local.invalidate(key);
+            }
+        }
+    }
+
+    private void invalidate(K key) {
+        evictLocally(key);
+        invalidator.invalidate(getName(), Collections.<Object>singletonList(key));
+    }
+
+    /**
+     * Evicts several keys, publishing a single invalidation to the other nodes.
+     */
+    private void invalidate(Collection<? extends K> keys) {
+        evictions.incrementAndGet();
+        local.invalidateAll(keys);
+        invalidator.invalidate(getName(), new ArrayList<Object>(keys));
+    }
+
+    private void invalidateAll() {
+        evictAllLocally();
+        invalidator.invalidate(getName(), null);
+    }
+
+    /**
+     * Hits and misses of the local and remote tiers. A local miss is a remote lookup.
+     */
+    public static final class Statistics {
+
+        private final long localHits;
+
+        private final long localMisses;
+
+        private final long localSize;
+
+        private final long remoteHits;
+
+        private final long remoteMisses;
+
+        Statistics(long localHits, long localMisses, long localSize, long remoteHits, long remoteMisses) {
+            this.localHits = localHits;
+            this.localMisses = localMisses;
+            this.localSize = localSize;
+            this.remoteHits = remoteHits;
+            this.remoteMisses = remoteMisses;
+        }
+
+        public long getLocalHits() {
+            return localHits;
+        }
+
+        public long getLocalMisses() {
+            return localMisses;
+        }
+
+        public long getLocalSize() {
+            return localSize;
+        }
+
+        public double getLocalHitRatio() {
+            return ratio(localHits, localMisses);
+        }
+
+        public long getRemoteHits() {
+            return remoteHits;
+        }
+
+        public long getRemoteMisses() {
+            return remoteMisses;
+        }
+
+        public double getRemoteHitRatio() {
+            return ratio(remoteHits, remoteMisses);
+        }
+
+        private static double ratio(long hits, long misses) {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+}
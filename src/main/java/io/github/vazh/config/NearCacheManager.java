@@ -0,0 +1,262 @@
+package io.github.vazh.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToDoubleFunction;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.Configuration;
+import javax.cache.spi.CachingProvider;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link CacheManager} adding a {@link NearCache} in front of every cache of the Redis {@link CacheManager}.
+ * <p>
+ * Writes are broadcast to the other nodes through a Redis topic, so that they evict the written keys from their own
+ * local tier. The hits and misses of both tiers are published as {@code cache.near.gets} meters.
+ */
+public class NearCacheManager implements CacheManager {
+
+    public static final String INVALIDATION_TOPIC = "near-cache-invalidations";
+
+    public static final String GETS_METER_NAME = "cache.near.gets";
+
+    public static final String SIZE_METER_NAME = "cache.near.size";
+
+    private final Logger log = LoggerFactory.getLogger(NearCacheManager.class);
+
+    private final CacheManager delegate;
+
+    private final ApplicationProperties.Cache.NearCache properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final RTopic topic;
+
+    private final int listenerId;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, NearCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(
+        CacheManager delegate,
+        RedissonClient redissonClient,
+        ApplicationProperties.Cache.NearCache properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.topic = redissonClient.getTopic(INVALIDATION_TOPIC);
+        this.listenerId = topic.addListener(Invalidation.class, (channel, invalidation) -> onInvalidation(invalidation));
+    }
+
+    @Override
+    public CachingProvider getCachingProvider() {
+        return delegate.getCachingProvider();
+    }
+
+    @Override
+    public URI getURI() {
+        return delegate.getURI();
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return delegate.getClassLoader();
+    }
+
+    @Override
+    public Properties getProperties() {
+        return delegate.getProperties();
+    }
+
+    @Override
+    public <K, V, C extends Configuration<K, V>> Cache<K, V> createCache(String cacheName, C configuration) {
+        return nearCache(delegate.createCache(cacheName, configuration));
+    }
+
+    @Override
+    public <K, V> Cache<K, V> getCache(String cacheName, Class<K> keyType, Class<V> valueType) {
+        return nearCache(delegate.getCache(cacheName, keyType, valueType));
+    }
+
+    @Override
+    public <K, V> Cache<K, V> getCache(String cacheName) {
+        return nearCache(delegate.getCache(cacheName));
+    }
+
+    @Override
+    public Iterable<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    @Override
+    public void destroyCache(String cacheName) {
+        NearCache<?, ?> nearCache = caches.remove(cacheName);
+        if (nearCache != null) {
+            nearCache.evictAllLocally();
+        }
+        delegate.destroyCache(cacheName);
+    }
+
+    @Override
+    public void enableManagement(String cacheName, boolean enabled) {
+        delegate.enableManagement(cacheName, enabled);
+    }
+
+    @Override
+    public void enableStatistics(String cacheName, boolean enabled) {
+        delegate.enableStatistics(cacheName, enabled);
+    }
+
+    @Override
+    public void close() {
+        try {
+            topic.removeListener(listenerId);
+        } catch (RuntimeException e) {
+            log.debug("Could not remove the near cache invalidation listener: {}", e.getMessage());
+        }
+        caches.values().forEach(NearCache::evictAllLocally);
+        caches.clear();
+        delegate.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return delegate.isClosed();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        return delegate.unwrap(clazz);
+    }
+
+    void onInvalidation(Invalidation invalidation) {
+        if (nodeId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        NearCache<?, ?> nearCache = caches.get(invalidation.getCacheName());
+        if (nearCache == null) {
+            return;
+        }
+        if (invalidation.getKeys() == null) {
+            nearCache.evictAllLocally();
+        } else {
+            invalidation.getKeys().forEach(nearCache::evictLocally);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> Cache<K, V> nearCache(Cache<K, V> cache) {
+        if (cache == null) {
+            return null;
+        }
+        return (Cache<K, V>) caches.computeIfAbsent(
+            cache.getName(),
+            cacheName -> {
+                NearCache<K, V> nearCache = new NearCache<>(cache, this, properties, this::publish);
+                bindMetrics(nearCache);
+                return nearCache;
+            }
+        );
+    }
+
+    /**
+     * Publishes an invalidation without waiting for Redis, so that writes do not pay for another round-trip, and that
+     * it can be published from the callbacks of asynchronous operations.
+     */
+    private void publish(String cacheName, Collection<Object> keys) {
+        try {
+            topic
+                .publishAsync(new Invalidation(nodeId, cacheName, keys))
+                .whenComplete((receivers, e) -> {
+                    if (e != null) {
+                        logPublishFailure(cacheName, e);
+                    }
+                });
+        } catch (RuntimeException e) {
+            logPublishFailure(cacheName, e);
+        }
+    }
+
+    private void logPublishFailure(String cacheName, Throwable e) {
+        // The other nodes will still evict the key once it expires from their local tier
+        log.warn("Could not publish the invalidation of cache {}: {}", cacheName, e.getMessage());
+    }
+
+    private void bindMetrics(NearCache<?, ?> nearCache) {
+        String cacheName = nearCache.getName();
+        bindGets(nearCache, "local", "hit", NearCache.Statistics::getLocalHits);
+        bindGets(nearCache, "local", "miss", NearCache.Statistics::getLocalMisses);
+        bindGets(nearCache, "remote", "hit", NearCache.Statistics::getRemoteHits);
+        bindGets(nearCache, "remote", "miss", NearCache.Statistics::getRemoteMisses);
+        Gauge
+            .builder(SIZE_METER_NAME, nearCache, cache -> cache.getStatistics().getLocalSize())
+            .description("The number of entries in the local tier of the near cache")
+            .tag("cache", cacheName)
+            .register(meterRegistry);
+    }
+
+    private void bindGets(NearCache<?, ?> nearCache, String tier, String result, ToDoubleFunction<NearCache.Statistics> count) {
+        FunctionCounter
+            .builder(GETS_METER_NAME, nearCache, cache -> count.applyAsDouble(cache.getStatistics()))
+            .description("The number of lookups in each tier of the near cache")
+            .tag("cache", nearCache.getName())
+            .tag("tier", tier)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Message published to the other nodes when keys, or all keys, of a cache are written.
+     */
+    public static final class Invalidation implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String origin;
+
+        private String cacheName;
+
+        private Collection<Object> keys;
+
+        public Invalidation() {}
+
+        Invalidation(String origin, String cacheName, Collection<Object> keys) {
+            this.origin = origin;
+            this.cacheName = cacheName;
+            this.keys = keys;
+        }
+
+        public String getOrigin() {
+            return origin;
+        }
+
+        public String getCacheName() {
+            return cacheName;
+        }
+
+        /**
+         * @return the written keys, or {@code null} if the whole cache has been cleared.
+         */
+        public Collection<Object> getKeys() {
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.vazh.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.cache.CachesEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * {@link CachesEndpoint} also reporting the hits and misses of each tier of the {@link NearCache near caches}.
+ */
+public class NearCachesEndpoint extends CachesEndpoint {
+
+    private final Map<String, CacheManager> cacheManagers;
+
+    public NearCachesEndpoint(Map<String, CacheManager> cacheManagers) {
+        super(cacheManagers);
+        this.cacheManagers = new LinkedHashMap<>(cacheManagers);
+    }
+
+    @Override
+    @ReadOperation
+    public CachesReport caches() {
+        Map<String, CacheManagerDescriptor> cacheManagerDescriptors = new LinkedHashMap<>();
+        cacheManagers.forEach((cacheManagerName, cacheManager) -> {
+            Map<String, CacheDescriptor> cacheDescriptors = new LinkedHashMap<>();
+            for (String cacheName : cacheManager.getCacheNames()) {
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache != null) {
+                    cacheDescriptors.put(cacheName, describe(cache.getNativeCache()));
+                }
+            }
+            cacheManagerDescriptors.put(cacheManagerName, new CacheManagerDescriptor(cacheDescriptors));
+        });
+        return new CachesReport(cacheManagerDescriptors);
+    }
+
+    private static CacheDescriptor describe(Object nativeCache) {
+        if (nativeCache instanceof NearCache) {
+            return new NearCacheDescriptor(nativeCache.getClass().getName(), ((NearCache<?, ?>) nativeCache).getStatistics());
+        }
+        return new CacheDescriptor(nativeCache.getClass().getName());
+    }
+
+    /**
+     * Description of a near cache, with the statistics of its tiers.
+     */
+    public static final class NearCacheDescriptor extends CacheDescriptor {
+
+        private final NearCache.Statistics statistics;
+
+        public NearCacheDescriptor(String target, NearCache.Statistics statistics) {
+            super(target);
+            this.statistics = statistics;
+        }
+
+        public NearCache.Statistics getStatistics() {
+            return statistics;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.vazh.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Creates virtual threads when the Java runtime supports them, that is from Java 21. The application is compiled for
+ * Java 11, so the virtual thread builder is looked up by reflection.
+ */
+final class VirtualThreadSupport {
+
+    private static final Method OF_VIRTUAL = lookupOfVirtual();
+
+    private VirtualThreadSupport() {}
+
+    /**
+     * @return {@code true} if virtual threads can be created.
+     */
+    static boolean isAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a factory of virtual threads, numbered from 0 after the prefix.
+     *
+     * @param prefix the prefix of the names of the threads.
+     * @return the thread factory.
+     * @throws IllegalStateException if virtual threads are not available.
+     */
+    static ThreadFactory threadFactory(String prefix) {
+        if (OF_VIRTUAL == null) {
+            throw new IllegalStateException("Virtual threads require Java 21, running on Java " + Runtime.version().feature());
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            Class<?> builderClass = OF_VIRTUAL.getReturnType();
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads could not be created", e);
+        }
+    }
+
+    /**
+     * Creates an executor running each task on a new virtual thread.
+     *
+     * @param prefix the prefix of the names of the threads.
+     * @return the executor.
+     * @throws IllegalStateException if virtual threads are not available.
+     */
+    static Executor executor(String prefix) {
+        ThreadFactory threadFactory = threadFactory(prefix);
+        return task -> threadFactory.newThread(task).start();
+    }
+
+    /**
+     * Matches when virtual threads are enabled by {@code application.virtual-threads.enabled}, and are available.
+     */
+    static final class EnabledCondition implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return isAvailable() && context.getEnvironment().getProperty("application.virtual-threads.enabled", Boolean.class, false);
+        }
+    }
+
+    private static Method lookupOfVirtual() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            // Fails on Java 19 and 20 without --enable-preview
+            ofVirtual.invoke(null);
+            return ofVirtual;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -5,9 +5,11 @@ import static java.net.URLDecoder.decode;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.concurrent.Executor;
 import javax.servlet.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
 import org.springframework.boot.web.server.*;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
@@ -34,9 +36,12 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
 
     private final JHipsterProperties jHipsterProperties;
 
-    public WebConfigurer(Environment env, JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public WebConfigurer(Environment env, JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.env = env;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -49,12 +54,32 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
     }
 
     /**
-     * Customize the Servlet engine: Mime types, the document root, the cache.
+     * Customize the Servlet engine: Mime types, the document root, the cache, the threads handling the requests.
      */
     @Override
     public void customize(WebServerFactory server) {
         // When running in an IDE or with ./mvnw spring-boot:run, set location of the static web assets.
         setLocationForStaticAssets(server);
+        setVirtualThreadsForRequests(server);
+    }
+
+    /**
+     * Handles each servlet request on a new virtual thread, rather than on the Undertow worker pool. Undertow I/O threads
+     * still accept the connections and read the requests.
+     */
+    private void setVirtualThreadsForRequests(WebServerFactory server) {
+        if (!applicationProperties.getVirtualThreads().isEnabled() || !(server instanceof UndertowServletWebServerFactory)) {
+            return;
+        }
+        if (!VirtualThreadSupport.isAvailable()) {
+            log.warn("Virtual threads are enabled but require Java 21, requests are handled by the Undertow worker pool");
+            return;
+        }
+        Executor executor = VirtualThreadSupport.executor("undertow-virtual-");
+        ((UndertowServletWebServerFactory) server).addDeploymentInfoCustomizers(deploymentInfo ->
+                deploymentInfo.setExecutor(executor).setAsyncExecutor(executor)
+            );
+        log.info("Servlet requests are handled on virtual threads");
     }
 
     private void setLocationForStaticAssets(WebServerFactory server) {
@@ -0,0 +1,154 @@
+package io.github.vazh.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * An email waiting in the mail outbox, written in the same transaction as the changes of its user.
+ */
+@Entity
+@Table(name = "mail_outbox")
+public class MailOutboxEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @GenericGenerator(
+        name = "sequenceGenerator",
+        strategy = "io.github.vazh.domain.id.PrefetchingSequenceGenerator",
+        parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "mail_outbox_sequence_generator")
+    )
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(length = 100, nullable = false)
+    private String template;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "title_key", length = 100, nullable = false)
+    private String titleKey;
+
+    /**
+     * Emails of a lower value are sent first.
+     */
+    @Column(nullable = false)
+    private int priority;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @NotNull
+    @Column(name = "next_attempt_date", nullable = false)
+    private Instant nextAttemptDate;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private Instant createdDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+
+    public String getTitleKey() {
+        return titleKey;
+    }
+
+    public void setTitleKey(String titleKey) {
+        this.titleKey = titleKey;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptDate() {
+        return nextAttemptDate;
+    }
+
+    public void setNextAttemptDate(Instant nextAttemptDate) {
+        this.nextAttemptDate = nextAttemptDate;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MailOutboxEntry)) {
+            return false;
+        }
+        return id != null && id.equals(((MailOutboxEntry) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MailOutboxEntry{" +
+            "id=" + id +
+            ", template='" + template + '\'' +
+            ", priority=" + priority +
+            ", attempts=" + attempts +
+            ", nextAttemptDate='" + nextAttemptDate + '\'' +
+            "}";
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.vazh.domain.id;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Allocates identifiers from blocks, as the {@code pooled-lo} optimizer of Hibernate: a value {@code lo} read from the
+ * sequence reserves the identifiers from {@code lo} to {@code lo + blockSize - 1}, the sequence being incremented by the
+ * block size. As soon as at most {@code prefetchThreshold} identifiers are left in the current block, the next block is
+ * read in the background, so that the allocations do not wait on the sequence.
+ */
+final class PrefetchingIdAllocator {
+
+    private final Logger log = LoggerFactory.getLogger(PrefetchingIdAllocator.class);
+
+    private final int blockSize;
+
+    private final int prefetchThreshold;
+
+    private final Executor executor;
+
+    private final LongSupplier backgroundSource;
+
+    private long next;
+
+    private long limit;
+
+    private CompletableFuture<Long> prefetched;
+
+    /**
+     * @param blockSize the number of identifiers reserved by a value of the sequence, which is its increment.
+     * @param prefetchThreshold the number of identifiers left in the current block when the next block is read.
+     * @param executor the executor reading the next blocks.
+     * @param backgroundSource reads the next value of the sequence from the executor.
+     */
+    PrefetchingIdAllocator(int blockSize, int prefetchThreshold, Executor executor, LongSupplier backgroundSource) {
+        if (blockSize < 1 || prefetchThreshold < 0 || prefetchThreshold >= blockSize) {
+            throw new IllegalArgumentException("Invalid block size " + blockSize + " or prefetch threshold " + prefetchThreshold);
+        }
+        this.blockSize = blockSize;
+        this.prefetchThreshold = prefetchThreshold;
+        this.executor = executor;
+        this.backgroundSource = backgroundSource;
+    }
+
+    /**
+     * Allocates the next identifier.
+     *
+     * @param source reads the next value of the sequence from the calling thread, when no block has been prefetched or
+     * the prefetching failed.
+     * @return the identifier.
+     */
+    synchronized long next(LongSupplier source) {
+        if (next == limit) {
+            long lo = prefetched != null ? awaitPrefetched(source) : source.getAsLong();
+            prefetched = null;
+            next = lo;
+            limit = lo + blockSize;
+        }
+        long id = next++;
+        if (prefetched == null && limit - next <= prefetchThreshold) {
+            prefetched = CompletableFuture.supplyAsync(backgroundSource::getAsLong, executor);
+        }
+        return id;
+    }
+
+    private long awaitPrefetched(LongSupplier source) {
+        try {
+            return prefetched.join();
+        } catch (CompletionException e) {
+            log.warn("Could not prefetch the next block of identifiers, reading it now: {}", e.getCause().toString());
+            return source.getAsLong();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.vazh.domain.id;
+
+import io.github.vazh.config.ApplicationProperties;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * A sequence generator allocating the identifiers of an entity by blocks, as the {@code pooled-lo} optimizer, and reading
+ * the next block on a background thread, with its own connection, before the current block is exhausted.
+ * <p>
+ * The block size and the prefetch threshold of each entity are read from the {@link ApplicationProperties.IdGenerator}
+ * given in the {@value #ID_GENERATOR_SETTING} Hibernate setting. The block size must be the increment of the database
+ * sequence of the entity: the blocks reserved by the values of the sequence are then disjoint, whatever the number of
+ * application instances. Hibernate refuses to start when they differ, unless
+ * {@code hibernate.id.sequence.increment_size_mismatch_strategy} is changed. The identifiers of the blocks which are not
+ * used before a shutdown are lost, which only leaves gaps.
+ */
+public class PrefetchingSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ID_GENERATOR_SETTING = "io.github.vazh.id_generator";
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newSingleThreadExecutor(prefetchThreadFactory());
+
+    private ConnectionProvider connectionProvider;
+
+    private String nextValueSql;
+
+    private PrefetchingIdAllocator allocator;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        if (type.getReturnedClass() != Long.class) {
+            throw new MappingException(getClass().getSimpleName() + " only generates Long identifiers, not " + type.getReturnedClass());
+        }
+        Object idGenerator = serviceRegistry.getService(ConfigurationService.class).getSettings().get(ID_GENERATOR_SETTING);
+        if (!(idGenerator instanceof ApplicationProperties.IdGenerator)) {
+            throw new MappingException(getClass().getSimpleName() + " requires the " + ID_GENERATOR_SETTING + " setting");
+        }
+        String entityName = params.getProperty(JPA_ENTITY_NAME);
+        ApplicationProperties.IdGenerator.Blocks blocks = ((ApplicationProperties.IdGenerator) idGenerator).getBlocks(entityName);
+        params.setProperty(OPT_PARAM, "pooled-lo");
+        params.setProperty(INCREMENT_PARAM, String.valueOf(blocks.getBlockSize()));
+        super.configure(type, params, serviceRegistry);
+        if (!getDatabaseStructure().isPhysicalSequence()) {
+            throw new MappingException(getClass().getSimpleName() + " requires a database with sequences");
+        }
+        int blockSize = getDatabaseStructure().getIncrementSize();
+        // The block size is the one of the database sequence when hibernate.id.sequence.increment_size_mismatch_strategy is fix
+        Integer configuredThreshold = blocks.getPrefetchThreshold();
+        int prefetchThreshold = Math.min(configuredThreshold != null ? configuredThreshold : blockSize / 2, blockSize - 1);
+        connectionProvider = serviceRegistry.getService(ConnectionProvider.class);
+        allocator = new PrefetchingIdAllocator(blockSize, prefetchThreshold, PREFETCH_EXECUTOR, this::readNextValue);
+    }
+
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        super.initialize(context);
+        nextValueSql = context.getDialect().getSequenceNextValString(context.format(getDatabaseStructure().getPhysicalName()));
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        return allocator.next(() -> getDatabaseStructure().buildCallback(session).getNextValue().makeValue().longValue());
+    }
+
+    /**
+     * Reads the next value of the sequence from the background thread, with a connection of the pool which is not part of
+     * any transaction of the application.
+     */
+    private long readNextValue() {
+        try {
+            Connection connection = connectionProvider.getConnection();
+            try (PreparedStatement statement = connection.prepareStatement(nextValueSql); ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                long value = resultSet.getLong(1);
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                return value;
+            } finally {
+                connectionProvider.closeConnection(connection);
+            }
+        } catch (SQLException e) {
+            throw new HibernateException("Could not read the next value of " + getDatabaseStructure().getPhysicalName(), e);
+        }
+    }
+
+    private static CustomizableThreadFactory prefetchThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("id-prefetch-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
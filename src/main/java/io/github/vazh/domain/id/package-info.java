@@ -0,0 +1,4 @@
+/**
+ * Identifier generators of the JPA domain objects.
+ */
+package io.github.vazh.domain.id;
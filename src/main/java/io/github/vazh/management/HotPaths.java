@@ -0,0 +1,312 @@
+package io.github.vazh.management;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Breaks the slowest requests down by the phases of their hot path, such as JWT verification or SQL.
+ * <p>
+ * A request is recorded by the thread which handles it, between {@link #begin()} and {@link #end}: each phase is timed by
+ * a {@link #start()} and a {@link #stop}, and each cache lookup is counted by an {@link #increment}. Phases may be nested,
+ * such as the SQL of a user lookup, so their times do not add up to the time of the request. The finished request is kept
+ * if it is one of the slowest requests since the last {@link SlowestRequests#clear() reset}.
+ * <p>
+ * When disabled, each probe only reads a volatile field, and nothing is recorded.
+ */
+public final class HotPaths {
+
+    /**
+     * A timed phase of a request.
+     */
+    public enum Phase {
+        JWT_VERIFY,
+        USER_LOOKUP,
+        SQL,
+        PASSWORD_HASHING,
+        SERIALIZATION,
+    }
+
+    /**
+     * A counted event of a request.
+     */
+    public enum Event {
+        LOCAL_CACHE_HIT,
+        LOCAL_CACHE_MISS,
+        REMOTE_CACHE_HIT,
+        REMOTE_CACHE_MISS,
+        SQL_STATEMENT,
+    }
+
+    /**
+     * Returned by {@link #start()} when the current thread is not recording a request.
+     */
+    public static final long NOT_RECORDING = Long.MIN_VALUE;
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private static volatile SlowestRequests slowestRequests;
+
+    private HotPaths() {}
+
+    /**
+     * Starts recording the requests into the given buffer.
+     */
+    public static void enable(SlowestRequests slowestRequests) {
+        HotPaths.slowestRequests = slowestRequests;
+    }
+
+    /**
+     * Stops recording the requests, the requests being recorded are discarded.
+     */
+    public static void disable() {
+        slowestRequests = null;
+    }
+
+    public static boolean isEnabled() {
+        return slowestRequests != null;
+    }
+
+    /**
+     * Starts recording a request on the current thread, if enabled.
+     */
+    public static void begin() {
+        if (slowestRequests != null) {
+            CURRENT.set(new Recording());
+        }
+    }
+
+    /**
+     * Finishes recording the request of the current thread.
+     *
+     * @param method the HTTP method.
+     * @param uri the URI template, or the URI, of the request.
+     * @param status the HTTP status of the response.
+     * @param traceId the trace id of the request.
+     * @param durationNanos the time spent handling the request.
+     */
+    public static void end(String method, String uri, int status, String traceId, long durationNanos) {
+        Recording recording = CURRENT.get();
+        if (recording == null) {
+            return;
+        }
+        CURRENT.remove();
+        SlowestRequests requests = slowestRequests;
+        if (requests != null && requests.accepts(durationNanos)) {
+            requests.offer(recording.toRequest(method, uri, status, traceId, durationNanos));
+        }
+    }
+
+    /**
+     * @return the start of a phase, or {@link #NOT_RECORDING} if the current thread is not recording a request.
+     */
+    public static long start() {
+        if (slowestRequests == null || CURRENT.get() == null) {
+            return NOT_RECORDING;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Adds the time elapsed since {@code start} to a phase of the request of the current thread.
+     */
+    public static void stop(Phase phase, long start) {
+        if (start == NOT_RECORDING) {
+            return;
+        }
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            recording.nanos[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Counts an event of the request of the current thread.
+     */
+    public static void increment(Event event, int count) {
+        if (slowestRequests == null) {
+            return;
+        }
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            recording.counts[event.ordinal()] += count;
+        }
+    }
+
+    private static final class Recording {
+
+        private final Instant startedAt = Instant.now();
+
+        private final long[] nanos = new long[Phase.values().length];
+
+        private final long[] counts = new long[Event.values().length];
+
+        private Request toRequest(String method, String uri, int status, String traceId, long durationNanos) {
+            Map<Phase, Double> phases = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                if (nanos[phase.ordinal()] > 0) {
+                    phases.put(phase, nanos[phase.ordinal()] / 1_000_000d);
+                }
+            }
+            Map<Event, Long> events = new EnumMap<>(Event.class);
+            for (Event event : Event.values()) {
+                if (counts[event.ordinal()] > 0) {
+                    events.put(event, counts[event.ordinal()]);
+                }
+            }
+            return new Request(startedAt, method, uri, status, traceId, durationNanos, phases, events);
+        }
+    }
+
+    /**
+     * A recorded request, with the time of each of its phases in milliseconds.
+     */
+    public static final class Request {
+
+        private final Instant timestamp;
+
+        private final String method;
+
+        private final String uri;
+
+        private final int status;
+
+        private final String traceId;
+
+        private final long durationNanos;
+
+        private final Map<Phase, Double> phases;
+
+        private final Map<Event, Long> events;
+
+        Request(
+            Instant timestamp,
+            String method,
+            String uri,
+            int status,
+            String traceId,
+            long durationNanos,
+            Map<Phase, Double> phases,
+            Map<Event, Long> events
+        ) {
+            this.timestamp = timestamp;
+            this.method = method;
+            this.uri = uri;
+            this.status = status;
+            this.traceId = traceId;
+            this.durationNanos = durationNanos;
+            this.phases = phases;
+            this.events = events;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        public double getDuration() {
+            return durationNanos / 1_000_000d;
+        }
+
+        public Map<Phase, Double> getPhases() {
+            return phases;
+        }
+
+        public Map<Event, Long> getEvents() {
+            return events;
+        }
+    }
+
+    /**
+     * Lock-free buffer of the slowest requests: a new request replaces the fastest one when the buffer is full.
+     */
+    public static final class SlowestRequests {
+
+        private final AtomicReferenceArray<Request> requests;
+
+        /**
+         * The duration of the fastest kept request once the buffer is full, so that most requests are rejected without
+         * scanning the buffer. It may be stale, in which case a request is rejected on the next scan.
+         */
+        private volatile long threshold = Long.MIN_VALUE;
+
+        public SlowestRequests(int size) {
+            this.requests = new AtomicReferenceArray<>(Math.max(size, 1));
+        }
+
+        boolean accepts(long durationNanos) {
+            return durationNanos > threshold;
+        }
+
+        void offer(Request request) {
+            while (true) {
+                int fastest = -1;
+                Request fastestRequest = null;
+                for (int i = 0; i < requests.length(); i++) {
+                    Request kept = requests.get(i);
+                    if (kept == null) {
+                        if (requests.compareAndSet(i, null, request)) {
+                            return;
+                        }
+                        kept = requests.get(i);
+                    }
+                    if (kept != null && (fastestRequest == null || kept.durationNanos < fastestRequest.durationNanos)) {
+                        fastest = i;
+                        fastestRequest = kept;
+                    }
+                }
+                if (fastestRequest == null) {
+                    continue;
+                }
+                if (request.durationNanos <= fastestRequest.durationNanos) {
+                    threshold = fastestRequest.durationNanos;
+                    return;
+                }
+                if (requests.compareAndSet(fastest, fastestRequest, request)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return the kept requests, slowest first.
+         */
+        public List<Request> getRequests() {
+            List<Request> result = new ArrayList<>(requests.length());
+            for (int i = 0; i < requests.length(); i++) {
+                Request request = requests.get(i);
+                if (request != null) {
+                    result.add(request);
+                }
+            }
+            result.sort(Comparator.comparingLong((Request request) -> request.durationNanos).reversed());
+            return result;
+        }
+
+        public void clear() {
+            threshold = Long.MIN_VALUE;
+            for (int i = 0; i < requests.length(); i++) {
+                requests.set(i, null);
+            }
+        }
+    }
+}
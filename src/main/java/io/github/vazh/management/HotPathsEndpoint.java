@@ -0,0 +1,71 @@
+package io.github.vazh.management;
+
+import java.util.List;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * Endpoint reporting the slowest requests recorded by the {@link HotPaths}, with the breakdown of their hot path.
+ * <p>
+ * The recording can be switched on and off at runtime, and the recorded requests can be cleared.
+ */
+@Endpoint(id = "hotpaths")
+public class HotPathsEndpoint implements DisposableBean {
+
+    private final HotPaths.SlowestRequests slowestRequests;
+
+    public HotPathsEndpoint(int size, boolean enabled) {
+        this.slowestRequests = new HotPaths.SlowestRequests(size);
+        setEnabled(enabled);
+    }
+
+    @ReadOperation
+    public HotPathsReport hotPaths() {
+        return new HotPathsReport(HotPaths.isEnabled(), slowestRequests.getRequests());
+    }
+
+    @WriteOperation
+    public void setEnabled(boolean enabled) {
+        if (enabled) {
+            HotPaths.enable(slowestRequests);
+        } else {
+            HotPaths.disable();
+        }
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowestRequests.clear();
+    }
+
+    @Override
+    public void destroy() {
+        HotPaths.disable();
+    }
+
+    /**
+     * Whether requests are being recorded, and the slowest recorded requests, slowest first.
+     */
+    public static final class HotPathsReport {
+
+        private final boolean enabled;
+
+        private final List<HotPaths.Request> requests;
+
+        public HotPathsReport(boolean enabled, List<HotPaths.Request> requests) {
+            this.enabled = enabled;
+            this.requests = requests;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public List<HotPaths.Request> getRequests() {
+            return requests;
+        }
+    }
+}
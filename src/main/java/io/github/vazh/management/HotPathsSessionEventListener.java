@@ -0,0 +1,43 @@
+package io.github.vazh.management;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Times the JDBC statements of each Hibernate session for the {@link HotPaths}.
+ * <p>
+ * Hibernate creates one listener per session, from its class name in the {@code hibernate.session.events.auto} property.
+ */
+public class HotPathsSessionEventListener extends BaseSessionEventListener {
+
+    private long statementStart = HotPaths.NOT_RECORDING;
+
+    private long batchStart = HotPaths.NOT_RECORDING;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = HotPaths.start();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        if (statementStart != HotPaths.NOT_RECORDING) {
+            HotPaths.stop(HotPaths.Phase.SQL, statementStart);
+            HotPaths.increment(HotPaths.Event.SQL_STATEMENT, 1);
+            statementStart = HotPaths.NOT_RECORDING;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = HotPaths.start();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        if (batchStart != HotPaths.NOT_RECORDING) {
+            HotPaths.stop(HotPaths.Phase.SQL, batchStart);
+            HotPaths.increment(HotPaths.Event.SQL_STATEMENT, 1);
+            batchStart = HotPaths.NOT_RECORDING;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.vazh.management;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+/**
+ * Publishes latency histograms of the HTTP requests only for the named endpoints.
+ * <p>
+ * The timers of the HTTP requests whose {@code uri} tag matches one of the patterns get one histogram bucket per SLO, and
+ * no client-side percentiles: the percentiles are computed across instances from the buckets. The other requests only
+ * publish their count, total time and maximum.
+ */
+public class HttpRequestsMetricsPolicy implements MeterFilter {
+
+    private static final String URI_TAG = "uri";
+
+    private final String metricName;
+
+    private final List<String> histogramUris;
+
+    private final double[] slo;
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public HttpRequestsMetricsPolicy(String metricName, List<String> histogramUris, List<Duration> slo) {
+        this.metricName = metricName;
+        this.histogramUris = List.copyOf(histogramUris);
+        this.slo = slo.stream().mapToDouble(Duration::toNanos).sorted().toArray();
+    }
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (!id.getName().equals(metricName)) {
+            return config;
+        }
+        DistributionStatisticConfig.Builder policy = DistributionStatisticConfig.builder().percentilesHistogram(false).percentiles();
+        if (hasHistogram(id.getTag(URI_TAG))) {
+            policy.serviceLevelObjectives(slo);
+        } else {
+            policy.serviceLevelObjectives();
+        }
+        return policy.build().merge(config);
+    }
+
+    private boolean hasHistogram(String uri) {
+        if (uri == null) {
+            return false;
+        }
+        for (String pattern : histogramUris) {
+            if (pathMatcher.match(pattern, uri)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.vazh.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MailMetersService {
+
+    public static final String QUEUE_DEPTH_METER_NAME = "mail.queue.depth";
+    public static final String QUEUE_DEPTH_METER_DESCRIPTION = "Indicates the emails waiting in the mail queue.";
+    public static final String QUEUE_DEPTH_METER_BASE_UNIT = "emails";
+
+    public static final String SEND_METER_NAME = "mail.send";
+    public static final String SEND_METER_DESCRIPTION =
+        "Indicates the time spent sending each batch of emails over a single SMTP connection.";
+
+    public static final String DELIVERY_METER_NAME = "mail.delivery";
+    public static final String DELIVERY_METER_DESCRIPTION = "Indicates the time from queuing an email to its delivery to the SMTP server.";
+
+    public static final String FAILURES_METER_NAME = "mail.failures";
+    public static final String FAILURES_METER_DESCRIPTION =
+        "Indicates emails which could not be sent: retried later, abandoned after the last attempt, or not queued.";
+    public static final String FAILURES_METER_BASE_UNIT = "emails";
+    public static final String FAILURES_METER_OUTCOME_DIMENSION = "outcome";
+
+    private final MeterRegistry registry;
+
+    private final Timer sendTimer;
+    private final Timer deliveryTimer;
+
+    private final Counter retriedCounter;
+    private final Counter abandonedCounter;
+    private final Counter rejectedCounter;
+    private final Counter droppedCounter;
+
+    public MailMetersService(MeterRegistry registry) {
+        this.registry = registry;
+        this.sendTimer = Timer.builder(SEND_METER_NAME).description(SEND_METER_DESCRIPTION).register(registry);
+        this.deliveryTimer = Timer.builder(DELIVERY_METER_NAME).description(DELIVERY_METER_DESCRIPTION).register(registry);
+
+        this.retriedCounter = failuresCounterForOutcomeBuilder("retried").register(registry);
+        this.abandonedCounter = failuresCounterForOutcomeBuilder("abandoned").register(registry);
+        this.rejectedCounter = failuresCounterForOutcomeBuilder("rejected").register(registry);
+        this.droppedCounter = failuresCounterForOutcomeBuilder("dropped").register(registry);
+    }
+
+    private Counter.Builder failuresCounterForOutcomeBuilder(String outcome) {
+        return Counter
+            .builder(FAILURES_METER_NAME)
+            .baseUnit(FAILURES_METER_BASE_UNIT)
+            .description(FAILURES_METER_DESCRIPTION)
+            .tag(FAILURES_METER_OUTCOME_DIMENSION, outcome);
+    }
+
+    public void registerQueueDepth(Supplier<Number> depth) {
+        Gauge
+            .builder(QUEUE_DEPTH_METER_NAME, depth)
+            .baseUnit(QUEUE_DEPTH_METER_BASE_UNIT)
+            .description(QUEUE_DEPTH_METER_DESCRIPTION)
+            .register(registry);
+    }
+
+    public void trackSend(long durationNanos) {
+        this.sendTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackDelivery(long durationNanos) {
+        this.deliveryTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackRetried() {
+        this.retriedCounter.increment();
+    }
+
+    public void trackAbandoned() {
+        this.abandonedCounter.increment();
+    }
+
+    public void trackRejected() {
+        this.rejectedCounter.increment();
+    }
+
+    public void trackDropped() {
+        this.droppedCounter.increment();
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.vazh.management;
+
+import io.prometheus.client.exemplars.tracer.common.SpanContextSupplier;
+import org.slf4j.MDC;
+
+/**
+ * Supplies the trace and span ids of the current request, from the {@link MDC}, for the exemplars of the Prometheus
+ * histograms: a bucket then links to one of the requests it counts.
+ */
+public class RequestSpanContextSupplier implements SpanContextSupplier {
+
+    private final String traceIdKey;
+
+    private final String spanIdKey;
+
+    public RequestSpanContextSupplier(String traceIdKey, String spanIdKey) {
+        this.traceIdKey = traceIdKey;
+        this.spanIdKey = spanIdKey;
+    }
+
+    @Override
+    public String getTraceId() {
+        return MDC.get(traceIdKey);
+    }
+
+    @Override
+    public String getSpanId() {
+        return MDC.get(spanIdKey);
+    }
+}
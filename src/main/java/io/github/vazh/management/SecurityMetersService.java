@@ -2,6 +2,8 @@ package io.github.vazh.management;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +15,78 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+    public static final String TOKEN_CACHE_METER_DESCRIPTION = "Indicates lookups of verified tokens in the authentication cache.";
+    public static final String TOKEN_CACHE_METER_RESULT_DIMENSION = "result";
+    public static final String TOKEN_CACHE_EVICTIONS_METER_NAME = "security.authentication.token-cache.evictions";
+    public static final String TOKEN_CACHE_EVICTIONS_METER_DESCRIPTION =
+        "Indicates verified tokens removed from the authentication cache because of size or expiration.";
+
+    public static final String UNKNOWN_LOGIN_CACHE_METER_NAME = "security.authentication.unknown-login-cache";
+    public static final String UNKNOWN_LOGIN_CACHE_METER_DESCRIPTION =
+        "Indicates authentications with an unknown login, rejected from the cache (hit) or after querying the database (miss).";
+    public static final String UNKNOWN_LOGIN_CACHE_METER_RESULT_DIMENSION = "result";
+
+    public static final String PASSWORD_HASHING_METER_NAME = "security.password-hashing";
+    public static final String PASSWORD_HASHING_METER_DESCRIPTION = "Indicates the time spent hashing and verifying passwords.";
+    public static final String PASSWORD_HASHING_OPERATION_DIMENSION = "operation";
+    public static final String PASSWORD_HASHING_OPERATION_ENCODE = "encode";
+    public static final String PASSWORD_HASHING_OPERATION_MATCHES = "matches";
+    public static final String PASSWORD_HASHING_QUEUE_WAIT_METER_NAME = "security.password-hashing.queue-wait";
+    public static final String PASSWORD_HASHING_QUEUE_WAIT_METER_DESCRIPTION =
+        "Indicates the time passwords wait for a thread of the password hashing pool.";
+    public static final String PASSWORD_HASHING_REJECTED_METER_NAME = "security.password-hashing.rejected";
+    public static final String PASSWORD_HASHING_REJECTED_METER_DESCRIPTION =
+        "Indicates requests rejected because the password hashing pool is saturated.";
+    public static final String PASSWORD_REHASHED_METER_NAME = "security.password-hashing.rehashed";
+    public static final String PASSWORD_REHASHED_METER_DESCRIPTION = "Indicates passwords rehashed with the configured cost on login.";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
 
+    private final Counter tokenCacheHitCounter;
+    private final Counter tokenCacheMissCounter;
+    private final Counter tokenCacheEvictionCounter;
+
+    private final Counter unknownLoginCacheHitCounter;
+    private final Counter unknownLoginCacheMissCounter;
+
+    private final Timer passwordEncodeTimer;
+    private final Timer passwordMatchesTimer;
+    private final Timer passwordHashingQueueWaitTimer;
+    private final Counter passwordHashingRejectedCounter;
+    private final Counter passwordRehashedCounter;
+
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+
+        this.tokenCacheHitCounter = tokenCacheCounterForResultBuilder("hit").register(registry);
+        this.tokenCacheMissCounter = tokenCacheCounterForResultBuilder("miss").register(registry);
+        this.tokenCacheEvictionCounter =
+            Counter.builder(TOKEN_CACHE_EVICTIONS_METER_NAME).description(TOKEN_CACHE_EVICTIONS_METER_DESCRIPTION).register(registry);
+
+        this.unknownLoginCacheHitCounter = unknownLoginCacheCounterForResultBuilder("hit").register(registry);
+        this.unknownLoginCacheMissCounter = unknownLoginCacheCounterForResultBuilder("miss").register(registry);
+
+        this.passwordEncodeTimer = passwordHashingTimerForOperationBuilder(PASSWORD_HASHING_OPERATION_ENCODE).register(registry);
+        this.passwordMatchesTimer = passwordHashingTimerForOperationBuilder(PASSWORD_HASHING_OPERATION_MATCHES).register(registry);
+        this.passwordHashingQueueWaitTimer =
+            Timer
+                .builder(PASSWORD_HASHING_QUEUE_WAIT_METER_NAME)
+                .description(PASSWORD_HASHING_QUEUE_WAIT_METER_DESCRIPTION)
+                .register(registry);
+        this.passwordHashingRejectedCounter =
+            Counter
+                .builder(PASSWORD_HASHING_REJECTED_METER_NAME)
+                .description(PASSWORD_HASHING_REJECTED_METER_DESCRIPTION)
+                .register(registry);
+        this.passwordRehashedCounter =
+            Counter.builder(PASSWORD_REHASHED_METER_NAME).description(PASSWORD_REHASHED_METER_DESCRIPTION).register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -33,6 +97,27 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder tokenCacheCounterForResultBuilder(String result) {
+        return Counter
+            .builder(TOKEN_CACHE_METER_NAME)
+            .description(TOKEN_CACHE_METER_DESCRIPTION)
+            .tag(TOKEN_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
+    private Counter.Builder unknownLoginCacheCounterForResultBuilder(String result) {
+        return Counter
+            .builder(UNKNOWN_LOGIN_CACHE_METER_NAME)
+            .description(UNKNOWN_LOGIN_CACHE_METER_DESCRIPTION)
+            .tag(UNKNOWN_LOGIN_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
+    private Timer.Builder passwordHashingTimerForOperationBuilder(String operation) {
+        return Timer
+            .builder(PASSWORD_HASHING_METER_NAME)
+            .description(PASSWORD_HASHING_METER_DESCRIPTION)
+            .tag(PASSWORD_HASHING_OPERATION_DIMENSION, operation);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -48,4 +133,41 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenCacheHit() {
+        this.tokenCacheHitCounter.increment();
+    }
+
+    public void trackTokenCacheMiss() {
+        this.tokenCacheMissCounter.increment();
+    }
+
+    public void trackTokenCacheEviction() {
+        this.tokenCacheEvictionCounter.increment();
+    }
+
+    public void trackUnknownLoginCacheHit() {
+        this.unknownLoginCacheHitCounter.increment();
+    }
+
+    public void trackUnknownLoginCacheMiss() {
+        this.unknownLoginCacheMissCounter.increment();
+    }
+
+    public void trackPasswordHashing(String operation, long durationNanos) {
+        Timer timer = PASSWORD_HASHING_OPERATION_ENCODE.equals(operation) ? this.passwordEncodeTimer : this.passwordMatchesTimer;
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackPasswordHashingQueueWait(long durationNanos) {
+        this.passwordHashingQueueWaitTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackPasswordHashingRejected() {
+        this.passwordHashingRejectedCounter.increment();
+    }
+
+    public void trackPasswordRehashed() {
+        this.passwordRehashedCounter.increment();
+    }
 }
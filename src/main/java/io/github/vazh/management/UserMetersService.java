@@ -0,0 +1,38 @@
+package io.github.vazh.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Service;
+
+@Service
+public class UserMetersService {
+
+    public static final String CLEANUP_DELETED_METER_NAME = "users.cleanup.deleted";
+    public static final String CLEANUP_DELETED_METER_DESCRIPTION =
+        "Indicates expired non-activated users deleted by the scheduled cleanup.";
+    public static final String CLEANUP_DELETED_METER_BASE_UNIT = "users";
+
+    public static final String CLEANUP_CHUNKS_METER_NAME = "users.cleanup.chunks";
+    public static final String CLEANUP_CHUNKS_METER_DESCRIPTION =
+        "Indicates the time spent deleting each chunk of expired non-activated users, in its own transaction.";
+
+    private final Counter cleanupDeletedCounter;
+    private final Timer cleanupChunksTimer;
+
+    public UserMetersService(MeterRegistry registry) {
+        this.cleanupDeletedCounter =
+            Counter
+                .builder(CLEANUP_DELETED_METER_NAME)
+                .baseUnit(CLEANUP_DELETED_METER_BASE_UNIT)
+                .description(CLEANUP_DELETED_METER_DESCRIPTION)
+                .register(registry);
+        this.cleanupChunksTimer = Timer.builder(CLEANUP_CHUNKS_METER_NAME).description(CLEANUP_CHUNKS_METER_DESCRIPTION).register(registry);
+    }
+
+    public void trackCleanupChunk(int deletedUsers, long durationNanos) {
+        this.cleanupDeletedCounter.increment(deletedUsers);
+        this.cleanupChunksTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+}
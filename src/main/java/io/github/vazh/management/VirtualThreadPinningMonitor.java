@@ -0,0 +1,104 @@
+package io.github.vazh.management;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Reports the virtual threads pinned to their carrier thread, which then cannot run other virtual threads, such as while
+ * blocking in a {@code synchronized} block of a JDBC driver.
+ * <p>
+ * The {@code jdk.VirtualThreadPinned} events of Java Flight Recorder are streamed in process: each pinning longer than
+ * the threshold is recorded by a timer, and the stack trace of the first pinning at each location is logged. Only create
+ * it on Java 21 or later: the application is compiled for Java 11, so the event stream, added in Java 14, is created by
+ * reflection.
+ */
+public class VirtualThreadPinningMonitor implements DisposableBean {
+
+    public static final String PINNED_METER_NAME = "jvm.threads.virtual.pinned";
+    public static final String PINNED_METER_DESCRIPTION = "Indicates the time virtual threads were pinned to their carrier thread.";
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int MAX_LOGGED_LOCATIONS = 1_000;
+
+    private static final int MAX_LOGGED_FRAMES = 20;
+
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private final Timer pinnedTimer;
+
+    private final Set<String> loggedLocations = ConcurrentHashMap.newKeySet();
+
+    private final AutoCloseable recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry, Duration threshold) {
+        this.pinnedTimer = Timer.builder(PINNED_METER_NAME).description(PINNED_METER_DESCRIPTION).register(registry);
+        this.recordingStream = startRecordingStream(threshold, this::onPinned);
+    }
+
+    /**
+     * Starts a {@code jdk.jfr.consumer.RecordingStream} of the pinning events, as
+     * {@code new RecordingStream().enable(PINNED_EVENT).withThreshold(threshold).withStackTrace()}.
+     */
+    private static AutoCloseable startRecordingStream(Duration threshold, Consumer<RecordedEvent> action) {
+        try {
+            Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+            Object stream = streamClass.getConstructor().newInstance();
+            Method enable = streamClass.getMethod("enable", String.class);
+            Object settings = enable.invoke(stream, PINNED_EVENT);
+            settings = enable.getReturnType().getMethod("withThreshold", Duration.class).invoke(settings, threshold);
+            enable.getReturnType().getMethod("withStackTrace").invoke(settings);
+            streamClass.getMethod("onEvent", String.class, Consumer.class).invoke(stream, PINNED_EVENT, action);
+            streamClass.getMethod("startAsync").invoke(stream);
+            return (AutoCloseable) stream;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Streaming Java Flight Recorder events requires Java 14", e);
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return;
+        }
+        String location = format(event.getStackTrace().getFrames().get(0));
+        if (loggedLocations.size() < MAX_LOGGED_LOCATIONS && loggedLocations.add(location)) {
+            log.warn(
+                "Virtual thread '{}' pinned to its carrier thread for {} ms:\n\t{}",
+                event.getThread() == null ? null : event.getThread().getJavaName(),
+                event.getDuration().toMillis(),
+                event
+                    .getStackTrace()
+                    .getFrames()
+                    .stream()
+                    .limit(MAX_LOGGED_FRAMES)
+                    .map(VirtualThreadPinningMonitor::format)
+                    .collect(Collectors.joining("\n\t"))
+            );
+        }
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + '.' + frame.getMethod().getName() + ':' + frame.getLineNumber();
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            recordingStream.close();
+        } catch (Exception e) {
+            log.warn("Could not close the recording of pinned virtual threads: {}", e.getMessage());
+        }
+    }
+}
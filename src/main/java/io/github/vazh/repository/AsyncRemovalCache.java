@@ -0,0 +1,16 @@
+package io.github.vazh.repository;
+
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Cache whose keys can be removed without waiting for the removal, so that the {@link UserCacheEvictor} can send the
+ * removals from several caches together. Implemented by the caches which wrap a Redisson cache.
+ */
+public interface AsyncRemovalCache<K> {
+    /**
+     * @param keys the keys to remove.
+     * @return a stage completed once the keys are removed.
+     */
+    CompletionStage<Void> removeAllAsync(Set<? extends K> keys);
+}
@@ -0,0 +1,25 @@
+package io.github.vazh.repository;
+
+import io.github.vazh.domain.MailOutboxEntry;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link MailOutboxEntry} entity.
+ */
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutboxEntry, Long> {
+    /**
+     * Locks the next emails to send, highest priority first, until the end of the transaction. The emails locked by other
+     * transactions are skipped rather than waited for, so that each instance of the application sends different emails.
+     */
+    @Query(
+        value = "select * from mail_outbox where next_attempt_date <= :now order by priority, id limit :limit for update skip locked",
+        nativeQuery = true
+    )
+    List<MailOutboxEntry> lockNextToSend(@Param("now") Instant now, @Param("limit") int limit);
+}
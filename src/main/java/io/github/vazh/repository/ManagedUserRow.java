@@ -0,0 +1,9 @@
+package io.github.vazh.repository;
+
+/**
+ * Projection of a {@link io.github.vazh.domain.User} joined with one of its authorities, or with none if the user has no
+ * authority: a user spans as many consecutive rows as it has authorities.
+ */
+public interface ManagedUserRow extends ManagedUserSummary {
+    String getAuthority();
+}
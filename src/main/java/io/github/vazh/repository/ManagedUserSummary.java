@@ -0,0 +1,29 @@
+package io.github.vazh.repository;
+
+import java.time.Instant;
+
+/**
+ * Projection of the attributes of a {@link io.github.vazh.domain.User} shown to the administrators, for the user listings.
+ * The authorities are read separately for a whole page, with {@link UserRepository#findAuthorityNamesByUserIdIn}.
+ */
+public interface ManagedUserSummary extends UserSummary {
+    String getFirstName();
+
+    String getLastName();
+
+    String getEmail();
+
+    String getImageUrl();
+
+    boolean isActivated();
+
+    String getLangKey();
+
+    String getCreatedBy();
+
+    Instant getCreatedDate();
+
+    String getLastModifiedBy();
+
+    Instant getLastModifiedDate();
+}
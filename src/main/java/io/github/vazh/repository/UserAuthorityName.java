@@ -0,0 +1,10 @@
+package io.github.vazh.repository;
+
+/**
+ * Projection of an authority of a {@link io.github.vazh.domain.User}, by user id.
+ */
+public interface UserAuthorityName {
+    Long getUserId();
+
+    String getName();
+}
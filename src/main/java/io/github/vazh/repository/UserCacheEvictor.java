@@ -0,0 +1,175 @@
+package io.github.vazh.repository;
+
+import io.github.vazh.domain.User;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.access.CollectionDataAccess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.redisson.api.CacheAsync;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts the cached entries of modified users once the current transaction has committed.
+ * <p>
+ * The keys to evict are collected during the transaction, without duplicates, so that evicting a user before and after
+ * changing its login or email evicts the entries of both the old and the new values. After the commit, the keys of each
+ * cache are evicted in a single call. The calls to the Redis caches, including the regions of the Hibernate second-level
+ * cache, are all sent before waiting for any of them, so that the eviction only waits for about one round-trip rather than
+ * one per cache. They remain separate commands, as the Redisson caches cannot take part in a batch. Outside of a
+ * transaction, the keys are evicted immediately.
+ */
+@Component
+public class UserCacheEvictor {
+
+    private final Logger log = LoggerFactory.getLogger(UserCacheEvictor.class);
+
+    private final CacheManager cacheManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public UserCacheEvictor(CacheManager cacheManager, EntityManagerFactory entityManagerFactory) {
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Evicts the {@link UserRepository#USERS_BY_LOGIN_CACHE} and {@link UserRepository#USERS_BY_EMAIL_CACHE} entries of
+     * the current login and email of a user.
+     *
+     * @param user the user.
+     */
+    public void evict(User user) {
+        evict(user.getLogin(), user.getEmail());
+    }
+
+    /**
+     * Evicts the {@link UserRepository#USERS_BY_LOGIN_CACHE} and {@link UserRepository#USERS_BY_EMAIL_CACHE} entries of
+     * a login and an email.
+     *
+     * @param login the login.
+     * @param email the email, or {@code null}.
+     */
+    public void evict(String login, String email) {
+        PendingEvictions evictions = pendingEvictions();
+        evictions.add(UserRepository.USERS_BY_LOGIN_CACHE, login);
+        evictions.add(UserRepository.USERS_BY_EMAIL_CACHE, email);
+        evictIfNotDeferred(evictions);
+    }
+
+    /**
+     * Evicts a user and its authorities from the Hibernate second-level cache, for changes which do not go through the
+     * persistence context, such as bulk deletes.
+     *
+     * @param id the id of the user.
+     */
+    public void evictEntity(Long id) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister userPersister = sessionFactory.getMetamodel().entityPersister(User.class);
+        CollectionPersister authoritiesPersister = sessionFactory.getMetamodel().collectionPersister(User.class.getName() + ".authorities");
+        PendingEvictions evictions = pendingEvictions();
+        if (userPersister.canWriteToCache()) {
+            EntityDataAccess access = userPersister.getCacheAccessStrategy();
+            evictions.add(access.getRegion().getName(), access.generateCacheKey(id, userPersister, sessionFactory, null));
+        }
+        if (authoritiesPersister.hasCache()) {
+            CollectionDataAccess access = authoritiesPersister.getCacheAccessStrategy();
+            evictions.add(access.getRegion().getName(), access.generateCacheKey(id, authoritiesPersister, sessionFactory, null));
+        }
+        evictIfNotDeferred(evictions);
+    }
+
+    private PendingEvictions pendingEvictions() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new PendingEvictions();
+        }
+        PendingEvictions evictions = (PendingEvictions) TransactionSynchronizationManager.getResource(this);
+        if (evictions == null) {
+            evictions = new PendingEvictions();
+            TransactionSynchronizationManager.bindResource(this, evictions);
+            TransactionSynchronizationManager.registerSynchronization(new EvictionSynchronization(evictions));
+        }
+        return evictions;
+    }
+
+    private void evictIfNotDeferred(PendingEvictions evictions) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(evictions);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictNow(PendingEvictions evictions) {
+        List<CompletableFuture<Void>> removals = new ArrayList<>(evictions.keys.size());
+        evictions.keys.forEach((cacheName, keys) -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null) {
+                return;
+            }
+            Object nativeCache = cache.getNativeCache();
+            if (nativeCache instanceof AsyncRemovalCache) {
+                removals.add(((AsyncRemovalCache<Object>) nativeCache).removeAllAsync(keys).toCompletableFuture());
+            } else if (nativeCache instanceof CacheAsync) {
+                removals.add(((CacheAsync<Object, ?>) nativeCache).removeAllAsync(keys).toCompletableFuture());
+            } else if (nativeCache instanceof javax.cache.Cache) {
+                ((javax.cache.Cache<Object, ?>) nativeCache).removeAll(keys);
+            } else {
+                keys.forEach(cache::evict);
+            }
+        });
+        CompletableFuture.allOf(removals.toArray(new CompletableFuture[0])).join();
+        log.debug("Evicted cached users {}", evictions.keys);
+    }
+
+    /**
+     * Keys to evict after the commit of a transaction, by cache name.
+     */
+    private static final class PendingEvictions {
+
+        private final Map<String, Set<Object>> keys = new LinkedHashMap<>();
+
+        void add(String cacheName, Object key) {
+            if (key != null) {
+                keys.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).add(key);
+            }
+        }
+    }
+
+    private final class EvictionSynchronization implements TransactionSynchronization {
+
+        private final PendingEvictions evictions;
+
+        EvictionSynchronization(PendingEvictions evictions) {
+            this.evictions = evictions;
+        }
+
+        @Override
+        public void afterCommit() {
+            try {
+                evictNow(evictions);
+            } catch (RuntimeException e) {
+                // The transaction is already committed: the stale entries will expire
+                log.warn("Could not evict cached users {}: {}", evictions.keys, e.getMessage());
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(UserCacheEvictor.this);
+        }
+    }
+}
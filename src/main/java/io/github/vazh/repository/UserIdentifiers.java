@@ -0,0 +1,12 @@
+package io.github.vazh.repository;
+
+/**
+ * Projection of the identifiers of a {@link io.github.vazh.domain.User}, which are the keys of its cache entries.
+ */
+public interface UserIdentifiers {
+    Long getId();
+
+    String getLogin();
+
+    String getEmail();
+}
@@ -2,12 +2,19 @@ package io.github.vazh.repository;
 
 import io.github.vazh.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,8 +25,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     String USERS_BY_LOGIN_CACHE = "usersByLogin";
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
+
+    String BULK_DELETE_QUERY_SPACE = "user_bulk_delete";
+
+    String EXPORT_FETCH_SIZE = "1000";
     Optional<User> findOneByActivationKey(String activationKey);
-    List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
     Optional<User> findOneByResetKey(String resetKey);
     Optional<User> findOneByEmailIgnoreCase(String email);
     Optional<User> findOneByLogin(String login);
@@ -32,5 +42,96 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
-    Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+    long countByActivatedIsTrue();
+
+    /**
+     * Estimates the number of users from the Postgres statistics, which are updated by {@code ANALYZE} and autovacuum.
+     *
+     * @return the estimated number of users, or a negative number if the table has never been analyzed.
+     */
+    @Query(value = "select cast(reltuples as bigint) from pg_class where oid = cast('jhi_user' as regclass)", nativeQuery = true)
+    long estimateCount();
+
+    // Listings, read into projections. The keyset pagination methods rely on the sort keys being unique, so that a single
+    // predicate on the sort key seeks to the next page
+    <T> Slice<T> findAllByIdNotNull(Pageable pageable, Class<T> type);
+    <T> Slice<T> findAllByIdGreaterThan(Long id, Pageable pageable, Class<T> type);
+    <T> Slice<T> findAllByIdLessThan(Long id, Pageable pageable, Class<T> type);
+    <T> Slice<T> findAllByLoginGreaterThan(String login, Pageable pageable, Class<T> type);
+    <T> Slice<T> findAllByLoginLessThan(String login, Pageable pageable, Class<T> type);
+    <T> Slice<T> findAllByActivatedIsTrue(Pageable pageable, Class<T> type);
+    <T> Slice<T> findAllByActivatedIsTrueAndIdGreaterThan(Long id, Pageable pageable, Class<T> type);
+    <T> Slice<T> findAllByActivatedIsTrueAndIdLessThan(Long id, Pageable pageable, Class<T> type);
+    <T> Slice<T> findAllByActivatedIsTrueAndLoginGreaterThan(String login, Pageable pageable, Class<T> type);
+    <T> Slice<T> findAllByActivatedIsTrueAndLoginLessThan(String login, Pageable pageable, Class<T> type);
+
+    /**
+     * Finds the authorities of several users in a single query, such as the users of a page.
+     */
+    @Query("select u.id as userId, a.name as name from User u join u.authorities a where u.id in :userIds")
+    List<UserAuthorityName> findAuthorityNamesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Finds which of several logins are already used, in a single query.
+     */
+    @Query("select u.login from User u where u.login in :logins")
+    List<String> findLoginsIn(@Param("logins") Collection<String> logins);
+
+    /**
+     * Finds which of several lowercase emails are already used, in a single query. Emails are stored in lowercase.
+     */
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
+
+    /**
+     * Streams all the users with their authorities, by ascending id, through a forward-only cursor which reads the rows by
+     * batches of {@link #EXPORT_FETCH_SIZE}. Rows are projections, so that the persistence context does not grow, and the
+     * stream must be consumed and closed within a transaction.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "false"),
+        }
+    )
+    @Query(
+        "select u.id as id, u.login as login, u.firstName as firstName, u.lastName as lastName, u.email as email," +
+        " u.imageUrl as imageUrl, u.activated as activated, u.langKey as langKey, u.createdBy as createdBy," +
+        " u.createdDate as createdDate, u.lastModifiedBy as lastModifiedBy, u.lastModifiedDate as lastModifiedDate," +
+        " a.name as authority from User u left join u.authorities a order by u.id"
+    )
+    Stream<ManagedUserRow> streamAllWithAuthorities();
+
+    /**
+     * Finds the next not activated users created before a date, by ascending id, starting after a given id.
+     */
+    @Query(
+        "select u.id as id, u.login as login, u.email as email from User u" +
+        " where u.activated = false and u.activationKey is not null and u.createdDate < :createdBefore and u.id > :afterId" +
+        " order by u.id"
+    )
+    List<UserIdentifiers> findNotActivatedUsersCreatedBefore(
+        @Param("createdBefore") Instant createdBefore,
+        @Param("afterId") long afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Bulk deletes the authorities of users. The query space matches no cached entity, so that Hibernate does not clear the
+     * whole second-level cache: the users must be evicted with the {@link UserCacheEvictor}.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = BULK_DELETE_QUERY_SPACE))
+    @Query(value = "delete from jhi_user_authority where user_id in (:userIds)", nativeQuery = true)
+    int deleteAuthoritiesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Bulk deletes users, once their authorities have been deleted. As with {@link #deleteAuthoritiesByUserIdIn}, the
+     * users must be evicted with the {@link UserCacheEvictor}.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = BULK_DELETE_QUERY_SPACE))
+    @Query(value = "delete from jhi_user where id in (:userIds)", nativeQuery = true)
+    int deleteByIdIn(@Param("userIds") Collection<Long> userIds);
 }
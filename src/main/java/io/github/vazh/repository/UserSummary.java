@@ -0,0 +1,10 @@
+package io.github.vazh.repository;
+
+/**
+ * Projection of the public attributes of a {@link io.github.vazh.domain.User}, for the user listings.
+ */
+public interface UserSummary {
+    Long getId();
+
+    String getLogin();
+}
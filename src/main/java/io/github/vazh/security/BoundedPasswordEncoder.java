@@ -0,0 +1,161 @@
+package io.github.vazh.security;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.management.HotPaths;
+import io.github.vazh.management.SecurityMetersService;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt {@link PasswordEncoder} running on a dedicated, bounded thread pool.
+ * <p>
+ * Hashing is CPU-bound and deliberately slow, so a burst of logins or registrations must not take every web worker:
+ * at most {@code pool-size} passwords are hashed concurrently, and at most {@code queue-capacity} wait for a thread.
+ * Beyond that, or when a hash can't complete within the timeout, a {@link PasswordHashingBusyException} is thrown
+ * immediately so that the client is told to retry later.
+ * <p>
+ * Stored hashes with another cost than the configured strength need an upgrade, so that they are rehashed after the
+ * next successful login (see {@link DomainUserDetailsService#updatePassword}).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+
+    private final int strength;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeoutNanos;
+
+    private final Duration retryAfter;
+
+    private final SecurityMetersService securityMetersService;
+
+    public BoundedPasswordEncoder(ApplicationProperties.Security.PasswordHashing properties, SecurityMetersService securityMetersService) {
+        this(properties, new BCryptPasswordEncoder(properties.getStrength()), securityMetersService);
+    }
+
+    BoundedPasswordEncoder(
+        ApplicationProperties.Security.PasswordHashing properties,
+        PasswordEncoder delegate,
+        SecurityMetersService securityMetersService
+    ) {
+        this.strength = properties.getStrength();
+        this.delegate = delegate;
+        this.executor =
+            new ThreadPoolExecutor(
+                properties.getPoolSize(),
+                properties.getPoolSize(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+        this.timeoutNanos = properties.getTimeout().toNanos();
+        this.retryAfter = properties.getRetryAfter();
+        this.securityMetersService = securityMetersService;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(SecurityMetersService.PASSWORD_HASHING_OPERATION_ENCODE, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(SecurityMetersService.PASSWORD_HASHING_OPERATION_MATCHES, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = cost(encodedPassword);
+        return cost > 0 && cost != strength;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(String operation, Callable<T> hashing) {
+        long start = HotPaths.start();
+        try {
+            return executeBounded(operation, hashing);
+        } finally {
+            HotPaths.stop(HotPaths.Phase.PASSWORD_HASHING, start);
+        }
+    }
+
+    private <T> T executeBounded(String operation, Callable<T> hashing) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future =
+                executor.submit(() -> {
+                    long startedAt = System.nanoTime();
+                    securityMetersService.trackPasswordHashingQueueWait(startedAt - submittedAt);
+                    T result = hashing.call();
+                    securityMetersService.trackPasswordHashing(operation, System.nanoTime() - startedAt);
+                    return result;
+                });
+        } catch (RejectedExecutionException e) {
+            securityMetersService.trackPasswordHashingRejected();
+            log.warn("Password hashing queue is full, rejecting {}", operation);
+            throw new PasswordHashingBusyException("Password hashing queue is full", retryAfter, e);
+        }
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            securityMetersService.trackPasswordHashingRejected();
+            log.warn("Password hashing timed out, rejecting {}", operation);
+            throw new PasswordHashingBusyException("Password hashing timed out", retryAfter, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted while waiting for password hashing", retryAfter, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Reads the cost of a BCrypt hash, formatted as {@code $2a$10$...}.
+     *
+     * @return the cost, or {@code -1} if the hash is not a BCrypt hash.
+     */
+    private static int cost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int costStart = encodedPassword.indexOf('$', 1) + 1;
+        if (costStart != 4 || encodedPassword.length() < costStart + 3 || encodedPassword.charAt(costStart + 2) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(costStart);
+        char units = encodedPassword.charAt(costStart + 1);
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+}
@@ -2,6 +2,9 @@ package io.github.vazh.security;
 
 import io.github.vazh.domain.Authority;
 import io.github.vazh.domain.User;
+import io.github.vazh.management.HotPaths;
+import io.github.vazh.management.SecurityMetersService;
+import io.github.vazh.repository.UserCacheEvictor;
 import io.github.vazh.repository.UserRepository;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -11,42 +14,91 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Authenticate a user from the database.
+ * Authenticate a user from the database, and upgrade the hash of their password after a successful login when the
+ * configured password hashing cost has changed.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final UserCacheEvictor userCacheEvictor;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final UnknownLoginCache unknownLoginCache;
+
+    public DomainUserDetailsService(
+        UserRepository userRepository,
+        UserCacheEvictor userCacheEvictor,
+        SecurityMetersService securityMetersService,
+        UnknownLoginCache unknownLoginCache
+    ) {
         this.userRepository = userRepository;
+        this.userCacheEvictor = userCacheEvictor;
+        this.securityMetersService = securityMetersService;
+        this.unknownLoginCache = unknownLoginCache;
     }
 
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
+        long start = HotPaths.start();
+        try {
+            return loadUser(login);
+        } finally {
+            HotPaths.stop(HotPaths.Phase.USER_LOOKUP, start);
+        }
+    }
+
+    private UserDetails loadUser(String login) {
+        // The authentication provider still compares the password with a dummy hash, so unknown users take as long
+        // to reject as known ones
+        if (unknownLoginCache.isUnknown(login)) {
+            throw new UsernameNotFoundException("User " + login + " is known not to exist");
+        }
 
         if (new EmailValidator().isValid(login, null)) {
             return userRepository
                 .findOneWithAuthoritiesByEmailIgnoreCase(login)
                 .map(user -> createSpringSecurityUser(login, user))
-                .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
+                .orElseThrow(() -> unknownLogin(login, "User with email " + login + " was not found in the database"));
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
         return userRepository
             .findOneWithAuthoritiesByLogin(lowercaseLogin)
             .map(user -> createSpringSecurityUser(lowercaseLogin, user))
-            .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
+            .orElseThrow(() -> unknownLogin(lowercaseLogin, "User " + lowercaseLogin + " was not found in the database"));
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        log.debug("Rehashing the password of {}", userDetails.getUsername());
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> {
+                user.setPassword(newPassword);
+                userCacheEvictor.evict(user);
+                securityMetersService.trackPasswordRehashed();
+            });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newPassword).build();
+    }
+
+    private UsernameNotFoundException unknownLogin(String login, String message) {
+        unknownLoginCache.markUnknown(login);
+        return new UsernameNotFoundException(message);
     }
 
     private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
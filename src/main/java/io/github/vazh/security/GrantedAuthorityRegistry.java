@@ -0,0 +1,85 @@
+package io.github.vazh.security;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Canonicalizing registry of granted authorities.
+ * <p>
+ * Maps each distinct comma-separated list of authorities (as stored in the JWT {@code auth} claim) to a single shared,
+ * immutable collection, so that the same handful of combinations (see {@link AuthoritiesConstants}) are not split and
+ * re-allocated for every request. The registry is bounded: once full, new combinations are still parsed, but not kept.
+ */
+public final class GrantedAuthorityRegistry {
+
+    public static final int DEFAULT_MAX_ENTRIES = 128;
+
+    private final ConcurrentMap<String, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, GrantedAuthority> authoritiesByName = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+
+    public GrantedAuthorityRegistry() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public GrantedAuthorityRegistry(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the shared authorities for a comma-separated list of authority names.
+     *
+     * @param authorities the comma-separated list of authority names.
+     * @return an immutable list of authorities, shared by all callers using the same list of names.
+     */
+    public List<GrantedAuthority> fromCommaSeparatedNames(String authorities) {
+        List<GrantedAuthority> grantedAuthorities = authoritiesByClaim.get(authorities);
+        if (grantedAuthorities != null) {
+            return grantedAuthorities;
+        }
+        grantedAuthorities = parse(authorities);
+        if (authoritiesByClaim.size() < maxEntries) {
+            List<GrantedAuthority> existing = authoritiesByClaim.putIfAbsent(authorities, grantedAuthorities);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return grantedAuthorities;
+    }
+
+    int size() {
+        return authoritiesByClaim.size();
+    }
+
+    private List<GrantedAuthority> parse(String authorities) {
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
+        for (String name : authorities.split(",")) {
+            if (!name.trim().isEmpty()) {
+                grantedAuthorities.add(authority(name));
+            }
+        }
+        return Collections.unmodifiableList(grantedAuthorities);
+    }
+
+    private GrantedAuthority authority(String name) {
+        GrantedAuthority authority = authoritiesByName.get(name);
+        if (authority != null) {
+            return authority;
+        }
+        authority = new SimpleGrantedAuthority(name);
+        if (authoritiesByName.size() < maxEntries) {
+            GrantedAuthority existing = authoritiesByName.putIfAbsent(name, authority);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return authority;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.vazh.security;
+
+import java.time.Duration;
+
+/**
+ * This exception is thrown when a password can't be hashed or verified because the password hashing pool is saturated.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public PasswordHashingBusyException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public PasswordHashingBusyException(String message, Duration retryAfter, Throwable t) {
+        super(message, t);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return the delay after which the client may retry.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.vazh.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.management.SecurityMetersService;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded cache of logins and emails which are known not to belong to any user.
+ * <p>
+ * Credential stuffing tries the same unknown logins again and again: once the database has confirmed that a login is
+ * unknown, the following attempts are rejected without querying it. When a user is created or updated, its login and
+ * email are forgotten on this node at once, and on every node, this one included, through a Redis topic once the
+ * transaction has committed, as a lookup running before the commit may have cached them again. Entries also expire after
+ * a short time-to-live, should a message be lost.
+ */
+@Component
+public class UnknownLoginCache implements DisposableBean {
+
+    public static final String INVALIDATION_TOPIC = "unknown-login-invalidations";
+
+    private final Logger log = LoggerFactory.getLogger(UnknownLoginCache.class);
+
+    private final Cache<String, Boolean> cache;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final RTopic topic;
+
+    private final int listenerId;
+
+    public UnknownLoginCache(
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService,
+        RedissonClient redissonClient
+    ) {
+        ApplicationProperties.Security.UnknownLoginCache properties = applicationProperties.getSecurity().getUnknownLoginCache();
+        this.securityMetersService = securityMetersService;
+        this.topic = redissonClient.getTopic(INVALIDATION_TOPIC);
+        if (properties.isEnabled()) {
+            this.cache =
+                Caffeine.newBuilder().maximumSize(properties.getMaxSize()).expireAfterWrite(properties.getTimeToLive()).build();
+            this.listenerId = topic.addListener(Invalidation.class, (channel, invalidation) -> forgetLocally(invalidation.getLogins()));
+        } else {
+            this.cache = null;
+            this.listenerId = -1;
+        }
+    }
+
+    /**
+     * @param login the login or email used to authenticate.
+     * @return {@code true} if the login is known not to belong to any user.
+     */
+    public boolean isUnknown(String login) {
+        if (cache == null || cache.getIfPresent(normalize(login)) == null) {
+            return false;
+        }
+        securityMetersService.trackUnknownLoginCacheHit();
+        return true;
+    }
+
+    /**
+     * Records that no user has this login or email.
+     *
+     * @param login the login or email used to authenticate.
+     */
+    public void markUnknown(String login) {
+        if (cache != null) {
+            securityMetersService.trackUnknownLoginCacheMiss();
+            cache.put(normalize(login), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Forgets the login and email of a user which has been created or updated, on every node.
+     *
+     * @param login the login of the user.
+     * @param email the email of the user, may be {@code null}.
+     */
+    public void forget(String login, String email) {
+        List<String> logins = new ArrayList<>(2);
+        if (login != null) {
+            logins.add(normalize(login));
+        }
+        if (email != null) {
+            logins.add(normalize(email));
+        }
+        if (logins.isEmpty()) {
+            return;
+        }
+        forgetLocally(logins);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(logins);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forgetLocally(logins);
+                    publish(logins);
+                }
+            }
+        );
+    }
+
+    @Override
+    public void destroy() {
+        if (cache == null) {
+            return;
+        }
+        try {
+            topic.removeListener(listenerId);
+        } catch (RuntimeException e) {
+            log.debug("Could not remove the unknown login invalidation listener: {}", e.getMessage());
+        }
+    }
+
+    private void forgetLocally(List<String> logins) {
+        if (cache != null) {
+            cache.invalidateAll(logins);
+        }
+    }
+
+    private void publish(List<String> logins) {
+        try {
+            topic.publish(new Invalidation(logins));
+        } catch (RuntimeException e) {
+            // The other nodes will still forget the logins once they expire
+            log.warn("Could not publish the invalidation of unknown logins: {}", e.getMessage());
+        }
+    }
+
+    private static String normalize(String login) {
+        return login.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Message published to every node when logins or emails must be forgotten.
+     */
+    public static final class Invalidation implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private List<String> logins;
+
+        public Invalidation() {}
+
+        Invalidation(List<String> logins) {
+            this.logins = logins;
+        }
+
+        /**
+         * @return the normalized logins and emails to forget.
+         */
+        public List<String> getLogins() {
+            return logins;
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package io.github.vazh.security.jwt;
 
+import io.github.vazh.management.HotPaths;
 import java.io.IOException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.GenericFilterBean;
@@ -30,9 +30,10 @@ public class JWTFilter extends GenericFilterBean {
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(jwt)) {
+            long start = HotPaths.start();
+            this.tokenProvider.resolveAuthentication(jwt).ifPresent(SecurityContextHolder.getContext()::setAuthentication);
+            HotPaths.stop(HotPaths.Phase.JWT_VERIFY, start);
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
@@ -0,0 +1,198 @@
+package io.github.vazh.security.jwt;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.SignatureException;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Set of asymmetric keys used to sign and verify tokens, indexed by their {@code kid}.
+ * <p>
+ * New tokens are signed with the private key of the signing key, and carry its id in the {@code kid} header. Tokens are
+ * verified with the public key matching their {@code kid}, which is a single map lookup: keys can be rotated by adding
+ * the new key to every node, switching the signing key, and removing the old key once its tokens have expired.
+ * Tokens without a {@code kid}, signed before the key set was configured, are verified with the HMAC key until
+ * {@code require-key-id} is set, once they have all expired.
+ */
+final class JwtKeySet extends SigningKeyResolverAdapter {
+
+    private final Map<String, VerificationKey> verificationKeys;
+
+    private final String signingKeyId;
+
+    private final PrivateKey signingKey;
+
+    private final SignatureAlgorithm signingAlgorithm;
+
+    private final Key hmacKey;
+
+    private JwtKeySet(
+        Map<String, VerificationKey> verificationKeys,
+        String signingKeyId,
+        PrivateKey signingKey,
+        SignatureAlgorithm signingAlgorithm,
+        Key hmacKey
+    ) {
+        this.verificationKeys = verificationKeys;
+        this.signingKeyId = signingKeyId;
+        this.signingKey = signingKey;
+        this.signingAlgorithm = signingAlgorithm;
+        this.hmacKey = hmacKey;
+    }
+
+    /**
+     * Builds the key set from its configuration.
+     *
+     * @param properties the key set configuration.
+     * @param hmacKey the HMAC key verifying tokens without {@code kid}, unless the configuration requires a {@code kid}.
+     * @return the key set, or {@code null} if no key is configured.
+     * @throws IllegalArgumentException if the configuration is not valid.
+     */
+    static JwtKeySet of(ApplicationProperties.Security.Jwt properties, Key hmacKey) {
+        if (properties.getKeys().isEmpty()) {
+            return null;
+        }
+        Map<String, VerificationKey> verificationKeys = new HashMap<>();
+        PrivateKey signingKey = null;
+        SignatureAlgorithm signingAlgorithm = null;
+        for (ApplicationProperties.Security.Jwt.JwtKey jwtKey : properties.getKeys()) {
+            if (jwtKey.getId() == null || jwtKey.getId().isEmpty()) {
+                throw new IllegalArgumentException("JWT keys must have an id");
+            }
+            SignatureAlgorithm algorithm = algorithm(jwtKey);
+            KeyFactory keyFactory = keyFactory(algorithm);
+            PublicKey publicKey = generate(
+                jwtKey.getId(),
+                () -> keyFactory.generatePublic(new X509EncodedKeySpec(decode(jwtKey.getPublicKey())))
+            );
+            if (verificationKeys.put(jwtKey.getId(), new VerificationKey(algorithm, publicKey)) != null) {
+                throw new IllegalArgumentException("Duplicate JWT key id " + jwtKey.getId());
+            }
+            if (jwtKey.getId().equals(properties.getSigningKeyId())) {
+                if (jwtKey.getPrivateKey() == null) {
+                    throw new IllegalArgumentException("The signing JWT key " + jwtKey.getId() + " has no private key");
+                }
+                signingKey =
+                    generate(jwtKey.getId(), () -> keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decode(jwtKey.getPrivateKey()))));
+                signingAlgorithm = algorithm;
+            }
+        }
+        if (signingKey == null) {
+            throw new IllegalArgumentException("The signing JWT key id " + properties.getSigningKeyId() + " is not in the configured keys");
+        }
+        return new JwtKeySet(
+            Collections.unmodifiableMap(verificationKeys),
+            properties.getSigningKeyId(),
+            signingKey,
+            signingAlgorithm,
+            properties.isRequireKeyId() ? null : hmacKey
+        );
+    }
+
+    String getSigningKeyId() {
+        return signingKeyId;
+    }
+
+    PrivateKey getSigningKey() {
+        return signingKey;
+    }
+
+    SignatureAlgorithm getSigningAlgorithm() {
+        return signingAlgorithm;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        return resolveVerificationKey(header);
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, String plaintext) {
+        return resolveVerificationKey(header);
+    }
+
+    private Key resolveVerificationKey(JwsHeader header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            if (hmacKey == null) {
+                throw new SignatureException("JWT has no key id");
+            }
+            return hmacKey;
+        }
+        VerificationKey verificationKey = verificationKeys.get(keyId);
+        if (verificationKey == null) {
+            throw new SignatureException("Unknown JWT key id " + keyId);
+        }
+        if (!verificationKey.algorithm.getValue().equals(header.getAlgorithm())) {
+            throw new SignatureException("JWT algorithm " + header.getAlgorithm() + " does not match the algorithm of key " + keyId);
+        }
+        return verificationKey.publicKey;
+    }
+
+    private static SignatureAlgorithm algorithm(ApplicationProperties.Security.Jwt.JwtKey jwtKey) {
+        SignatureAlgorithm algorithm;
+        try {
+            algorithm = SignatureAlgorithm.forName(jwtKey.getAlgorithm());
+        } catch (SignatureException e) {
+            throw new IllegalArgumentException("Unsupported algorithm " + jwtKey.getAlgorithm() + " for JWT key " + jwtKey.getId(), e);
+        }
+        if (!algorithm.isRsa() && !algorithm.isEllipticCurve()) {
+            throw new IllegalArgumentException("JWT key " + jwtKey.getId() + " must use an asymmetric algorithm, not " + algorithm);
+        }
+        return algorithm;
+    }
+
+    private static KeyFactory keyFactory(SignatureAlgorithm algorithm) {
+        try {
+            return KeyFactory.getInstance(algorithm.getFamilyName().equals("ECDSA") ? "EC" : "RSA");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("No key factory for " + algorithm, e);
+        }
+    }
+
+    private static byte[] decode(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("JWT key material is missing");
+        }
+        // Accept both raw Base64 and PEM-encoded keys
+        return Decoders.BASE64.decode(key.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", ""));
+    }
+
+    private static <K extends Key> K generate(String keyId, KeyGenerator<K> generator) {
+        try {
+            return generator.generate();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid JWT key " + keyId, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface KeyGenerator<K extends Key> {
+        K generate() throws GeneralSecurityException;
+    }
+
+    private static final class VerificationKey {
+
+        private final SignatureAlgorithm algorithm;
+
+        private final PublicKey publicKey;
+
+        private VerificationKey(SignatureAlgorithm algorithm, PublicKey publicKey) {
+            this.algorithm = algorithm;
+            this.publicKey = publicKey;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.vazh.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.management.SecurityMetersService;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Bounded cache of already verified tokens, keyed by a SHA-256 digest of the token.
+ * <p>
+ * Each entry lives until the expiration date of its token, so a cached token is never accepted once expired.
+ */
+class TokenAuthenticationCache {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Cache<ByteBuffer, Entry> cache;
+
+    private final SecurityMetersService securityMetersService;
+
+    TokenAuthenticationCache(ApplicationProperties.Security.TokenCache properties, SecurityMetersService securityMetersService) {
+        this.securityMetersService = securityMetersService;
+        if (properties.isEnabled()) {
+            this.cache =
+                Caffeine
+                    .newBuilder()
+                    .maximumSize(properties.getMaxSize())
+                    .expireAfter(new TokenExpiry())
+                    .executor(Runnable::run)
+                    .<ByteBuffer, Entry>removalListener((key, value, cause) -> {
+                        if (cause.wasEvicted()) {
+                            securityMetersService.trackTokenCacheEviction();
+                        }
+                    })
+                    .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Returns a new {@link Authentication} for a previously verified token.
+     *
+     * @param token the JWT.
+     * @return the authentication, or {@code null} if the token is not cached.
+     */
+    Authentication get(String token) {
+        if (cache == null) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(digest(token));
+        if (entry == null) {
+            securityMetersService.trackTokenCacheMiss();
+            return null;
+        }
+        securityMetersService.trackTokenCacheHit();
+        return new UsernamePasswordAuthenticationToken(entry.principal, token, entry.authorities);
+    }
+
+    /**
+     * Stores the principal of a verified token until its expiration.
+     *
+     * @param token the JWT.
+     * @param principal the principal built from the token claims.
+     * @param authorities the authorities built from the token claims.
+     * @param expirationTimeMillis the expiration date of the token, in milliseconds since the epoch.
+     */
+    void put(String token, User principal, Collection<? extends GrantedAuthority> authorities, long expirationTimeMillis) {
+        if (cache != null) {
+            cache.put(digest(token), new Entry(principal, authorities, expirationTimeMillis));
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final User principal;
+
+        private final Collection<? extends GrantedAuthority> authorities;
+
+        private final long expirationTimeMillis;
+
+        private Entry(User principal, Collection<? extends GrantedAuthority> authorities, long expirationTimeMillis) {
+            this.principal = principal;
+            this.authorities = authorities;
+            this.expirationTimeMillis = expirationTimeMillis;
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<ByteBuffer, Entry> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Entry value, long currentTime) {
+            long remainingMillis = value.expirationTimeMillis - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Entry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.vazh.security.jwt;
 
+import io.github.vazh.config.ApplicationProperties;
 import io.github.vazh.management.SecurityMetersService;
+import io.github.vazh.security.GrantedAuthorityRegistry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -14,7 +16,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
@@ -31,6 +32,8 @@ public class TokenProvider {
 
     private final Key key;
 
+    private final JwtKeySet keySet;
+
     private final JwtParser jwtParser;
 
     private final long tokenValidityInMilliseconds;
@@ -39,7 +42,15 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+
+    private final GrantedAuthorityRegistry grantedAuthorityRegistry = new GrantedAuthorityRegistry();
+
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService
+    ) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -54,12 +65,20 @@ public class TokenProvider {
             keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         }
         key = Keys.hmacShaKeyFor(keyBytes);
-        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        keySet = JwtKeySet.of(applicationProperties.getSecurity().getJwt(), key);
+        if (keySet != null) {
+            log.debug("Signing JWTs with the {} key {}", keySet.getSigningAlgorithm(), keySet.getSigningKeyId());
+            jwtParser = Jwts.parserBuilder().setSigningKeyResolver(keySet).build();
+        } else {
+            jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        }
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.tokenAuthenticationCache =
+            new TokenAuthenticationCache(applicationProperties.getSecurity().getTokenCache(), securityMetersService);
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -73,54 +92,154 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts
+        JwtBuilder builder = Jwts
             .builder()
             .setSubject(authentication.getName())
             .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
-            .setExpiration(validity)
-            .compact();
+            .setExpiration(validity);
+        if (keySet != null) {
+            builder
+                .setHeaderParam(JwsHeader.KEY_ID, keySet.getSigningKeyId())
+                .signWith(keySet.getSigningKey(), keySet.getSigningAlgorithm());
+        } else {
+            builder.signWith(key, SignatureAlgorithm.HS512);
+        }
+        return builder.compact();
     }
 
     public Authentication getAuthentication(String token) {
         Claims claims = jwtParser.parseClaimsJws(token).getBody();
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+        Collection<? extends GrantedAuthority> authorities = getAuthorities(claims);
 
         User principal = new User(claims.getSubject(), "", authorities);
 
         return new UsernamePasswordAuthenticationToken(principal, token, authorities);
     }
 
-    public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
+    /**
+     * Validates the token and returns its {@link Authentication}.
+     * <p>
+     * A token which has already been verified is served from the token cache, without checking its signature nor
+     * parsing its claims again.
+     *
+     * @param token the JWT.
+     * @return the authentication, or an empty {@link Optional} if the token is not valid.
+     */
+    public Optional<Authentication> resolveAuthentication(String token) {
+        Authentication cachedAuthentication = tokenAuthenticationCache.get(token);
+        if (cachedAuthentication != null) {
+            return Optional.of(cachedAuthentication);
+        }
+        TokenValidationResult validation = validate(token);
+        if (!validation.isValid()) {
+            return Optional.empty();
+        }
+        Claims claims = validation.getClaims();
+
+        Collection<? extends GrantedAuthority> authorities = getAuthorities(claims);
 
-            return true;
-        } catch (ExpiredJwtException e) {
-            this.securityMetersService.trackTokenExpired();
+        User principal = new User(claims.getSubject(), "", authorities);
+
+        if (claims.getExpiration() != null) {
+            tokenAuthenticationCache.put(token, principal, authorities, claims.getExpiration().getTime());
+        }
+        return Optional.of(new UsernamePasswordAuthenticationToken(principal, token, authorities));
+    }
 
-            log.trace(INVALID_JWT_TOKEN, e);
-        } catch (UnsupportedJwtException e) {
-            this.securityMetersService.trackTokenUnsupported();
+    public boolean validateToken(String authToken) {
+        return validate(authToken).isValid();
+    }
 
-            log.trace(INVALID_JWT_TOKEN, e);
-        } catch (MalformedJwtException e) {
-            this.securityMetersService.trackTokenMalformed();
+    /**
+     * Validates the token, parsing and verifying it at most once.
+     * <p>
+     * Tokens which are obviously not a signed JWT (wrong number of segments, characters outside of the Base64URL
+     * alphabet) are rejected before reaching the JWT parser, so that floods of garbage tokens do not pay for exceptions.
+     *
+     * @param authToken the JWT.
+     * @return the verified claims, or the cause of the rejection.
+     */
+    public TokenValidationResult validate(String authToken) {
+        TokenValidationResult.Failure failure = checkCompactForm(authToken);
+        if (failure == null) {
+            try {
+                return TokenValidationResult.valid(jwtParser.parseClaimsJws(authToken).getBody());
+            } catch (ExpiredJwtException e) {
+                failure = TokenValidationResult.Failure.EXPIRED;
+                log.trace(INVALID_JWT_TOKEN, e);
+            } catch (UnsupportedJwtException e) {
+                failure = TokenValidationResult.Failure.UNSUPPORTED;
+                log.trace(INVALID_JWT_TOKEN, e);
+            } catch (MalformedJwtException e) {
+                failure = TokenValidationResult.Failure.MALFORMED;
+                log.trace(INVALID_JWT_TOKEN, e);
+            } catch (SignatureException e) {
+                failure = TokenValidationResult.Failure.INVALID_SIGNATURE;
+                log.trace(INVALID_JWT_TOKEN, e);
+            } catch (IllegalArgumentException e) { // TODO: should we let it bubble (no catch), to avoid defensive programming and follow the fail-fast principle?
+                failure = TokenValidationResult.Failure.INVALID;
+                log.error("Token validation error {}", e.getMessage());
+            }
+        } else {
+            log.trace("{} Rejected as {} before parsing.", INVALID_JWT_TOKEN, failure);
+        }
+        trackFailure(failure);
+        return TokenValidationResult.invalid(failure);
+    }
 
-            log.trace(INVALID_JWT_TOKEN, e);
-        } catch (SignatureException e) {
-            this.securityMetersService.trackTokenInvalidSignature();
+    private void trackFailure(TokenValidationResult.Failure failure) {
+        switch (failure) {
+            case EXPIRED:
+                this.securityMetersService.trackTokenExpired();
+                break;
+            case UNSUPPORTED:
+                this.securityMetersService.trackTokenUnsupported();
+                break;
+            case MALFORMED:
+                this.securityMetersService.trackTokenMalformed();
+                break;
+            case INVALID_SIGNATURE:
+                this.securityMetersService.trackTokenInvalidSignature();
+                break;
+            default:
+                break;
+        }
+    }
 
-            log.trace(INVALID_JWT_TOKEN, e);
-        } catch (IllegalArgumentException e) { // TODO: should we let it bubble (no catch), to avoid defensive programming and follow the fail-fast principle?
-            log.error("Token validation error {}", e.getMessage());
+    /**
+     * Cheap structural checks of a compact JWS: three non-empty Base64URL segments separated by periods.
+     *
+     * @param token the JWT.
+     * @return the cause of the rejection, or {@code null} if the token has to be parsed.
+     */
+    private static TokenValidationResult.Failure checkCompactForm(String token) {
+        if (token == null || token.isEmpty()) {
+            return TokenValidationResult.Failure.INVALID;
+        }
+        int firstPeriod = token.indexOf('.');
+        int secondPeriod = firstPeriod < 0 ? -1 : token.indexOf('.', firstPeriod + 1);
+        if (secondPeriod < 0 || token.indexOf('.', secondPeriod + 1) >= 0 || firstPeriod == 0 || secondPeriod == firstPeriod + 1) {
+            return TokenValidationResult.Failure.MALFORMED;
+        }
+        if (secondPeriod == token.length() - 1) {
+            // An unsigned JWT, which is never accepted
+            return TokenValidationResult.Failure.UNSUPPORTED;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c != '.' && !isBase64UrlCharacter(c)) {
+                return TokenValidationResult.Failure.MALFORMED;
+            }
         }
+        return null;
+    }
+
+    private static boolean isBase64UrlCharacter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
 
-        return false;
+    private Collection<? extends GrantedAuthority> getAuthorities(Claims claims) {
+        return grantedAuthorityRegistry.fromCommaSeparatedNames(claims.get(AUTHORITIES_KEY).toString());
     }
 }
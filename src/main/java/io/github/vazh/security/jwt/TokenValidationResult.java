@@ -0,0 +1,65 @@
+package io.github.vazh.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import java.util.Objects;
+
+/**
+ * Outcome of the validation of a JWT: either the verified claims, or the cause of the rejection.
+ */
+public final class TokenValidationResult {
+
+    /**
+     * Causes for which a token is rejected.
+     */
+    public enum Failure {
+        EXPIRED,
+        UNSUPPORTED,
+        MALFORMED,
+        INVALID_SIGNATURE,
+        INVALID,
+    }
+
+    private final Claims claims;
+
+    private final Failure failure;
+
+    private TokenValidationResult(Claims claims, Failure failure) {
+        this.claims = claims;
+        this.failure = failure;
+    }
+
+    public static TokenValidationResult valid(Claims claims) {
+        return new TokenValidationResult(Objects.requireNonNull(claims), null);
+    }
+
+    public static TokenValidationResult invalid(Failure failure) {
+        return new TokenValidationResult(null, Objects.requireNonNull(failure));
+    }
+
+    public boolean isValid() {
+        return claims != null;
+    }
+
+    /**
+     * @return the verified claims, or {@code null} if the token is not valid.
+     */
+    public Claims getClaims() {
+        return claims;
+    }
+
+    /**
+     * @return the cause of the rejection, or {@code null} if the token is valid.
+     */
+    public Failure getFailure() {
+        return failure;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TokenValidationResult{" +
+            "valid=" + isValid() +
+            ", failure=" + failure +
+            "}";
+    }
+}
@@ -0,0 +1,287 @@
+package io.github.vazh.service;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.management.MailMetersService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for delivering emails from a bounded, prioritized queue.
+ * <p>
+ * Queued emails are sent by a single task of the mail executor, which is started when the first email is queued and runs
+ * until the queue is empty: emails are taken by batches, highest priority first, and each batch is sent over a single SMTP
+ * connection. The emails which failed are queued again after an exponential backoff, until the maximum number of attempts.
+ * When the queue is full, the {@link ApplicationProperties.MailQueue.OverflowPolicy} decides which email is lost.
+ */
+@Service
+public class MailDispatcher implements DisposableBean {
+
+    /**
+     * The priority of an email: emails of a higher priority are sent first, and are the last to be dropped.
+     */
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW,
+    }
+
+    private final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private final JavaMailSender javaMailSender;
+
+    private final Executor executor;
+
+    private final MailMetersService mailMetersService;
+
+    private final ApplicationProperties.MailQueue properties;
+
+    private final TreeSet<QueuedMail> queue = new TreeSet<>(
+        Comparator.comparing((QueuedMail mail) -> mail.priority).thenComparingLong(mail -> mail.sequence)
+    );
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final ScheduledExecutorService retryScheduler;
+
+    public MailDispatcher(
+        JavaMailSender javaMailSender,
+        @Qualifier("mailTaskExecutor") Executor executor,
+        MailMetersService mailMetersService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.javaMailSender = javaMailSender;
+        this.executor = executor;
+        this.mailMetersService = mailMetersService;
+        this.properties = applicationProperties.getMailQueue();
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("mail-retry-"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.retryScheduler = scheduler;
+        mailMetersService.registerQueueDepth(this::size);
+    }
+
+    /**
+     * Queues an email.
+     *
+     * @param priority the priority of the email.
+     * @param to the recipient of the email, for the logs.
+     * @param preparator prepares the message, before each attempt to send it.
+     * @return {@code true} if the email is queued, {@code false} if it is rejected because the queue is full.
+     */
+    public boolean dispatch(Priority priority, String to, MimeMessagePreparator preparator) {
+        return offer(new QueuedMail(priority, to, preparator, System.nanoTime()));
+    }
+
+    /**
+     * @return the number of queued emails.
+     */
+    public int size() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    private boolean offer(QueuedMail mail) {
+        mail.sequence = sequence.incrementAndGet();
+        QueuedMail dropped = null;
+        boolean queued = true;
+        synchronized (queue) {
+            if (queue.size() >= properties.getCapacity()) {
+                if (
+                    properties.getOverflowPolicy() == ApplicationProperties.MailQueue.OverflowPolicy.DROP_LOWEST_PRIORITY &&
+                    queue.last().priority.compareTo(mail.priority) > 0
+                ) {
+                    dropped = queue.pollLast();
+                } else {
+                    queued = false;
+                }
+            }
+            if (queued) {
+                queue.add(mail);
+            }
+        }
+        if (dropped != null) {
+            log.warn("Mail queue is full, email to '{}' is dropped for an email of a higher priority", dropped.to);
+            mailMetersService.trackDropped();
+        }
+        if (!queued) {
+            log.warn("Mail queue is full, email to '{}' is rejected", mail.to);
+            mailMetersService.trackRejected();
+            return false;
+        }
+        startDraining();
+        return true;
+    }
+
+    private void startDraining() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                log.warn("Mail queue could not be drained: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            List<QueuedMail> batch;
+            while (!(batch = poll()).isEmpty()) {
+                send(batch);
+            }
+        } finally {
+            draining.set(false);
+        }
+        // An email may have been queued after the last poll, while this task was still draining
+        if (size() > 0) {
+            startDraining();
+        }
+    }
+
+    private List<QueuedMail> poll() {
+        List<QueuedMail> batch = new ArrayList<>();
+        synchronized (queue) {
+            while (batch.size() < properties.getBatchSize() && !queue.isEmpty()) {
+                batch.add(queue.pollFirst());
+            }
+        }
+        return batch;
+    }
+
+    private void send(List<QueuedMail> batch) {
+        Map<MimeMessage, QueuedMail> messages = new IdentityHashMap<>();
+        List<MimeMessage> prepared = new ArrayList<>();
+        for (QueuedMail mail : batch) {
+            MimeMessage message = javaMailSender.createMimeMessage();
+            try {
+                mail.preparator.prepare(message);
+                messages.put(message, mail);
+                prepared.add(message);
+            } catch (Exception e) {
+                log.warn("Email could not be prepared for user '{}'", mail.to, e);
+                mailMetersService.trackAbandoned();
+            }
+        }
+        if (prepared.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<Object, Exception> failures = send(javaMailSender, prepared);
+        long end = System.nanoTime();
+        mailMetersService.trackSend(end - start);
+        for (MimeMessage message : prepared) {
+            QueuedMail mail = messages.get(message);
+            Exception failure = failures.get(message);
+            if (failure == null) {
+                log.debug("Sent email to User '{}'", mail.to);
+                mailMetersService.trackDelivery(end - mail.queuedAt);
+            } else {
+                retry(mail, failure);
+            }
+        }
+    }
+
+    private void retry(QueuedMail mail, Exception failure) {
+        mail.attempts++;
+        if (mail.attempts >= properties.getMaxAttempts()) {
+            log.warn("Email could not be sent to user '{}' after {} attempts", mail.to, mail.attempts, failure);
+            mailMetersService.trackAbandoned();
+            return;
+        }
+        Duration backoff = backoff(properties, mail.attempts);
+        log.info("Email could not be sent to user '{}', retrying in {}: {}", mail.to, backoff, failure.getMessage());
+        mailMetersService.trackRetried();
+        try {
+            retryScheduler.schedule(() -> offer(mail), backoff.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("Email to user '{}' is abandoned on shutdown", mail.to);
+            mailMetersService.trackAbandoned();
+        }
+    }
+
+    /**
+     * @return the delay before the next attempt to send an email which failed {@code attempts} times.
+     */
+    static Duration backoff(ApplicationProperties.MailQueue properties, int attempts) {
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+
+    /**
+     * Sends messages over a single SMTP connection.
+     *
+     * @return the messages which could not be sent, with their failure.
+     */
+    static Map<Object, Exception> send(JavaMailSender javaMailSender, List<MimeMessage> messages) {
+        try {
+            javaMailSender.send(messages.toArray(new MimeMessage[0]));
+            return Map.of();
+        } catch (MailSendException e) {
+            return e.getFailedMessages().isEmpty() ? allFailed(messages, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            return allFailed(messages, e);
+        }
+    }
+
+    private static Map<Object, Exception> allFailed(List<MimeMessage> messages, Exception failure) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.forEach(message -> failures.put(message, failure));
+        return failures;
+    }
+
+    @Override
+    public void destroy() {
+        retryScheduler.shutdownNow();
+        int abandoned = size();
+        if (abandoned > 0) {
+            log.warn("{} queued emails are abandoned on shutdown", abandoned);
+        }
+    }
+
+    private static final class QueuedMail {
+
+        private final Priority priority;
+
+        private final String to;
+
+        private final MimeMessagePreparator preparator;
+
+        private final long queuedAt;
+
+        private long sequence;
+
+        private int attempts;
+
+        private QueuedMail(Priority priority, String to, MimeMessagePreparator preparator, long queuedAt) {
+            this.priority = priority;
+            this.to = to;
+            this.preparator = preparator;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
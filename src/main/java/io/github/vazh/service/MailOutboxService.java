@@ -0,0 +1,170 @@
+package io.github.vazh.service;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.domain.MailOutboxEntry;
+import io.github.vazh.domain.User;
+import io.github.vazh.management.MailMetersService;
+import io.github.vazh.repository.MailOutboxRepository;
+import io.github.vazh.repository.UserRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for the mail outbox, where emails are written in the transaction which creates their content: they are sent
+ * once the transaction commits, even if this instance of the application stops, and are not sent if it rolls back.
+ * <p>
+ * Every instance polls the outbox and sends the emails it could lock by batches over a single SMTP connection, while
+ * holding the locks: the emails which were sent are deleted when the transaction commits, and are sent again by another
+ * instance should this one stop before.
+ */
+@Service
+@Transactional
+public class MailOutboxService {
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxService.class);
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    private final UserRepository userRepository;
+
+    private final MailService mailService;
+
+    private final JavaMailSender javaMailSender;
+
+    private final MailMetersService mailMetersService;
+
+    private final ApplicationProperties.MailQueue properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public MailOutboxService(
+        MailOutboxRepository mailOutboxRepository,
+        UserRepository userRepository,
+        MailService mailService,
+        JavaMailSender javaMailSender,
+        MailMetersService mailMetersService,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.userRepository = userRepository;
+        this.mailService = mailService;
+        this.javaMailSender = javaMailSender;
+        this.mailMetersService = mailMetersService;
+        this.properties = applicationProperties.getMailQueue();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void enqueueActivationEmail(User user) {
+        log.debug("Writing activation email to '{}' to the mail outbox", user.getEmail());
+        enqueue(user, MailService.ACTIVATION_TEMPLATE, MailService.ACTIVATION_TITLE_KEY, MailDispatcher.Priority.NORMAL);
+    }
+
+    public void enqueuePasswordResetMail(User user) {
+        log.debug("Writing password reset email to '{}' to the mail outbox", user.getEmail());
+        enqueue(user, MailService.PASSWORD_RESET_TEMPLATE, MailService.PASSWORD_RESET_TITLE_KEY, MailDispatcher.Priority.HIGH);
+    }
+
+    private void enqueue(User user, String templateName, String titleKey, MailDispatcher.Priority priority) {
+        if (user.getEmail() == null) {
+            log.debug("Email doesn't exist for user '{}'", user.getLogin());
+            return;
+        }
+        Instant now = Instant.now();
+        MailOutboxEntry entry = new MailOutboxEntry();
+        entry.setUser(user);
+        entry.setTemplate(templateName);
+        entry.setTitleKey(titleKey);
+        entry.setPriority(priority.ordinal());
+        entry.setNextAttemptDate(now);
+        entry.setCreatedDate(now);
+        mailOutboxRepository.save(entry);
+    }
+
+    /**
+     * Sends the emails of the outbox which are due, by batches, each in its own transaction.
+     * <p>
+     * This is scheduled to run every {@code application.mail-queue.outbox-poll-interval} on every instance.
+     */
+    @Scheduled(fixedDelayString = "${application.mail-queue.outbox-poll-interval:PT1S}")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void sendOutbox() {
+        int batchSize = properties.getBatchSize();
+        int locked;
+        do {
+            locked = transactionTemplate.execute(status -> sendNextBatch(batchSize));
+        } while (locked == batchSize);
+    }
+
+    private int sendNextBatch(int batchSize) {
+        List<MailOutboxEntry> entries = mailOutboxRepository.lockNextToSend(Instant.now(), batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        // Loads the users of the batch into the persistence context in a single query, rather than one by one
+        userRepository.findAllById(entries.stream().map(entry -> entry.getUser().getId()).collect(Collectors.toSet()));
+        Map<MimeMessage, MailOutboxEntry> messages = new IdentityHashMap<>();
+        List<MimeMessage> prepared = new ArrayList<>();
+        for (MailOutboxEntry entry : entries) {
+            MimeMessage message = javaMailSender.createMimeMessage();
+            try {
+                mailService.templateMessage(entry.getUser(), entry.getTemplate(), entry.getTitleKey()).prepare(message);
+                messages.put(message, entry);
+                prepared.add(message);
+            } catch (Exception e) {
+                log.warn("Email could not be prepared for user '{}'", entry.getUser().getLogin(), e);
+                mailMetersService.trackAbandoned();
+                mailOutboxRepository.delete(entry);
+            }
+        }
+        if (prepared.isEmpty()) {
+            return entries.size();
+        }
+        long start = System.nanoTime();
+        Map<Object, Exception> failures = MailDispatcher.send(javaMailSender, prepared);
+        long end = System.nanoTime();
+        mailMetersService.trackSend(end - start);
+        Instant now = Instant.now();
+        for (MimeMessage message : prepared) {
+            MailOutboxEntry entry = messages.get(message);
+            Exception failure = failures.get(message);
+            if (failure == null) {
+                log.debug("Sent email to User '{}'", entry.getUser().getLogin());
+                mailMetersService.trackDelivery(Duration.between(entry.getCreatedDate(), now).toNanos());
+                mailOutboxRepository.delete(entry);
+            } else {
+                retry(entry, failure, now);
+            }
+        }
+        return entries.size();
+    }
+
+    private void retry(MailOutboxEntry entry, Exception failure, Instant now) {
+        entry.setAttempts(entry.getAttempts() + 1);
+        if (entry.getAttempts() >= properties.getMaxAttempts()) {
+            log.warn("Email could not be sent to user '{}' after {} attempts", entry.getUser().getLogin(), entry.getAttempts(), failure);
+            mailMetersService.trackAbandoned();
+            mailOutboxRepository.delete(entry);
+            return;
+        }
+        Duration backoff = MailDispatcher.backoff(properties, entry.getAttempts());
+        log.info("Email could not be sent to user '{}', retrying in {}: {}", entry.getUser().getLogin(), backoff, failure.getMessage());
+        mailMetersService.trackRetried();
+        entry.setNextAttemptDate(now.plus(backoff));
+    }
+}
@@ -2,57 +2,50 @@ package io.github.vazh.service;
 
 import io.github.vazh.domain.User;
 import java.nio.charset.StandardCharsets;
-import java.util.Locale;
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.mail.javamail.MimeMessagePreparator;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring5.SpringTemplateEngine;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * Emails are queued on the {@link MailDispatcher}, which prepares and sends them asynchronously. Activation and password
+ * reset emails go through the {@link MailOutboxService} instead, so that they are not lost with the queue.
  */
 @Service
 public class MailService {
 
     private final Logger log = LoggerFactory.getLogger(MailService.class);
 
-    private static final String USER = "user";
+    static final String ACTIVATION_TEMPLATE = "mail/activationEmail";
 
-    private static final String BASE_URL = "baseUrl";
+    static final String ACTIVATION_TITLE_KEY = "email.activation.title";
 
-    private final JHipsterProperties jHipsterProperties;
+    static final String PASSWORD_RESET_TEMPLATE = "mail/passwordResetEmail";
+
+    static final String PASSWORD_RESET_TITLE_KEY = "email.reset.title";
 
-    private final JavaMailSender javaMailSender;
+    private final JHipsterProperties jHipsterProperties;
 
-    private final MessageSource messageSource;
+    private final MailDispatcher mailDispatcher;
 
-    private final SpringTemplateEngine templateEngine;
+    private final MailTemplateRenderer mailTemplateRenderer;
 
-    public MailService(
-        JHipsterProperties jHipsterProperties,
-        JavaMailSender javaMailSender,
-        MessageSource messageSource,
-        SpringTemplateEngine templateEngine
-    ) {
+    public MailService(JHipsterProperties jHipsterProperties, MailDispatcher mailDispatcher, MailTemplateRenderer mailTemplateRenderer) {
         this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
-        this.messageSource = messageSource;
-        this.templateEngine = templateEngine;
+        this.mailDispatcher = mailDispatcher;
+        this.mailTemplateRenderer = mailTemplateRenderer;
     }
 
-    @Async
-    public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+    /**
+     * @return {@code true} if the email has been queued, {@code false} if the mail queue is full.
+     */
+    public boolean sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         log.debug(
             "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart,
@@ -61,52 +54,67 @@ public class MailService {
             subject,
             content
         );
-
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            log.warn("Email could not be sent to user '{}'", to, e);
+        boolean queued = mailDispatcher.dispatch(
+            MailDispatcher.Priority.NORMAL,
+            to,
+            mimeMessage -> prepareMessage(mimeMessage, to, subject, content, isMultipart, isHtml)
+        );
+        if (!queued) {
+            log.warn("Email to '{}' with subject '{}' is not sent: the mail queue is full", to, subject);
         }
+        return queued;
+    }
+
+    /**
+     * @return {@code true} if the email has been queued, {@code false} if the user has no email or the mail queue is full.
+     */
+    public boolean sendEmailFromTemplate(User user, String templateName, String titleKey) {
+        return sendEmailFromTemplate(user, templateName, titleKey, MailDispatcher.Priority.NORMAL);
     }
 
-    @Async
-    public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
+    /**
+     * @return {@code true} if the email has been queued, {@code false} if the user has no email or the mail queue is full.
+     */
+    public boolean sendCreationEmail(User user) {
+        log.debug("Sending creation email to '{}'", user.getEmail());
+        return sendEmailFromTemplate(user, "mail/creationEmail", ACTIVATION_TITLE_KEY, MailDispatcher.Priority.LOW);
+    }
+
+    private boolean sendEmailFromTemplate(User user, String templateName, String titleKey, MailDispatcher.Priority priority) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
-            return;
+            return false;
         }
-        Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
-    }
-
-    @Async
-    public void sendActivationEmail(User user) {
-        log.debug("Sending activation email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
+        // The template is rendered when the email is sent, out of the request
+        boolean queued = mailDispatcher.dispatch(priority, user.getEmail(), templateMessage(user, templateName, titleKey));
+        if (!queued) {
+            log.warn("Email '{}' to user '{}' is not sent: the mail queue is full", templateName, user.getLogin());
+        }
+        return queued;
     }
 
-    @Async
-    public void sendCreationEmail(User user) {
-        log.debug("Sending creation email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
+    /**
+     * @return a preparator rendering the template in the language of the user, and addressing the message to the user.
+     */
+    MimeMessagePreparator templateMessage(User user, String templateName, String titleKey) {
+        return mimeMessage -> {
+            MailTemplateRenderer.RenderedMail mail = mailTemplateRenderer.render(user, templateName, titleKey);
+            prepareMessage(mimeMessage, user.getEmail(), mail.getSubject(), mail.getContent(), false, true);
+        };
     }
 
-    @Async
-    public void sendPasswordResetMail(User user) {
-        log.debug("Sending password reset email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
+    private void prepareMessage(
+        MimeMessage mimeMessage,
+        String to,
+        String subject,
+        String content,
+        boolean isMultipart,
+        boolean isHtml
+    ) throws MessagingException {
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
+        message.setTo(to);
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(subject);
+        message.setText(content, isHtml);
     }
 }
@@ -0,0 +1,254 @@
+package io.github.vazh.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.vazh.domain.User;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service for rendering the mail templates in the language of a user.
+ * <p>
+ * Each template is rendered once per locale, for placeholder users whose text properties are markers, and the rendered
+ * email is split around the markers: an email is then the static parts of its template and locale, with the escaped
+ * properties of its user in between. A template is only cached when a user with characters to escape renders the same
+ * as with Thymeleaf, which excludes the templates whose output depends on the user otherwise than by printing its text
+ * properties, such as conditions or formatting: these templates, and the users with a printed property which is
+ * {@code null}, are rendered by Thymeleaf each time.
+ * <p>
+ * Nothing is cached when the Thymeleaf cache is disabled, so that the templates can be edited in development.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private static final int MAX_CACHED_TEMPLATES = 256;
+
+    private static final List<UserField> FIELDS = List.of(
+        new UserField(User::getLogin, User::setLogin),
+        new UserField(User::getFirstName, User::setFirstName),
+        new UserField(User::getLastName, User::setLastName),
+        new UserField(User::getEmail, User::setEmail),
+        new UserField(User::getImageUrl, User::setImageUrl),
+        new UserField(User::getActivationKey, User::setActivationKey),
+        new UserField(User::getResetKey, User::setResetKey)
+    );
+
+    private static final Pattern MARKER = Pattern.compile("mailfield(\\d+)x([ab])x");
+
+    private final Logger log = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final MessageSource messageSource;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final Cache<String, Optional<CompiledTemplate>> compiledTemplates;
+
+    public MailTemplateRenderer(
+        JHipsterProperties jHipsterProperties,
+        MessageSource messageSource,
+        SpringTemplateEngine templateEngine,
+        ThymeleafProperties thymeleafProperties
+    ) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.messageSource = messageSource;
+        this.templateEngine = templateEngine;
+        this.compiledTemplates = thymeleafProperties.isCache() ? Caffeine.newBuilder().maximumSize(MAX_CACHED_TEMPLATES).build() : null;
+    }
+
+    /**
+     * Renders an email for a user, in the language of the user.
+     *
+     * @param user the user.
+     * @param templateName the name of the template of the content.
+     * @param titleKey the message key of the subject.
+     * @return the rendered email.
+     */
+    public RenderedMail render(User user, String templateName, String titleKey) {
+        Locale locale = Locale.forLanguageTag(user.getLangKey());
+        if (compiledTemplates != null) {
+            Optional<CompiledTemplate> compiled = compiledTemplates.get(
+                templateName + '|' + titleKey + '|' + locale.toLanguageTag(),
+                key -> compile(templateName, titleKey, locale)
+            );
+            if (compiled.isPresent() && compiled.get().accepts(user)) {
+                return compiled.get().fill(user);
+            }
+        }
+        return new RenderedMail(messageSource.getMessage(titleKey, null, locale), process(templateName, locale, user));
+    }
+
+    private String process(String templateName, Locale locale, User user) {
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
+    }
+
+    private Optional<CompiledTemplate> compile(String templateName, String titleKey, Locale locale) {
+        String subject = messageSource.getMessage(titleKey, null, locale);
+        CompiledTemplate compiled = split(subject, process(templateName, locale, placeholderUser('a')), 'a');
+        CompiledTemplate other = split(subject, process(templateName, locale, placeholderUser('b')), 'b');
+        User probe = probeUser();
+        if (compiled == null || !compiled.equals(other) || !compiled.fill(probe).content.equals(process(templateName, locale, probe))) {
+            log.info("Mail template '{}' depends on its user otherwise than by printing it, it is rendered for each email", templateName);
+            return Optional.empty();
+        }
+        log.debug("Compiled mail template '{}' for locale '{}' into {} parts", templateName, locale, compiled.parts.size());
+        return Optional.of(compiled);
+    }
+
+    private static CompiledTemplate split(String subject, String content, char variant) {
+        List<String> parts = new ArrayList<>();
+        List<Integer> fields = new ArrayList<>();
+        Matcher matcher = MARKER.matcher(content);
+        int start = 0;
+        while (matcher.find()) {
+            if (matcher.group(2).charAt(0) != variant) {
+                return null;
+            }
+            parts.add(content.substring(start, matcher.start()));
+            fields.add(Integer.parseInt(matcher.group(1)));
+            start = matcher.end();
+        }
+        parts.add(content.substring(start));
+        return new CompiledTemplate(subject, parts, fields);
+    }
+
+    /**
+     * @return a user whose text properties are markers, and whose other properties depend on the variant, so that a
+     * template printing them renders differently for each variant.
+     */
+    private static User placeholderUser(char variant) {
+        User user = new User();
+        for (int i = 0; i < FIELDS.size(); i++) {
+            FIELDS.get(i).setter.accept(user, "mailfield" + i + 'x' + variant + 'x');
+        }
+        boolean first = variant == 'a';
+        user.setId(first ? 1L : 2L);
+        user.setActivated(first);
+        user.setResetDate(first ? Instant.EPOCH : Instant.EPOCH.plusSeconds(86_400));
+        user.setCreatedDate(user.getResetDate());
+        user.setLastModifiedDate(user.getResetDate());
+        user.setCreatedBy(first ? "a" : "b");
+        user.setLastModifiedBy(user.getCreatedBy());
+        return user;
+    }
+
+    /**
+     * @return a user whose text properties have characters to escape.
+     */
+    private static User probeUser() {
+        User user = placeholderUser('a');
+        for (int i = 0; i < FIELDS.size(); i++) {
+            FIELDS.get(i).setter.accept(user, "<p" + i + " a='1' b=\"2\">&amp;");
+        }
+        return user;
+    }
+
+    /**
+     * The subject and content of an email.
+     */
+    public static final class RenderedMail {
+
+        private final String subject;
+
+        private final String content;
+
+        RenderedMail(String subject, String content) {
+            this.subject = subject;
+            this.content = content;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getContent() {
+            return content;
+        }
+    }
+
+    private static final class CompiledTemplate {
+
+        private final String subject;
+
+        private final List<String> parts;
+
+        private final List<Integer> fields;
+
+        private final int length;
+
+        private CompiledTemplate(String subject, List<String> parts, List<Integer> fields) {
+            this.subject = subject;
+            this.parts = parts;
+            this.fields = fields;
+            this.length = parts.stream().mapToInt(String::length).sum();
+        }
+
+        private boolean accepts(User user) {
+            for (int field : fields) {
+                if (FIELDS.get(field).getter.apply(user) == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private RenderedMail fill(User user) {
+            StringBuilder content = new StringBuilder(length + fields.size() * 32);
+            for (int i = 0; i < fields.size(); i++) {
+                content.append(parts.get(i)).append(HtmlEscape.escapeHtml4Xml(FIELDS.get(fields.get(i)).getter.apply(user)));
+            }
+            content.append(parts.get(fields.size()));
+            return new RenderedMail(subject, content.toString());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CompiledTemplate)) {
+                return false;
+            }
+            CompiledTemplate other = (CompiledTemplate) o;
+            return parts.equals(other.parts) && fields.equals(other.fields);
+        }
+
+        @Override
+        public int hashCode() {
+            return parts.hashCode();
+        }
+    }
+
+    private static final class UserField {
+
+        private final Function<User, String> getter;
+
+        private final BiConsumer<User, String> setter;
+
+        private UserField(Function<User, String> getter, BiConsumer<User, String> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.vazh.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.repository.UserRepository;
+import io.github.vazh.service.dto.CountedPage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for counting the users of the paginated listings, without an exact {@code count(*)} over a large table.
+ * <p>
+ * The total is exact, without any query, when the page is the last one. Otherwise, the number of users is first
+ * estimated from the Postgres statistics, which is a single catalog lookup: below the exact threshold, the users are
+ * counted exactly. Above, the estimate is used for all users, and the number of activated users comes from a count
+ * which is refreshed in the background once older than the refresh delay, the previous count being used meanwhile.
+ */
+@Service
+public class UserCountService {
+
+    private final UserRepository userRepository;
+
+    private final long exactThreshold;
+
+    private final LoadingCache<Boolean, Long> activatedUserCount;
+
+    public UserCountService(UserRepository userRepository, ApplicationProperties applicationProperties) {
+        ApplicationProperties.UserCount properties = applicationProperties.getUserCount();
+        this.userRepository = userRepository;
+        this.exactThreshold = properties.getExactThreshold();
+        this.activatedUserCount =
+            Caffeine.newBuilder().maximumSize(1).refreshAfterWrite(properties.getRefreshAfter()).build(key -> countUsers(true));
+    }
+
+    /**
+     * Counts the users of a listing to create a page.
+     *
+     * @param slice the users of the page.
+     * @param activatedOnly {@code true} if the listing only has the activated users.
+     * @param <T> the type of the users.
+     * @return the page, with an exact or an estimated total.
+     */
+    public <T> CountedPage<T> toPage(Slice<T> slice, boolean activatedOnly) {
+        Pageable pageable = slice.getPageable();
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        long seen = offset + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || offset == 0)) {
+            return new CountedPage<>(slice.getContent(), pageable, seen, true);
+        }
+        long estimate = userRepository.estimateCount();
+        if (estimate < exactThreshold) {
+            return new CountedPage<>(slice.getContent(), pageable, countUsers(activatedOnly), true);
+        }
+        long total = activatedOnly ? activatedUserCount.get(Boolean.TRUE) : estimate;
+        // The estimate must not hide the pages which are known to exist
+        return new CountedPage<>(slice.getContent(), pageable, Math.max(total, slice.hasNext() ? seen + 1 : seen), false);
+    }
+
+    private long countUsers(boolean activatedOnly) {
+        return activatedOnly ? userRepository.countByActivatedIsTrue() : userRepository.count();
+    }
+}
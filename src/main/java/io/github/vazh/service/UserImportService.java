@@ -0,0 +1,239 @@
+package io.github.vazh.service;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.config.Constants;
+import io.github.vazh.domain.Authority;
+import io.github.vazh.domain.User;
+import io.github.vazh.repository.AuthorityRepository;
+import io.github.vazh.repository.UserCacheEvictor;
+import io.github.vazh.repository.UserRepository;
+import io.github.vazh.security.UnknownLoginCache;
+import io.github.vazh.service.dto.ImportedUserDTO;
+import io.github.vazh.service.dto.UserImportReportDTO;
+import io.github.vazh.service.dto.UserImportResultDTO;
+import io.github.vazh.service.dto.UserImportRow;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.security.RandomUtil;
+
+/**
+ * Service class for importing many users at once.
+ * <p>
+ * Rows are read as they are uploaded, and imported by batches: the users of a batch are validated, their logins and
+ * emails are checked against the existing users with one query each, their passwords are hashed in parallel, and they
+ * are inserted in a single transaction, with JDBC batching. Unlike {@link UserService#createUser}, no email is sent: the
+ * users without a password can choose one by resetting it.
+ */
+@Service
+public class UserImportService implements DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+
+    private final AuthorityRepository authorityRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final UserCacheEvictor userCacheEvictor;
+
+    private final UnknownLoginCache unknownLoginCache;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final ExecutorService hashingExecutor;
+
+    public UserImportService(
+        UserRepository userRepository,
+        AuthorityRepository authorityRepository,
+        PasswordEncoder passwordEncoder,
+        UserCacheEvictor userCacheEvictor,
+        UnknownLoginCache unknownLoginCache,
+        Validator validator,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.userRepository = userRepository;
+        this.authorityRepository = authorityRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userCacheEvictor = userCacheEvictor;
+        this.unknownLoginCache = unknownLoginCache;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = applicationProperties.getUserImport().getBatchSize();
+        // The password encoder has its own bounded pool: submitting from a few threads only keeps logins responsive
+        this.hashingExecutor =
+            Executors.newFixedThreadPool(
+                applicationProperties.getUserImport().getHashingParallelism(),
+                new CustomizableThreadFactory("user-import-hashing-")
+            );
+    }
+
+    /**
+     * Imports users.
+     *
+     * @param rows the rows to import, read as they are consumed.
+     * @return the report of the import, with the result of every row.
+     */
+    public UserImportReportDTO importUsers(Iterator<UserImportRow> rows) {
+        Map<String, Authority> authorities = authorityRepository
+            .findAll()
+            .stream()
+            .collect(Collectors.toMap(Authority::getName, Function.identity()));
+        UserImportReportDTO report = new UserImportReportDTO();
+        List<UserImportRow> batch = new ArrayList<>(batchSize);
+        while (rows.hasNext()) {
+            batch.add(rows.next());
+            if (batch.size() == batchSize || !rows.hasNext()) {
+                importBatch(batch, authorities).forEach(report::add);
+                batch.clear();
+            }
+        }
+        log.info("Imported {} users, rejected {} rows", report.getCreated(), report.getRejected());
+        return report;
+    }
+
+    private List<UserImportResultDTO> importBatch(List<UserImportRow> batch, Map<String, Authority> authorities) {
+        UserImportResultDTO[] results = new UserImportResultDTO[batch.size()];
+        List<Integer> valid = new ArrayList<>();
+        Set<String> logins = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            UserImportRow row = batch.get(i);
+            ImportedUserDTO user = row.getUser();
+            String error = row.getError() != null ? row.getError() : validate(user);
+            if (error != null) {
+                results[i] = result(row, UserImportResultDTO.Status.INVALID, error);
+                continue;
+            }
+            user.setLogin(user.getLogin().toLowerCase());
+            if (user.getEmail() != null) {
+                user.setEmail(user.getEmail().toLowerCase());
+            }
+            if (!logins.add(user.getLogin()) || (user.getEmail() != null && !emails.add(user.getEmail()))) {
+                results[i] = result(row, UserImportResultDTO.Status.DUPLICATE, "Login or email already used by a previous row");
+                continue;
+            }
+            valid.add(i);
+        }
+
+        Set<String> usedLogins = new HashSet<>();
+        if (!logins.isEmpty()) {
+            usedLogins.addAll(userRepository.findLoginsIn(logins));
+        }
+        Set<String> usedEmails = new HashSet<>();
+        if (!emails.isEmpty()) {
+            usedEmails.addAll(userRepository.findEmailsIn(emails));
+        }
+        Map<Integer, CompletableFuture<String>> passwords = new LinkedHashMap<>();
+        for (Integer i : valid) {
+            ImportedUserDTO user = batch.get(i).getUser();
+            if (usedLogins.contains(user.getLogin())) {
+                results[i] = result(batch.get(i), UserImportResultDTO.Status.CONFLICT, "Login name already used");
+            } else if (usedEmails.contains(user.getEmail())) {
+                results[i] = result(batch.get(i), UserImportResultDTO.Status.CONFLICT, "Email is already in use");
+            } else {
+                String password = user.getPassword() != null ? user.getPassword() : RandomUtil.generatePassword();
+                passwords.put(i, CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), hashingExecutor));
+            }
+        }
+
+        Map<Integer, User> users = new LinkedHashMap<>();
+        passwords.forEach((i, password) -> {
+            try {
+                users.put(i, toUser(batch.get(i).getUser(), password.join(), authorities));
+            } catch (CompletionException e) {
+                results[i] = result(batch.get(i), UserImportResultDTO.Status.FAILED, "Password could not be hashed, retry later");
+            }
+        });
+        insert(batch, users, results);
+        return Arrays.asList(results);
+    }
+
+    private void insert(List<UserImportRow> batch, Map<Integer, User> users, UserImportResultDTO[] results) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users.values());
+                // Earlier lookups of these logins and emails may be cached as missing: evicted after the commit
+                users.values().forEach(userCacheEvictor::evict);
+            });
+        } catch (DataAccessException e) {
+            // Most likely a user created concurrently with the same login or email: the batch can be imported again
+            log.warn("Could not import a batch of {} users: {}", users.size(), e.getMessage());
+            users.keySet().forEach(i -> results[i] = result(batch.get(i), UserImportResultDTO.Status.FAILED, "Batch could not be saved"));
+            return;
+        }
+        users.forEach((i, user) -> {
+            unknownLoginCache.forget(user.getLogin(), user.getEmail());
+            results[i] = result(batch.get(i), UserImportResultDTO.Status.CREATED, null);
+        });
+    }
+
+    private String validate(ImportedUserDTO user) {
+        Set<ConstraintViolation<ImportedUserDTO>> violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations
+            .stream()
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    private User toUser(ImportedUserDTO userDTO, String encryptedPassword, Map<String, Authority> authorities) {
+        User user = new User();
+        user.setLogin(userDTO.getLogin());
+        user.setFirstName(userDTO.getFirstName());
+        user.setLastName(userDTO.getLastName());
+        user.setEmail(userDTO.getEmail());
+        user.setImageUrl(userDTO.getImageUrl());
+        user.setLangKey(userDTO.getLangKey() == null ? Constants.DEFAULT_LANGUAGE : userDTO.getLangKey());
+        user.setPassword(encryptedPassword);
+        user.setActivated(true);
+        if (userDTO.getAuthorities() != null) {
+            user.setAuthorities(
+                userDTO
+                    .getAuthorities()
+                    .stream()
+                    .map(authorities::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet())
+            );
+        }
+        return user;
+    }
+
+    private static UserImportResultDTO result(UserImportRow row, UserImportResultDTO.Status status, String message) {
+        String login = row.getUser() != null ? row.getUser().getLogin() : null;
+        return new UserImportResultDTO(row.getLine(), login, status, message);
+    }
+
+    @Override
+    public void destroy() {
+        hashingExecutor.shutdownNow();
+    }
+}
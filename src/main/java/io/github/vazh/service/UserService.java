@@ -1,27 +1,44 @@
 package io.github.vazh.service;
 
+import io.github.vazh.config.ApplicationProperties;
 import io.github.vazh.config.Constants;
 import io.github.vazh.domain.Authority;
 import io.github.vazh.domain.User;
+import io.github.vazh.management.HotPaths;
+import io.github.vazh.management.UserMetersService;
 import io.github.vazh.repository.AuthorityRepository;
+import io.github.vazh.repository.ManagedUserRow;
+import io.github.vazh.repository.ManagedUserSummary;
+import io.github.vazh.repository.UserAuthorityName;
+import io.github.vazh.repository.UserCacheEvictor;
+import io.github.vazh.repository.UserIdentifiers;
 import io.github.vazh.repository.UserRepository;
+import io.github.vazh.repository.UserSummary;
 import io.github.vazh.security.AuthoritiesConstants;
 import io.github.vazh.security.SecurityUtils;
+import io.github.vazh.security.UnknownLoginCache;
 import io.github.vazh.service.dto.AdminUserDTO;
+import io.github.vazh.service.dto.CountedPage;
+import io.github.vazh.service.dto.UserCursor;
 import io.github.vazh.service.dto.UserDTO;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.CacheManager;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -39,18 +56,42 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    private final CacheManager cacheManager;
+    private final UserCacheEvictor userCacheEvictor;
+
+    private final UnknownLoginCache unknownLoginCache;
+
+    private final UserMetersService userMetersService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final UserCountService userCountService;
+
+    private final MailOutboxService mailOutboxService;
 
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        UserCacheEvictor userCacheEvictor,
+        UnknownLoginCache unknownLoginCache,
+        UserMetersService userMetersService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        UserCountService userCountService,
+        MailOutboxService mailOutboxService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
-        this.cacheManager = cacheManager;
+        this.userCacheEvictor = userCacheEvictor;
+        this.unknownLoginCache = unknownLoginCache;
+        this.userMetersService = userMetersService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+        this.userCountService = userCountService;
+        this.mailOutboxService = mailOutboxService;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -89,6 +130,7 @@ public class UserService {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
                 this.clearUserCaches(user);
+                mailOutboxService.enqueuePasswordResetMail(user);
                 return user;
             });
     }
@@ -131,6 +173,7 @@ public class UserService {
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
         this.clearUserCaches(newUser);
+        mailOutboxService.enqueueActivationEmail(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -242,6 +285,7 @@ public class UserService {
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                this.clearUserCaches(user);
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -272,13 +316,116 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(AdminUserDTO::new);
+    public CountedPage<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
+        return userCountService.toPage(withAuthorities(userRepository.findAllByIdNotNull(pageable, ManagedUserSummary.class)), false);
+    }
+
+    @Transactional(readOnly = true)
+    public CountedPage<UserDTO> getAllPublicUsers(Pageable pageable) {
+        return userCountService.toPage(userRepository.findAllByActivatedIsTrue(pageable, UserSummary.class).map(UserDTO::new), true);
+    }
+
+    /**
+     * Gets a page of users with keyset pagination, without counting the users.
+     *
+     * @param cursor the position of the page.
+     * @param size the size of the page.
+     * @return the page of users.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AdminUserDTO> getAllManagedUsers(UserCursor cursor, int size) {
+        return withAuthorities(findUsers(cursor, size, false, ManagedUserSummary.class));
+    }
+
+    /**
+     * Gets a page of activated users with keyset pagination, without counting the users.
+     *
+     * @param cursor the position of the page.
+     * @param size the size of the page.
+     * @return the page of users.
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> getAllPublicUsers(UserCursor cursor, int size) {
+        return findUsers(cursor, size, true, UserSummary.class).map(UserDTO::new);
+    }
+
+    private <T> Slice<T> findUsers(UserCursor cursor, int size, boolean activatedOnly, Class<T> type) {
+        Pageable pageable = PageRequest.of(0, size, cursor.getSort());
+        if (cursor.isFirst()) {
+            return activatedOnly
+                ? userRepository.findAllByActivatedIsTrue(pageable, type)
+                : userRepository.findAllByIdNotNull(pageable, type);
+        }
+        boolean ascending = cursor.getDirection().isAscending();
+        if (UserCursor.LOGIN.equals(cursor.getProperty())) {
+            String login = cursor.getLastLogin();
+            if (activatedOnly) {
+                return ascending
+                    ? userRepository.findAllByActivatedIsTrueAndLoginGreaterThan(login, pageable, type)
+                    : userRepository.findAllByActivatedIsTrueAndLoginLessThan(login, pageable, type);
+            }
+            return ascending
+                ? userRepository.findAllByLoginGreaterThan(login, pageable, type)
+                : userRepository.findAllByLoginLessThan(login, pageable, type);
+        }
+        Long id = cursor.getLastId();
+        if (activatedOnly) {
+            return ascending
+                ? userRepository.findAllByActivatedIsTrueAndIdGreaterThan(id, pageable, type)
+                : userRepository.findAllByActivatedIsTrueAndIdLessThan(id, pageable, type);
+        }
+        return ascending
+            ? userRepository.findAllByIdGreaterThan(id, pageable, type)
+            : userRepository.findAllByIdLessThan(id, pageable, type);
+    }
+
+    /**
+     * Adds their authorities to a page of users, read in a single query.
+     */
+    private Slice<AdminUserDTO> withAuthorities(Slice<ManagedUserSummary> users) {
+        Map<Long, Set<String>> authorities = users.hasContent()
+            ? userRepository
+                .findAuthorityNamesByUserIdIn(users.map(UserSummary::getId).getContent())
+                .stream()
+                .collect(
+                    Collectors.groupingBy(UserAuthorityName::getUserId, Collectors.mapping(UserAuthorityName::getName, Collectors.toSet()))
+                )
+            : Collections.emptyMap();
+        return users.map(user -> new AdminUserDTO(user, authorities.getOrDefault(user.getId(), new HashSet<>())));
     }
 
+    /**
+     * Exports all the users with their authorities, by ascending id, in constant memory: the users are read through a
+     * forward-only cursor in a read-only transaction, and handed over one at a time.
+     *
+     * @param consumer the consumer of the users.
+     * @return the number of exported users.
+     */
     @Transactional(readOnly = true)
-    public Page<UserDTO> getAllPublicUsers(Pageable pageable) {
-        return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
+    public long exportManagedUsers(Consumer<AdminUserDTO> consumer) {
+        long exported = 0;
+        try (Stream<ManagedUserRow> rows = userRepository.streamAllWithAuthorities()) {
+            ManagedUserRow user = null;
+            Set<String> authorities = new HashSet<>();
+            for (Iterator<ManagedUserRow> iterator = rows.iterator(); iterator.hasNext();) {
+                ManagedUserRow row = iterator.next();
+                if (user != null && !user.getId().equals(row.getId())) {
+                    consumer.accept(new AdminUserDTO(user, authorities));
+                    exported++;
+                    authorities = new HashSet<>();
+                }
+                user = row;
+                if (row.getAuthority() != null) {
+                    authorities.add(row.getAuthority());
+                }
+            }
+            if (user != null) {
+                consumer.accept(new AdminUserDTO(user, authorities));
+                exported++;
+            }
+        }
+        log.info("Exported {} users", exported);
+        return exported;
     }
 
     @Transactional(readOnly = true)
@@ -288,23 +435,59 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public Optional<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+        long start = HotPaths.start();
+        try {
+            return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+        } finally {
+            HotPaths.stop(HotPaths.Phase.USER_LOOKUP, start);
+        }
     }
 
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am). Users are deleted by chunks of ascending ids, each in its own
+     * transaction, so that locks are only held for the time of one chunk.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        int chunkSize = applicationProperties.getUserCleanup().getChunkSize();
+        long afterId = Long.MIN_VALUE;
+        long deletedUsers = 0;
+        List<UserIdentifiers> users;
+        do {
+            long lastId = afterId;
+            long start = System.nanoTime();
+            users = transactionTemplate.execute(status -> removeNotActivatedUsers(createdBefore, lastId, chunkSize));
+            if (!users.isEmpty()) {
+                userMetersService.trackCleanupChunk(users.size(), System.nanoTime() - start);
+                afterId = users.get(users.size() - 1).getId();
+                deletedUsers += users.size();
+                log.debug("Deleted {} not activated users so far", deletedUsers);
+            }
+        } while (users.size() == chunkSize);
+        log.info("Deleted {} not activated users created before {}", deletedUsers, createdBefore);
+    }
+
+    private List<UserIdentifiers> removeNotActivatedUsers(Instant createdBefore, long afterId, int chunkSize) {
+        List<UserIdentifiers> users = userRepository.findNotActivatedUsersCreatedBefore(
+            createdBefore,
+            afterId,
+            PageRequest.of(0, chunkSize)
+        );
+        if (users.isEmpty()) {
+            return users;
+        }
+        List<Long> userIds = users.stream().map(UserIdentifiers::getId).collect(Collectors.toList());
+        userRepository.deleteAuthoritiesByUserIdIn(userIds);
+        userRepository.deleteByIdIn(userIds);
+        for (UserIdentifiers user : users) {
+            userCacheEvictor.evict(user.getLogin(), user.getEmail());
+            userCacheEvictor.evictEntity(user.getId());
+        }
+        return users;
     }
 
     /**
@@ -316,10 +499,12 @@ public class UserService {
         return authorityRepository.findAll().stream().map(Authority::getName).collect(Collectors.toList());
     }
 
+    /**
+     * Evicts the cached entries of the current login and email of a user once the transaction has committed: call it
+     * both before and after changing them.
+     */
     private void clearUserCaches(User user) {
-        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
-        if (user.getEmail() != null) {
-            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
-        }
+        userCacheEvictor.evict(user);
+        unknownLoginCache.forget(user.getLogin(), user.getEmail());
     }
 }
@@ -3,6 +3,7 @@ package io.github.vazh.service.dto;
 import io.github.vazh.config.Constants;
 import io.github.vazh.domain.Authority;
 import io.github.vazh.domain.User;
+import io.github.vazh.repository.ManagedUserSummary;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.Set;
@@ -71,6 +72,22 @@ public class AdminUserDTO implements Serializable {
         this.authorities = user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet());
     }
 
+    public AdminUserDTO(ManagedUserSummary user, Set<String> authorities) {
+        this.id = user.getId();
+        this.login = user.getLogin();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.email = user.getEmail();
+        this.activated = user.isActivated();
+        this.imageUrl = user.getImageUrl();
+        this.langKey = user.getLangKey();
+        this.createdBy = user.getCreatedBy();
+        this.createdDate = user.getCreatedDate();
+        this.lastModifiedBy = user.getLastModifiedBy();
+        this.lastModifiedDate = user.getLastModifiedDate();
+        this.authorities = authorities;
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,29 @@
+package io.github.vazh.service.dto;
+
+import java.util.List;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A page whose total number of elements is either exact or an estimate.
+ *
+ * @param <T> the type of the elements.
+ */
+public class CountedPage<T> extends PageImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean totalExact;
+
+    public CountedPage(List<T> content, Pageable pageable, long total, boolean totalExact) {
+        super(content, pageable, total);
+        this.totalExact = totalExact;
+    }
+
+    /**
+     * @return {@code true} if {@link #getTotalElements()} is exact, {@code false} if it is an estimate.
+     */
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.vazh.service.dto;
+
+import javax.validation.constraints.Size;
+
+/**
+ * A DTO representing a user to import, with an optional password. A random password is generated when none is given, and
+ * the user can then choose one by resetting it.
+ */
+public class ImportedUserDTO extends AdminUserDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int PASSWORD_MIN_LENGTH = 4;
+
+    public static final int PASSWORD_MAX_LENGTH = 100;
+
+    @Size(min = PASSWORD_MIN_LENGTH, max = PASSWORD_MAX_LENGTH)
+    private String password;
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ImportedUserDTO{" + super.toString() + "} ";
+    }
+}
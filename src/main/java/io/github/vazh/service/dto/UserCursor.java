@@ -0,0 +1,172 @@
+package io.github.vazh.service.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.data.domain.Sort;
+
+/**
+ * The position of a keyset (seek) pagination over users: the sort key and direction, and the sort value and id of the last
+ * user of the previous page, or none for the first page.
+ * <p>
+ * Only the sort keys of {@link #SORT_PROPERTIES} are supported: their column is unique, not null and indexed, so that a
+ * page is read from the index with a single {@code key > value} predicate whatever its depth, and without counting the
+ * users. The {@code email} column has a unique index too, but is nullable, and the ordering of nulls cannot be expressed
+ * in a portable way.
+ * <p>
+ * The cursor is exchanged with the clients as an opaque token.
+ */
+public final class UserCursor {
+
+    public static final String ID = "id";
+
+    public static final String LOGIN = "login";
+
+    public static final List<String> SORT_PROPERTIES = List.of(ID, LOGIN);
+
+    private static final String TOKEN_VERSION = "1";
+
+    private static final char SEPARATOR = '|';
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    private final Long lastId;
+
+    private final String lastLogin;
+
+    private UserCursor(String property, Sort.Direction direction, Long lastId, String lastLogin) {
+        this.property = property;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastLogin = lastLogin;
+    }
+
+    /**
+     * Creates the cursor of the first page for a sort, which is by ascending id when unsorted. A secondary sort on the id
+     * is accepted and ignored, as the sort keys are unique.
+     *
+     * @param sort the sort of the pages.
+     * @return the cursor of the first page.
+     * @throws IllegalArgumentException if the sort is not supported.
+     */
+    public static UserCursor first(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty()) {
+            return new UserCursor(ID, Sort.Direction.ASC, null, null);
+        }
+        Sort.Order order = orders.get(0);
+        boolean onlyIdAfterwards = orders.stream().skip(1).allMatch(other -> ID.equals(other.getProperty()));
+        if (!SORT_PROPERTIES.contains(order.getProperty()) || orders.size() > 2 || !onlyIdAfterwards || order.isIgnoreCase()) {
+            throw new IllegalArgumentException("Unsupported sort for keyset pagination: " + sort);
+        }
+        return new UserCursor(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    /**
+     * Decodes a cursor from its token.
+     *
+     * @param token the token, as returned by {@link #toToken()}.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is not valid.
+     */
+    public static UserCursor fromToken(String token) {
+        String[] fields;
+        try {
+            fields = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 5);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+        if (fields.length != 5 || !TOKEN_VERSION.equals(fields[0]) || !SORT_PROPERTIES.contains(fields[1])) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        try {
+            return new UserCursor(fields[1], Sort.Direction.fromString(fields[2]), Long.valueOf(fields[3]), fields[4]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque token, safe to use in URLs.
+     *
+     * @return the token.
+     */
+    public String toToken() {
+        String fields = String.join(
+            String.valueOf(SEPARATOR),
+            TOKEN_VERSION,
+            property,
+            direction.name(),
+            String.valueOf(lastId),
+            Objects.toString(lastLogin, "")
+        );
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fields.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates the cursor of the page following a user, with the same sort.
+     *
+     * @param id the id of the last user of the current page.
+     * @param login the login of the last user of the current page.
+     * @return the cursor of the next page.
+     */
+    public UserCursor after(Long id, String login) {
+        return new UserCursor(property, direction, id, login);
+    }
+
+    /**
+     * Checks whether the pages of this cursor are sorted as requested, which is always the case when no sort is requested.
+     *
+     * @param sort the requested sort.
+     * @return {@code true} if the sort is the one of this cursor.
+     */
+    public boolean isSortedBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        try {
+            UserCursor requested = first(sort);
+            return property.equals(requested.property) && direction == requested.direction;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public boolean isFirst() {
+        return lastId == null;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Sort getSort() {
+        return Sort.by(direction, property);
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public String getLastLogin() {
+        return lastLogin;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserCursor{" +
+            "property='" + property + '\'' +
+            ", direction=" + direction +
+            ", lastId=" + lastId +
+            ", lastLogin='" + lastLogin + '\'' +
+            "}";
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.vazh.service.dto;
 
 import io.github.vazh.domain.User;
+import io.github.vazh.repository.UserSummary;
 import java.io.Serializable;
 
 /**
@@ -24,6 +25,11 @@ public class UserDTO implements Serializable {
         this.login = user.getLogin();
     }
 
+    public UserDTO(UserSummary user) {
+        this.id = user.getId();
+        this.login = user.getLogin();
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,52 @@
+package io.github.vazh.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the report of a user import, with the result of every row.
+ */
+public class UserImportReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int created;
+
+    private int rejected;
+
+    private List<UserImportResultDTO> rows = new ArrayList<>();
+
+    public void add(UserImportResultDTO row) {
+        rows.add(row);
+        if (row.getStatus() == UserImportResultDTO.Status.CREATED) {
+            created++;
+        } else {
+            rejected++;
+        }
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<UserImportResultDTO> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<UserImportResultDTO> rows) {
+        this.rows = rows;
+    }
+}
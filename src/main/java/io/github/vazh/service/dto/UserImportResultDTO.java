@@ -0,0 +1,86 @@
+package io.github.vazh.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the result of the import of a row.
+ */
+public class UserImportResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        /** The user has been created. */
+        CREATED,
+        /** The row could not be read, or the user is not valid. */
+        INVALID,
+        /** The login or the email is already used by a previous row of the same batch. */
+        DUPLICATE,
+        /** The login or the email is already used by an existing user. */
+        CONFLICT,
+        /** The user could not be created, and may be imported again. */
+        FAILED,
+    }
+
+    private long line;
+
+    private String login;
+
+    private Status status;
+
+    private String message;
+
+    public UserImportResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public UserImportResultDTO(long line, String login, Status status, String message) {
+        this.line = line;
+        this.login = login;
+        this.status = status;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserImportResultDTO{" +
+            "line=" + line +
+            ", login='" + login + '\'' +
+            ", status=" + status +
+            ", message='" + message + '\'' +
+            "}";
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.vazh.service.dto;
+
+/**
+ * A row of a user import: either the user read from the row, or the reason why the row could not be read.
+ */
+public final class UserImportRow {
+
+    private final long line;
+
+    private final ImportedUserDTO user;
+
+    private final String error;
+
+    private UserImportRow(long line, ImportedUserDTO user, String error) {
+        this.line = line;
+        this.user = user;
+        this.error = error;
+    }
+
+    public static UserImportRow of(long line, ImportedUserDTO user) {
+        return new UserImportRow(line, user, null);
+    }
+
+    public static UserImportRow unreadable(long line, String error) {
+        return new UserImportRow(line, null, error);
+    }
+
+    /**
+     * @return the line of the row in the uploaded file, starting at 1.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * @return the user, or {@code null} if the row could not be read.
+     */
+    public ImportedUserDTO getUser() {
+        return user;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.vazh.web.filter;
+
+import io.github.vazh.management.HotPaths;
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the hot path of each request with the {@link HotPaths}, when enabled.
+ */
+public class HotPathsFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (!HotPaths.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        HotPaths.begin();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long duration = System.nanoTime() - start;
+            HotPaths.end(request.getMethod(), uri(request), response.getStatus(), MDC.get(RequestIdFilter.TRACE_ID), duration);
+        }
+    }
+
+    private static String uri(HttpServletRequest request) {
+        // The URI template, rather than the URI which may contain a login
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.vazh.web.filter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Identifies each request by a trace id and a span id, which are in the {@link MDC} while the request is handled.
+ * <p>
+ * The trace id is taken from a W3C {@code traceparent} header when the request has one, and is generated otherwise. It is
+ * returned in the {@code X-Request-Id} header of the response, so that a slow request can be found from its exemplar in
+ * the latency histograms, and in the logs.
+ */
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID = "traceId";
+
+    public static final String SPAN_ID = "spanId";
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final String TRACEPARENT_HEADER = "traceparent";
+
+    private static final Pattern TRACEPARENT = Pattern.compile("[0-9a-f]{2}-([0-9a-f]{32})-[0-9a-f]{16}-[0-9a-f]{2}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String traceId = traceId(request.getHeader(TRACEPARENT_HEADER));
+        MDC.put(TRACE_ID, traceId);
+        MDC.put(SPAN_ID, randomHex(1));
+        response.setHeader(REQUEST_ID_HEADER, traceId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(TRACE_ID);
+            MDC.remove(SPAN_ID);
+        }
+    }
+
+    private static String traceId(String traceparent) {
+        if (traceparent != null) {
+            Matcher matcher = TRACEPARENT.matcher(traceparent);
+            if (matcher.matches()) {
+                return matcher.group(1);
+            }
+        }
+        return randomHex(2);
+    }
+
+    private static String randomHex(int longs) {
+        StringBuilder hex = new StringBuilder(longs * 16);
+        for (int i = 0; i < longs; i++) {
+            String value = Long.toHexString(ThreadLocalRandom.current().nextLong());
+            hex.append("0".repeat(16 - value.length())).append(value);
+        }
+        return hex.toString();
+    }
+}
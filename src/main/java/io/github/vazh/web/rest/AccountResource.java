@@ -3,7 +3,6 @@ package io.github.vazh.web.rest;
 import io.github.vazh.domain.User;
 import io.github.vazh.repository.UserRepository;
 import io.github.vazh.security.SecurityUtils;
-import io.github.vazh.service.MailService;
 import io.github.vazh.service.UserService;
 import io.github.vazh.service.dto.AdminUserDTO;
 import io.github.vazh.service.dto.PasswordChangeDTO;
@@ -39,12 +38,9 @@ public class AccountResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
-
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    public AccountResource(UserRepository userRepository, UserService userService) {
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
     }
 
     /**
@@ -61,8 +57,8 @@ public class AccountResource {
         if (isPasswordLengthInvalid(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
         }
-        User user = userService.registerUser(managedUserVM, managedUserVM.getPassword());
-        mailService.sendActivationEmail(user);
+        // The activation email is written to the mail outbox by the same transaction
+        userService.registerUser(managedUserVM, managedUserVM.getPassword());
     }
 
     /**
@@ -155,10 +151,9 @@ public class AccountResource {
      */
     @PostMapping(path = "/account/reset-password/init")
     public void requestPasswordReset(@RequestBody String mail) {
+        // The password reset email is written to the mail outbox by the same transaction
         Optional<User> user = userService.requestPasswordReset(mail);
-        if (user.isPresent()) {
-            mailService.sendPasswordResetMail(user.get());
-        } else {
+        if (!user.isPresent()) {
             // Pretend the request has been successful to prevent checking which emails really exist
             // but log that an invalid attempt has been made
             log.warn("Password reset requested for non existing mail");
@@ -0,0 +1,23 @@
+package io.github.vazh.web.rest;
+
+import io.github.vazh.service.dto.CountedPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Utility class for the offset pagination of pages whose total may be an estimate: the headers of
+ * {@link PaginationUtil}, and the {@value #TOTAL_COUNT_EXACT_HEADER} header telling whether {@code X-Total-Count} is exact.
+ */
+final class CountedPaginationUtil {
+
+    static final String TOTAL_COUNT_EXACT_HEADER = "X-Total-Count-Exact";
+
+    private CountedPaginationUtil() {}
+
+    static HttpHeaders generatePaginationHttpHeaders(UriComponentsBuilder uriBuilder, CountedPage<?> page) {
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, page);
+        headers.add(TOTAL_COUNT_EXACT_HEADER, String.valueOf(page.isTotalExact()));
+        return headers;
+    }
+}
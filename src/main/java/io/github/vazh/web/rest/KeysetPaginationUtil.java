@@ -0,0 +1,84 @@
+package io.github.vazh.web.rest;
+
+import io.github.vazh.service.dto.UserCursor;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for the keyset (seek) pagination of the user listings, which is used instead of the offset pagination when
+ * the request has a {@value #CURSOR_PARAMETER} parameter: empty for the first page, then the token of the {@code next}
+ * link of the previous page.
+ * <p>
+ * Unlike {@link tech.jhipster.web.util.PaginationUtil}, there is no total count, and the {@code Link} header only has the
+ * {@code first} and, unless the page is the last one, the {@code next} links.
+ */
+final class KeysetPaginationUtil {
+
+    static final String CURSOR_PARAMETER = "cursor";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Gets the cursor of a request.
+     *
+     * @param token the value of the {@value #CURSOR_PARAMETER} parameter.
+     * @param pageable the pagination information of the request.
+     * @return the cursor, or empty if the token or the sort is not valid.
+     */
+    static Optional<UserCursor> cursor(String token, Pageable pageable) {
+        try {
+            if (token.isEmpty()) {
+                return Optional.of(UserCursor.first(pageable.getSort()));
+            }
+            UserCursor cursor = UserCursor.fromToken(token);
+            return cursor.isSortedBy(pageable.getSort()) ? Optional.of(cursor) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates the response of a page of users, with the links to the first and to the next pages.
+     *
+     * @param uriBuilder the URI of the request.
+     * @param cursor the cursor of the page.
+     * @param page the page of users.
+     * @param id the id of a user of the page.
+     * @param login the login of a user of the page.
+     * @param <T> the type of the users.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}.
+     */
+    static <T> ResponseEntity<List<T>> response(
+        UriComponentsBuilder uriBuilder,
+        UserCursor cursor,
+        Slice<T> page,
+        Function<T, Long> id,
+        Function<T, String> login
+    ) {
+        StringBuilder link = new StringBuilder();
+        if (page.hasNext()) {
+            T last = page.getContent().get(page.getNumberOfElements() - 1);
+            String next = cursor.after(id.apply(last), login.apply(last)).toToken();
+            link.append(prepareLink(uriBuilder, next, "next")).append(',');
+        }
+        link.append(prepareLink(uriBuilder, "", "first"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, link.toString());
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, String token, String relType) {
+        String uri = uriBuilder.replaceQueryParam(CURSOR_PARAMETER, token).replaceQueryParam("page").toUriString();
+        return MessageFormat.format(HEADER_LINK_FORMAT, uri.replace(",", "%2C").replace(";", "%3B"), relType);
+    }
+}
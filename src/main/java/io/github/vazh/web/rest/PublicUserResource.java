@@ -1,12 +1,12 @@
 package io.github.vazh.web.rest;
 
 import io.github.vazh.service.UserService;
+import io.github.vazh.service.dto.CountedPage;
 import io.github.vazh.service.dto.UserDTO;
 import java.util.*;
 import java.util.Collections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
@@ -14,7 +14,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
-import tech.jhipster.web.util.PaginationUtil;
 
 @RestController
 @RequestMapping("/api")
@@ -35,18 +34,38 @@ public class PublicUserResource {
     /**
      * {@code GET /users} : get all users with only the public informations - calling this are allowed for anyone.
      *
+     * @param cursor the position of the page with keyset pagination, empty for the first page, or {@code null} for offset
+     * pagination.
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users, or with status
+     * {@code 400 (Bad Request)} if the sort or the cursor is not valid.
      */
     @GetMapping("/users")
-    public ResponseEntity<List<UserDTO>> getAllPublicUsers(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<UserDTO>> getAllPublicUsers(
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
         log.debug("REST request to get all public User names");
         if (!onlyContainsAllowedProperties(pageable)) {
             return ResponseEntity.badRequest().build();
         }
+        if (cursor != null) {
+            return KeysetPaginationUtil
+                .cursor(cursor, pageable)
+                .map(position ->
+                    KeysetPaginationUtil.response(
+                        ServletUriComponentsBuilder.fromCurrentRequest(),
+                        position,
+                        userService.getAllPublicUsers(position, pageable.getPageSize()),
+                        UserDTO::getId,
+                        UserDTO::getLogin
+                    )
+                )
+                .orElseGet(() -> ResponseEntity.badRequest().build());
+        }
 
-        final Page<UserDTO> page = userService.getAllPublicUsers(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        final CountedPage<UserDTO> page = userService.getAllPublicUsers(pageable);
+        HttpHeaders headers = CountedPaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
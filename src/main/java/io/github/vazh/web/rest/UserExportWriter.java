@@ -0,0 +1,162 @@
+package io.github.vazh.web.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.github.vazh.service.dto.AdminUserDTO;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Writes exported users to a response, one line per user, and flushes the response every {@value #FLUSH_INTERVAL} users
+ * so that the client receives the export as it is read.
+ */
+abstract class UserExportWriter implements Consumer<AdminUserDTO>, Closeable {
+
+    static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    static final String CSV_MEDIA_TYPE = "text/csv";
+
+    static final int FLUSH_INTERVAL = 1_000;
+
+    /**
+     * The columns of the CSV format. The authorities are separated by spaces.
+     */
+    static final String CSV_HEADER =
+        "id,login,firstName,lastName,email,imageUrl,activated,langKey,createdBy,createdDate,lastModifiedBy,lastModifiedDate,authorities";
+
+    /**
+     * The first characters of the values which spreadsheets interpret as formulas.
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private long written;
+
+    /**
+     * Creates a writer of JSON objects separated by new lines.
+     *
+     * @param out the output stream of the response.
+     * @param objectMapper the object mapper of the REST API.
+     * @return the writer.
+     * @throws IOException if the output stream cannot be written.
+     */
+    static UserExportWriter ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        SequenceWriter sequenceWriter = objectMapper
+            .writerFor(AdminUserDTO.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .withRootValueSeparator("\n")
+            .writeValues(out);
+        return new UserExportWriter() {
+            @Override
+            void write(AdminUserDTO user) throws IOException {
+                sequenceWriter.write(user);
+            }
+
+            @Override
+            void flush() throws IOException {
+                sequenceWriter.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                sequenceWriter.close();
+                if (getWritten() > 0) {
+                    out.write('\n');
+                }
+                out.flush();
+            }
+        };
+    }
+
+    /**
+     * Creates a writer of comma-separated values, with a header line.
+     *
+     * @param out the output stream of the response.
+     * @return the writer.
+     * @throws IOException if the output stream cannot be written.
+     */
+    static UserExportWriter csv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        return new UserExportWriter() {
+            @Override
+            void write(AdminUserDTO user) throws IOException {
+                writer.write(String.valueOf(user.getId()));
+                writeCsvValue(writer, user.getLogin());
+                writeCsvValue(writer, user.getFirstName());
+                writeCsvValue(writer, user.getLastName());
+                writeCsvValue(writer, user.getEmail());
+                writeCsvValue(writer, user.getImageUrl());
+                writeCsvValue(writer, String.valueOf(user.isActivated()));
+                writeCsvValue(writer, user.getLangKey());
+                writeCsvValue(writer, user.getCreatedBy());
+                writeCsvValue(writer, Objects.toString(user.getCreatedDate(), null));
+                writeCsvValue(writer, user.getLastModifiedBy());
+                writeCsvValue(writer, Objects.toString(user.getLastModifiedDate(), null));
+                writeCsvValue(writer, String.join(" ", new TreeSet<>(user.getAuthorities())));
+                writer.write("\r\n");
+            }
+
+            @Override
+            void flush() throws IOException {
+                writer.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    abstract void write(AdminUserDTO user) throws IOException;
+
+    abstract void flush() throws IOException;
+
+    long getWritten() {
+        return written;
+    }
+
+    @Override
+    public void accept(AdminUserDTO user) {
+        try {
+            write(user);
+            if (++written % FLUSH_INTERVAL == 0) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a value after a separator, quoted as per RFC 4180 if needed. A {@code null} value is written as an empty value.
+     * A value which a spreadsheet would run as a formula is prefixed with {@code '}, so that it is displayed as text.
+     */
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+        } else {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package io.github.vazh.web.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.vazh.service.dto.ImportedUserDTO;
+import io.github.vazh.service.dto.UserImportRow;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the users of an import from a request as they are uploaded, in the formats of the {@link UserExportWriter}, so
+ * that an export can be imported again. The rows which cannot be read are returned with the reason, so that they are
+ * reported with the other rows.
+ */
+abstract class UserImportReader implements Iterator<UserImportRow> {
+
+    private final BufferedReader reader;
+
+    private long line;
+
+    private UserImportRow next;
+
+    private UserImportReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a reader of JSON objects separated by new lines. The empty lines are skipped.
+     *
+     * @param in the input stream of the request.
+     * @param objectMapper the object mapper of the REST API.
+     * @return the reader.
+     */
+    static UserImportReader ndjson(InputStream in, ObjectMapper objectMapper) {
+        ObjectReader objectReader = objectMapper.readerFor(ImportedUserDTO.class);
+        return new UserImportReader(in) {
+            @Override
+            UserImportRow read() throws IOException {
+                String value;
+                do {
+                    value = readLine();
+                } while (value != null && value.isBlank());
+                if (value == null) {
+                    return null;
+                }
+                try {
+                    ImportedUserDTO user = objectReader.readValue(value);
+                    return user != null ? UserImportRow.of(getLine(), user) : UserImportRow.unreadable(getLine(), "Not a JSON object");
+                } catch (JsonProcessingException e) {
+                    return UserImportRow.unreadable(getLine(), "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a reader of comma-separated values, quoted as per RFC 4180, whose first line is the header. The columns are
+     * found by name, so that they can be in any order: {@code login}, {@code firstName}, {@code lastName}, {@code email},
+     * {@code imageUrl}, {@code langKey}, {@code authorities} (separated by spaces) and {@code password} are read, the other
+     * columns of {@link UserExportWriter#CSV_HEADER} are ignored.
+     *
+     * @param in the input stream of the request.
+     * @return the reader.
+     */
+    static UserImportReader csv(InputStream in) {
+        return new UserImportReader(in) {
+            private Map<String, Integer> columns;
+
+            @Override
+            UserImportRow read() throws IOException {
+                if (columns == null) {
+                    List<String> header = readCsvRecord(this);
+                    if (header == null) {
+                        return null;
+                    }
+                    columns = new HashMap<>();
+                    for (int i = 0; i < header.size(); i++) {
+                        columns.put(header.get(i).trim(), i);
+                    }
+                }
+                List<String> values;
+                long start;
+                do {
+                    start = getLine() + 1;
+                    values = readCsvRecord(this);
+                } while (values != null && values.size() == 1 && values.get(0).isEmpty());
+                if (values == null) {
+                    return null;
+                }
+                if (values.size() != columns.size()) {
+                    return UserImportRow.unreadable(start, "Expected " + columns.size() + " values, found " + values.size());
+                }
+                ImportedUserDTO user = new ImportedUserDTO();
+                user.setLogin(value(values, "login"));
+                user.setFirstName(value(values, "firstName"));
+                user.setLastName(value(values, "lastName"));
+                user.setEmail(value(values, "email"));
+                user.setImageUrl(value(values, "imageUrl"));
+                user.setLangKey(value(values, "langKey"));
+                user.setPassword(value(values, "password"));
+                String authorities = value(values, "authorities");
+                if (authorities != null) {
+                    user.setAuthorities(Arrays.stream(authorities.trim().split(" +")).collect(Collectors.toSet()));
+                }
+                return UserImportRow.of(start, user);
+            }
+
+            /**
+             * @return the value of a column, or {@code null} if the column is missing or the value is empty.
+             */
+            private String value(List<String> values, String column) {
+                Integer index = columns.get(column);
+                if (index == null || values.get(index).isEmpty()) {
+                    return null;
+                }
+                return values.get(index);
+            }
+        };
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return the row, or {@code null} at the end of the input.
+     * @throws IOException if the input stream cannot be read.
+     */
+    abstract UserImportRow read() throws IOException;
+
+    /**
+     * @return the next line, without its terminator, or {@code null} at the end of the input.
+     */
+    String readLine() throws IOException {
+        String value = reader.readLine();
+        if (value != null) {
+            line++;
+        }
+        return value;
+    }
+
+    /**
+     * @return the number of the last line read, starting at 1.
+     */
+    long getLine() {
+        return line;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public UserImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        UserImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    /**
+     * Reads a record as per RFC 4180, whose quoted values may span several lines.
+     *
+     * @return the values of the record, or {@code null} at the end of the input.
+     */
+    private static List<String> readCsvRecord(UserImportReader reader) throws IOException {
+        String value = reader.readLine();
+        if (value == null) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == value.length()) {
+                if (!quoted) {
+                    values.add(current.toString());
+                    return values;
+                }
+                // The line terminator is part of the quoted value
+                value = reader.readLine();
+                if (value == null) {
+                    values.add(current.toString());
+                    return values;
+                }
+                current.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = value.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    current.append(c);
+                } else if (i < value.length() && value.charAt(i) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+    }
+}
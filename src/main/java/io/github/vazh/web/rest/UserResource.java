@@ -1,25 +1,32 @@
 package io.github.vazh.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.vazh.config.Constants;
 import io.github.vazh.domain.User;
 import io.github.vazh.repository.UserRepository;
 import io.github.vazh.security.AuthoritiesConstants;
 import io.github.vazh.service.MailService;
+import io.github.vazh.service.UserImportService;
 import io.github.vazh.service.UserService;
 import io.github.vazh.service.dto.AdminUserDTO;
+import io.github.vazh.service.dto.CountedPage;
+import io.github.vazh.service.dto.UserImportReportDTO;
 import io.github.vazh.web.rest.errors.BadRequestAlertException;
 import io.github.vazh.web.rest.errors.EmailAlreadyUsedException;
 import io.github.vazh.web.rest.errors.LoginAlreadyUsedException;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Collections;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
@@ -29,7 +36,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -87,10 +93,22 @@ public class UserResource {
 
     private final MailService mailService;
 
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    private final ObjectMapper objectMapper;
+
+    private final UserImportService userImportService;
+
+    public UserResource(
+        UserService userService,
+        UserRepository userRepository,
+        MailService mailService,
+        ObjectMapper objectMapper,
+        UserImportService userImportService
+    ) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.mailService = mailService;
+        this.objectMapper = objectMapper;
+        this.userImportService = userImportService;
     }
 
     /**
@@ -158,22 +176,119 @@ public class UserResource {
     /**
      * {@code GET /admin/users} : get all users with all the details - calling this are only allowed for the administrators.
      *
+     * @param cursor the position of the page with keyset pagination, empty for the first page, or {@code null} for offset
+     * pagination.
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users, or with status
+     * {@code 400 (Bad Request)} if the sort or the cursor is not valid.
      */
     @GetMapping("/users")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<List<AdminUserDTO>> getAllUsers(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<AdminUserDTO>> getAllUsers(
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
         log.debug("REST request to get all User for an admin");
         if (!onlyContainsAllowedProperties(pageable)) {
             return ResponseEntity.badRequest().build();
         }
+        if (cursor != null) {
+            return KeysetPaginationUtil
+                .cursor(cursor, pageable)
+                .map(position ->
+                    KeysetPaginationUtil.response(
+                        ServletUriComponentsBuilder.fromCurrentRequest(),
+                        position,
+                        userService.getAllManagedUsers(position, pageable.getPageSize()),
+                        AdminUserDTO::getId,
+                        AdminUserDTO::getLogin
+                    )
+                )
+                .orElseGet(() -> ResponseEntity.badRequest().build());
+        }
 
-        final Page<AdminUserDTO> page = userService.getAllManagedUsers(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        final CountedPage<AdminUserDTO> page = userService.getAllManagedUsers(pageable);
+        HttpHeaders headers = CountedPaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET /admin/users.ndjson} : export all users with all the details, as JSON objects separated by new lines.
+     *
+     * @param response the response, to which the users are written as they are read.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/users.ndjson", produces = UserExportWriter.NDJSON_MEDIA_TYPE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public void exportUsersAsNdjson(HttpServletResponse response) throws IOException {
+        log.debug("REST request to export all User as NDJSON");
+        response.setContentType(UserExportWriter.NDJSON_MEDIA_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try (UserExportWriter writer = UserExportWriter.ndjson(response.getOutputStream(), objectMapper)) {
+            userService.exportManagedUsers(writer);
+        }
+    }
+
+    /**
+     * {@code GET /admin/users.csv} : export all users with all the details, as comma-separated values.
+     *
+     * @param response the response, to which the users are written as they are read.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/users.csv", produces = UserExportWriter.CSV_MEDIA_TYPE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public void exportUsersAsCsv(HttpServletResponse response) throws IOException {
+        log.debug("REST request to export all User as CSV");
+        response.setContentType(UserExportWriter.CSV_MEDIA_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"");
+        try (UserExportWriter writer = UserExportWriter.csv(response.getOutputStream())) {
+            userService.exportManagedUsers(writer);
+        }
+    }
+
+    /**
+     * {@code POST /admin/users/import} : import users, as JSON objects separated by new lines, in the format of the export.
+     * <p>
+     * The users are created activated, without sending any mail: the users imported without a password can choose one by
+     * resetting it. The rows are read as they are uploaded, and imported by batches.
+     *
+     * @param request the request, from which the users are read.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of every row.
+     * @throws IOException if the request cannot be read.
+     */
+    @PostMapping(value = "/users/import", consumes = UserExportWriter.NDJSON_MEDIA_TYPE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<UserImportReportDTO> importUsersFromNdjson(HttpServletRequest request) throws IOException {
+        log.debug("REST request to import User from NDJSON");
+        return importUsers(UserImportReader.ndjson(request.getInputStream(), objectMapper));
+    }
+
+    /**
+     * {@code POST /admin/users/import} : import users, as comma-separated values, in the format of the export.
+     * <p>
+     * The users are created as for {@link #importUsersFromNdjson(HttpServletRequest)}. An optional {@code password} column
+     * may be added.
+     *
+     * @param request the request, from which the users are read.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of every row.
+     * @throws IOException if the request cannot be read.
+     */
+    @PostMapping(value = "/users/import", consumes = UserExportWriter.CSV_MEDIA_TYPE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<UserImportReportDTO> importUsersFromCsv(HttpServletRequest request) throws IOException {
+        log.debug("REST request to import User from CSV");
+        return importUsers(UserImportReader.csv(request.getInputStream()));
+    }
+
+    private ResponseEntity<UserImportReportDTO> importUsers(UserImportReader reader) {
+        UserImportReportDTO report = userImportService.importUsers(reader);
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createAlert(applicationName, "userManagement.imported", String.valueOf(report.getCreated())))
+            .body(report);
+    }
+
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
         return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
@@ -0,0 +1,69 @@
+import ch.qos.logback.classic.{Level, LoggerContext}
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import org.slf4j.LoggerFactory
+
+import scala.concurrent.duration._
+
+/**
+ * Performance test comparing the threads handling the requests: run it once against the application started with
+ * application.virtual-threads.enabled=false (the task and Undertow worker pools), then once with true (Java 21), and
+ * compare the throughput and the 99th percentile of the response times of the two reports.
+ *
+ * Each user authenticates once, then sends requests waiting on the database and Redis, without pause, for the duration.
+ */
+class RequestThreadsGatlingTest extends Simulation {
+
+    val context: LoggerContext = LoggerFactory.getILoggerFactory.asInstanceOf[LoggerContext]
+    // Log all HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("TRACE"))
+    // Log failed HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("DEBUG"))
+
+    val baseURL = Option(System.getProperty("baseURL")) getOrElse """http://localhost:8080"""
+
+    val httpConf = http
+        .baseUrl(baseURL)
+        .acceptHeader("*/*")
+        .acceptEncodingHeader("gzip, deflate")
+        .acceptLanguageHeader("en-us;q=0.5,en;q=0.3")
+        .connectionHeader("keep-alive")
+        .userAgentHeader("Gatling")
+
+    val headers_http_authentication = Map(
+        "Content-Type" -> """application/json""",
+        "Accept" -> """application/json"""
+    )
+
+    val headers_http_authenticated = Map(
+        "Accept" -> """application/json""",
+        "Authorization" -> "${access_token}"
+    )
+
+    val scn = scenario("Requests waiting on the database and Redis")
+        .exec(http("Authentication")
+        .post("/api/authenticate")
+        .headers(headers_http_authentication)
+        .body(StringBody("""{"username":"admin", "password":"admin"}""")).asJson
+        .check(header("Authorization").saveAs("access_token"))).exitHereIfFailed
+        .during(Integer.getInteger("duration", 60).intValue seconds) {
+            exec(http("Get the account")
+            .get("/api/account")
+            .headers(headers_http_authenticated)
+            .check(status.is(200)))
+            .exec(http("Get a page of users")
+            .get("/api/admin/users?page=0&size=20&sort=id,asc")
+            .headers(headers_http_authenticated)
+            .check(status.is(200)))
+            .exec(http("Get a user")
+            .get("/api/admin/users/user")
+            .headers(headers_http_authenticated)
+            .check(status.is(200)))
+        }
+
+    val users = scenario("Users").exec(scn)
+
+    setUp(
+        users.inject(rampUsers(Integer.getInteger("users", 200)) during (Integer.getInteger("ramp", 10) seconds))
+    ).protocols(httpConf)
+}
@@ -0,0 +1,116 @@
+package io.github.vazh.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Test class for the {@link LoggingAspect}.
+ */
+class LoggingAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(LoggingAspectTest.class.getMethod("setup"));
+        when(signature.getName()).thenReturn("setup");
+        when(signature.getDeclaringTypeName()).thenReturn(LoggingAspectTest.class.getName());
+        when(signature.getDeclaringType()).thenReturn(LoggingAspectTest.class);
+        joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[0]);
+    }
+
+    @Test
+    void testProceedsWithoutTimingWhenNotSampled() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("result");
+        LoggingAspect loggingAspect = new LoggingAspect(new MockEnvironment(), false, () -> meterRegistry, 0);
+
+        assertThat(loggingAspect.logAround(joinPoint)).isEqualTo("result");
+
+        verify(joinPoint).proceed();
+        assertThat(meterRegistry.find(LoggingAspect.METHOD_METER_NAME).timer()).isNull();
+    }
+
+    @Test
+    void testTimesSampledCalls() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("result");
+        LoggingAspect loggingAspect = new LoggingAspect(new MockEnvironment(), false, () -> meterRegistry, 1);
+
+        loggingAspect.logAround(joinPoint);
+        loggingAspect.logAround(joinPoint);
+
+        assertThat(
+            meterRegistry
+                .get(LoggingAspect.METHOD_METER_NAME)
+                .tag("class", "LoggingAspectTest")
+                .tag("method", "setup")
+                .tag("exception", "none")
+                .timer()
+                .count()
+        )
+            .isEqualTo(2);
+    }
+
+    @Test
+    void testTimesSampledCallsByException() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalArgumentException("invalid"));
+        LoggingAspect loggingAspect = new LoggingAspect(new MockEnvironment(), false, () -> meterRegistry, 1);
+
+        assertThatThrownBy(() -> loggingAspect.logAround(joinPoint)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(
+            meterRegistry.get(LoggingAspect.METHOD_METER_NAME).tag("exception", "IllegalArgumentException").timer().count()
+        )
+            .isEqualTo(1);
+        // Only timed: the illegal argument is not logged
+        verify(joinPoint, never()).getArgs();
+    }
+
+    @Test
+    void testDoesNotLogExceptionsWhenOnlyTiming() {
+        LoggingAspect loggingAspect = new LoggingAspect(new MockEnvironment(), false, () -> meterRegistry, 1);
+
+        loggingAspect.logAfterThrowing(joinPoint, new IllegalStateException("failure"));
+
+        verifyNoInteractions(joinPoint);
+    }
+
+    @Test
+    void testLogsExceptionsWhenLogging() {
+        LoggingAspect loggingAspect = new LoggingAspect(new MockEnvironment(), true, () -> meterRegistry, 1);
+
+        loggingAspect.logAfterThrowing(joinPoint, new IllegalStateException("failure"));
+
+        verify(joinPoint, atLeastOnce()).getSignature();
+    }
+
+    @Test
+    void testDoesNotLookUpTheRegistryWithoutTiming() throws Throwable {
+        LoggingAspect loggingAspect = new LoggingAspect(
+            new MockEnvironment(),
+            false,
+            () -> {
+                throw new IllegalStateException("No registry");
+            },
+            0
+        );
+
+        loggingAspect.logAround(joinPoint);
+
+        verify(joinPoint).proceed();
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.vazh.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.vazh.domain.Authority;
+import io.github.vazh.domain.User;
+import io.github.vazh.security.AuthoritiesConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.junit.jupiter.api.Test;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.MarshallingCodec;
+import org.springframework.beans.BeanUtils;
+
+class CompactCacheCodecTest {
+
+    private final Codec defaultCodec = new MarshallingCodec();
+
+    private final CompactCacheCodec codec = new CompactCacheCodec(defaultCodec, true);
+
+    @Test
+    void shouldRoundTripUser() throws IOException {
+        User user = user();
+
+        User decoded = (User) decode(codec, encode(codec, user));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(user);
+        assertThat(decoded.getAuthorities()).extracting(Authority::getName).containsOnly(AuthoritiesConstants.USER, "ROLE_CUSTOM");
+    }
+
+    @Test
+    void shouldWriteUserMuchSmallerThanDefaultCodec() throws IOException {
+        byte[] compact = encode(codec, user());
+        byte[] marshalled = encode(defaultCodec, user());
+
+        assertThat(compact[0]).isEqualTo(CompactCacheCodec.MAGIC);
+        assertThat(compact[1]).isEqualTo(CompactCacheCodec.VERSION);
+        assertThat(compact.length).isLessThan(marshalled.length / 3);
+    }
+
+    @Test
+    void shouldRoundTripHibernateStructuredEntries() throws IOException {
+        Map<String, Object> userEntry = new HashMap<>();
+        userEntry.put("_subclass", User.class.getName());
+        userEntry.put("_version", null);
+        userEntry.put("login", "john");
+        userEntry.put("activated", true);
+        userEntry.put("authorities", 1001L);
+        userEntry.put("createdDate", Instant.parse("2022-09-01T10:15:30.123Z"));
+        Object authoritiesEntry = Arrays.asList(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+
+        assertThat(decode(codec, encode(codec, userEntry))).isEqualTo(userEntry);
+        assertThat(decode(codec, encode(codec, authoritiesEntry))).isEqualTo(authoritiesEntry);
+        assertThat(decode(codec, encode(codec, Integer.MIN_VALUE))).isEqualTo(Integer.MIN_VALUE);
+        assertThat(decode(codec, encode(codec, "é€"))).isEqualTo("é€");
+    }
+
+    @Test
+    void shouldWriteOtherValuesWithDefaultCodec() throws IOException {
+        NearCacheManager.Invalidation invalidation = new NearCacheManager.Invalidation("node", "cache", List.of("key"));
+        Map<String, Object> entry = Map.of("amount", new BigDecimal("1.5"));
+
+        assertThat(encode(codec, invalidation)).isEqualTo(encode(defaultCodec, invalidation));
+        assertThat(encode(codec, entry)).isEqualTo(encode(defaultCodec, entry));
+        assertThat(decode(codec, encode(codec, entry))).isEqualTo(entry);
+    }
+
+    @Test
+    void shouldReadUserWrittenByDefaultCodec() throws IOException {
+        User user = user();
+
+        assertThat(decode(codec, encode(defaultCodec, user))).usingRecursiveComparison().isEqualTo(user);
+    }
+
+    @Test
+    void shouldReadUnstructuredHibernateEntryAsMiss() throws Exception {
+        CollectionCacheEntry entry = BeanUtils.instantiateClass(
+            CollectionCacheEntry.class.getDeclaredConstructor(Serializable.class),
+            (Object) new Serializable[] { AuthoritiesConstants.USER }
+        );
+
+        assertThat(decode(codec, encode(defaultCodec, entry))).isNull();
+    }
+
+    @Test
+    void shouldReadOtherVersionOrUndecodableValueAsMiss() throws IOException {
+        byte[] nextVersion = encode(codec, user());
+        nextVersion[1] = CompactCacheCodec.VERSION + 1;
+
+        assertThat(decode(codec, nextVersion)).isNull();
+        assertThat(decode(codec, new byte[] { 1, 2, 3 })).isNull();
+    }
+
+    @Test
+    void shouldReadTruncatedOrCorruptCompactValueAsMiss() throws IOException {
+        byte[] user = encode(codec, user());
+        byte[] unknownType = { CompactCacheCodec.MAGIC, CompactCacheCodec.VERSION, (byte) 0x7F };
+
+        assertThat(decode(codec, Arrays.copyOf(user, user.length / 2))).isNull();
+        assertThat(decode(codec, Arrays.copyOf(user, 3))).isNull();
+        assertThat(decode(codec, unknownType)).isNull();
+    }
+
+    @Test
+    void shouldOnlyWriteDefaultFormatWhenDisabled() throws IOException {
+        CompactCacheCodec disabledCodec = new CompactCacheCodec(defaultCodec, false);
+        User user = user();
+
+        assertThat(encode(disabledCodec, user)).isEqualTo(encode(defaultCodec, user));
+        assertThat(decode(disabledCodec, encode(codec, user))).usingRecursiveComparison().isEqualTo(user);
+    }
+
+    @Test
+    void shouldReadStructuredHibernateEntriesAsMissWhenDisabled() throws Exception {
+        CompactCacheCodec disabledCodec = new CompactCacheCodec(defaultCodec, false);
+        Map<String, Object> userEntry = new HashMap<>();
+        userEntry.put("_subclass", User.class.getName());
+        userEntry.put("login", "john");
+        Object authoritiesEntry = Arrays.asList(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        CollectionCacheEntry unstructuredEntry = BeanUtils.instantiateClass(
+            CollectionCacheEntry.class.getDeclaredConstructor(Serializable.class),
+            (Object) new Serializable[] { AuthoritiesConstants.USER }
+        );
+
+        assertThat(decode(disabledCodec, encode(codec, userEntry))).isNull();
+        assertThat(decode(disabledCodec, encode(codec, authoritiesEntry))).isNull();
+        assertThat(decode(disabledCodec, encode(defaultCodec, userEntry))).isNull();
+        assertThat(decode(disabledCodec, encode(disabledCodec, unstructuredEntry))).isInstanceOf(CollectionCacheEntry.class);
+    }
+
+    @Test
+    void shouldWriteMapKeysWithDefaultCodec() throws IOException {
+        ByteBuf key = codec.getMapKeyEncoder().encode("john");
+        try {
+            assertThat(ByteBufUtil.getBytes(key)).isEqualTo(encode(defaultCodec, "john"));
+        } finally {
+            key.release();
+        }
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1001L);
+        user.setLogin("john");
+        user.setPassword("$2a$10$VEjxo0jq2YG9Rbk2HmX9S.k1uZBGYUHdUcid3g/vfiEl7lwWgOH/K");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail("john.doe@localhost");
+        user.setActivated(true);
+        user.setLangKey("en");
+        user.setImageUrl("http://placehold.it/50x50");
+        user.setResetDate(Instant.parse("2022-09-02T08:00:00Z"));
+        user.setCreatedBy("system");
+        user.setCreatedDate(Instant.parse("2022-09-01T10:15:30.123456Z"));
+        user.setLastModifiedBy("admin");
+        user.setLastModifiedDate(Instant.parse("2022-09-03T12:00:00Z"));
+        Authority userAuthority = new Authority();
+        userAuthority.setName(AuthoritiesConstants.USER);
+        Authority customAuthority = new Authority();
+        customAuthority.setName("ROLE_CUSTOM");
+        user.setAuthorities(Set.of(userAuthority, customAuthority));
+        return user;
+    }
+
+    private static byte[] encode(Codec codec, Object value) throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(value);
+        try {
+            return ByteBufUtil.getBytes(buf);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static Object decode(Codec codec, byte[] bytes) throws IOException {
+        return codec.getValueDecoder().decode(Unpooled.wrappedBuffer(bytes), null);
+    }
+}
@@ -0,0 +1,211 @@
+package io.github.vazh.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.CacheAsync;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.misc.CompletableFutureWrapper;
+
+class NearCacheManagerTest {
+
+    private static final String CACHE_NAME = "usersByLogin";
+
+    private Cache<Object, Object> remoteCache;
+
+    private RTopic topic;
+
+    private MeterRegistry meterRegistry;
+
+    private NearCacheManager nearCacheManager;
+
+    private MessageListener<NearCacheManager.Invalidation> invalidationListener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        remoteCache = mock(Cache.class);
+        when(remoteCache.getName()).thenReturn(CACHE_NAME);
+        CacheManager remoteCacheManager = mock(CacheManager.class);
+        when(remoteCacheManager.getCache(CACHE_NAME)).thenReturn(remoteCache);
+        topic = mock(RTopic.class);
+        when(topic.publishAsync(any())).thenReturn(new CompletableFutureWrapper<>(1L));
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(NearCacheManager.INVALIDATION_TOPIC)).thenReturn(topic);
+        meterRegistry = new SimpleMeterRegistry();
+
+        nearCacheManager =
+            new NearCacheManager(remoteCacheManager, redissonClient, new ApplicationProperties.Cache.NearCache(), meterRegistry);
+
+        ArgumentCaptor<MessageListener<NearCacheManager.Invalidation>> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(NearCacheManager.Invalidation.class), listener.capture());
+        invalidationListener = listener.getValue();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromLocalTier() {
+        when(remoteCache.get("admin")).thenReturn("user-admin");
+        Cache<Object, Object> cache = nearCacheManager.getCache(CACHE_NAME);
+
+        assertThat(cache.get("admin")).isEqualTo("user-admin");
+        assertThat(cache.get("admin")).isEqualTo("user-admin");
+        assertThat(cache.get("unknown")).isNull();
+
+        verify(remoteCache, times(1)).get("admin");
+        NearCache.Statistics statistics = cache.unwrap(NearCache.class).getStatistics();
+        assertThat(statistics.getLocalHits()).isEqualTo(1);
+        assertThat(statistics.getLocalMisses()).isEqualTo(2);
+        assertThat(statistics.getRemoteHits()).isEqualTo(1);
+        assertThat(statistics.getRemoteMisses()).isEqualTo(1);
+        assertThat(statistics.getLocalHitRatio()).isEqualTo(1.0 / 3);
+        assertThat(meterRegistry.get(NearCacheManager.GETS_METER_NAME).tags("tier", "local", "result", "hit").functionCounter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(NearCacheManager.GETS_METER_NAME).tags("tier", "remote", "result", "miss").functionCounter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(NearCacheManager.SIZE_METER_NAME).tag("cache", CACHE_NAME).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReturnSameNearCacheForSameName() {
+        assertThat(nearCacheManager.<Object, Object>getCache(CACHE_NAME)).isSameAs(nearCacheManager.getCache(CACHE_NAME));
+        assertThat(nearCacheManager.<Object, Object>getCache("missing")).isNull();
+    }
+
+    @Test
+    void shouldEvictLocallyAndPublishOnWrite() {
+        when(remoteCache.get("admin")).thenReturn("user-admin", "user-admin-updated");
+        Cache<Object, Object> cache = nearCacheManager.getCache(CACHE_NAME);
+        cache.get("admin");
+
+        cache.put("admin", "user-admin-updated");
+
+        verify(remoteCache).put("admin", "user-admin-updated");
+        ArgumentCaptor<NearCacheManager.Invalidation> invalidation = ArgumentCaptor.forClass(NearCacheManager.Invalidation.class);
+        verify(topic).publishAsync(invalidation.capture());
+        assertThat(invalidation.getValue().getCacheName()).isEqualTo(CACHE_NAME);
+        assertThat(invalidation.getValue().getKeys()).containsExactly("admin");
+        assertThat(cache.get("admin")).isEqualTo("user-admin-updated");
+    }
+
+    @Test
+    void shouldPublishSingleInvalidationForSeveralKeys() {
+        when(remoteCache.get("admin")).thenReturn("user-admin");
+        Cache<Object, Object> cache = nearCacheManager.getCache(CACHE_NAME);
+        cache.get("admin");
+
+        cache.removeAll(Set.of("admin", "user"));
+
+        verify(remoteCache).removeAll(Set.of("admin", "user"));
+        ArgumentCaptor<NearCacheManager.Invalidation> invalidation = ArgumentCaptor.forClass(NearCacheManager.Invalidation.class);
+        verify(topic).publishAsync(invalidation.capture());
+        assertThat(invalidation.getValue().getKeys()).containsExactlyInAnyOrder("admin", "user");
+        cache.get("admin");
+        verify(remoteCache, times(2)).get("admin");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldEvictLocallyAndPublishOnceAsynchronousRemovalCompletes() {
+        Cache<Object, Object> asyncRemoteCache = mock(Cache.class, withSettings().extraInterfaces(CacheAsync.class));
+        when(asyncRemoteCache.getName()).thenReturn("usersByEmail");
+        when(asyncRemoteCache.get("admin@localhost")).thenReturn("user-admin");
+        CompletableFutureWrapper<Void> removal = new CompletableFutureWrapper<>(new CompletableFuture<>());
+        when(((CacheAsync<Object, Object>) asyncRemoteCache).removeAllAsync(Set.of("admin@localhost"))).thenReturn(removal);
+        NearCache<Object, Object> cache = new NearCache<>(
+            asyncRemoteCache,
+            nearCacheManager,
+            new ApplicationProperties.Cache.NearCache(),
+            (cacheName, keys) -> topic.publishAsync(new NearCacheManager.Invalidation("node", cacheName, keys))
+        );
+        cache.get("admin@localhost");
+
+        CompletionStage<Void> removed = cache.removeAllAsync(Set.of("admin@localhost"));
+
+        assertThat(removed.toCompletableFuture()).isNotDone();
+        verify(topic, never()).publishAsync(any());
+        removal.complete(null);
+        assertThat(removed.toCompletableFuture()).isCompleted();
+        verify(topic).publishAsync(any());
+        verify(asyncRemoteCache, never()).removeAll(any());
+        cache.get("admin@localhost");
+        verify(asyncRemoteCache, times(2)).get("admin@localhost");
+    }
+
+    @Test
+    void shouldPublishClearOfWholeCache() {
+        Cache<Object, Object> cache = nearCacheManager.getCache(CACHE_NAME);
+
+        cache.clear();
+
+        verify(remoteCache).clear();
+        ArgumentCaptor<NearCacheManager.Invalidation> invalidation = ArgumentCaptor.forClass(NearCacheManager.Invalidation.class);
+        verify(topic).publishAsync(invalidation.capture());
+        assertThat(invalidation.getValue().getKeys()).isNull();
+    }
+
+    @Test
+    void shouldEvictLocallyOnInvalidationFromOtherNode() {
+        when(remoteCache.get("admin")).thenReturn("user-admin", "user-admin-updated");
+        Cache<Object, Object> cache = nearCacheManager.getCache(CACHE_NAME);
+        cache.get("admin");
+
+        invalidationListener.onMessage(
+            NearCacheManager.INVALIDATION_TOPIC,
+            new NearCacheManager.Invalidation("other-node", CACHE_NAME, List.of("admin"))
+        );
+
+        assertThat(cache.get("admin")).isEqualTo("user-admin-updated");
+        verify(remoteCache, times(2)).get("admin");
+        verify(topic, never()).publishAsync(any());
+    }
+
+    @Test
+    void shouldIgnoreOwnInvalidations() {
+        when(remoteCache.get("admin")).thenReturn("user-admin");
+        Cache<Object, Object> cache = nearCacheManager.getCache(CACHE_NAME);
+        cache.put("other", "user-other");
+        cache.get("admin");
+        ArgumentCaptor<NearCacheManager.Invalidation> invalidation = ArgumentCaptor.forClass(NearCacheManager.Invalidation.class);
+        verify(topic).publishAsync(invalidation.capture());
+
+        invalidationListener.onMessage(
+            NearCacheManager.INVALIDATION_TOPIC,
+            new NearCacheManager.Invalidation(invalidation.getValue().getOrigin(), CACHE_NAME, null)
+        );
+
+        cache.get("admin");
+        verify(remoteCache, times(1)).get("admin");
+    }
+
+    @Test
+    void shouldNotKeepValueInvalidatedWhileBeingRead() {
+        Cache<Object, Object> cache = nearCacheManager.getCache(CACHE_NAME);
+        when(remoteCache.get("admin"))
+            .thenAnswer(invocation -> {
+                invalidationListener.onMessage(
+                    NearCacheManager.INVALIDATION_TOPIC,
+                    new NearCacheManager.Invalidation("other-node", CACHE_NAME, List.of("admin"))
+                );
+                return "user-admin-stale";
+            })
+            .thenReturn("user-admin-updated");
+
+        assertThat(cache.get("admin")).isEqualTo("user-admin-stale");
+        assertThat(cache.get("admin")).isEqualTo("user-admin-updated");
+    }
+}
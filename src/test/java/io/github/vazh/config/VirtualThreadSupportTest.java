@@ -0,0 +1,38 @@
+package io.github.vazh.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link VirtualThreadSupport}.
+ */
+class VirtualThreadSupportTest {
+
+    @Test
+    void testIsAvailableFromJava21() {
+        assertThat(VirtualThreadSupport.isAvailable()).isEqualTo(Runtime.version().feature() >= 21);
+    }
+
+    @Test
+    void testRunsTasksOnNamedVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreadSupport.isAvailable());
+        CompletableFuture<String> threadName = new CompletableFuture<>();
+
+        VirtualThreadSupport.executor("test-virtual-").execute(() -> threadName.complete(Thread.currentThread().getName()));
+
+        assertThat(threadName.get(5, TimeUnit.SECONDS)).isEqualTo("test-virtual-0");
+    }
+
+    @Test
+    void testRejectsVirtualThreadsBeforeJava21() {
+        assumeFalse(VirtualThreadSupport.isAvailable());
+
+        assertThatIllegalStateException().isThrownBy(() -> VirtualThreadSupport.threadFactory("test-virtual-"));
+    }
+}
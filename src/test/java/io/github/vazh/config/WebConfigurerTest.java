@@ -37,6 +37,8 @@ class WebConfigurerTest {
 
     private JHipsterProperties props;
 
+    private ApplicationProperties applicationProperties;
+
     @BeforeEach
     public void setup() {
         servletContext = spy(new MockServletContext());
@@ -46,7 +48,9 @@ class WebConfigurerTest {
         env = new MockEnvironment();
         props = new JHipsterProperties();
 
-        webConfigurer = new WebConfigurer(env, props);
+        applicationProperties = new ApplicationProperties();
+
+        webConfigurer = new WebConfigurer(env, props, applicationProperties);
     }
 
     @Test
@@ -62,6 +66,17 @@ class WebConfigurerTest {
         }
     }
 
+    @Test
+    void shouldHandleRequestsOnVirtualThreadsWhenAvailable() {
+        UndertowServletWebServerFactory container = new UndertowServletWebServerFactory();
+        webConfigurer.customize(container);
+        assertThat(container.getDeploymentInfoCustomizers()).isEmpty();
+
+        applicationProperties.getVirtualThreads().setEnabled(true);
+        webConfigurer.customize(container);
+        assertThat(container.getDeploymentInfoCustomizers()).hasSize(VirtualThreadSupport.isAvailable() ? 1 : 0);
+    }
+
     @Test
     void shouldCorsFilterOnApiPath() throws Exception {
         props.getCors().setAllowedOrigins(Collections.singletonList("other.domain.com"));
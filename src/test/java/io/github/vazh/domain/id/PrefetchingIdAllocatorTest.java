@@ -0,0 +1,77 @@
+package io.github.vazh.domain.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link PrefetchingIdAllocator}.
+ */
+class PrefetchingIdAllocatorTest {
+
+    private final AtomicLong sequence = new AtomicLong(1000);
+
+    private final List<Runnable> backgroundTasks = new ArrayList<>();
+
+    private final LongSupplier source = () -> sequence.getAndAdd(10);
+
+    @Test
+    void testAllocatesBlocksFromTheLowValue() {
+        PrefetchingIdAllocator allocator = new PrefetchingIdAllocator(10, 0, Runnable::run, source);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ids.add(allocator.next(source));
+        }
+
+        assertThat(ids).containsExactly(1000L, 1001L, 1002L, 1003L, 1004L, 1005L, 1006L, 1007L, 1008L, 1009L, 1010L, 1011L);
+    }
+
+    @Test
+    void testPrefetchesTheNextBlockInTheBackground() {
+        PrefetchingIdAllocator allocator = new PrefetchingIdAllocator(10, 5, backgroundTasks::add, source);
+        LongSupplier failingSource = () -> {
+            throw new AssertionError("The next block should have been prefetched");
+        };
+
+        assertThat(allocator.next(source)).isEqualTo(1000);
+        for (int i = 1; i < 5; i++) {
+            assertThat(allocator.next(failingSource)).isEqualTo(1000 + i);
+        }
+        assertThat(backgroundTasks).hasSize(1);
+        backgroundTasks.get(0).run();
+        for (int i = 5; i < 10; i++) {
+            assertThat(allocator.next(failingSource)).isEqualTo(1000 + i);
+        }
+        assertThat(allocator.next(failingSource)).isEqualTo(1010);
+        assertThat(sequence.get()).isEqualTo(1020);
+    }
+
+    @Test
+    void testReadsTheNextBlockWhenThePrefetchingFails() {
+        PrefetchingIdAllocator allocator = new PrefetchingIdAllocator(
+            10,
+            9,
+            Runnable::run,
+            () -> {
+                throw new IllegalStateException("Database is down");
+            }
+        );
+
+        for (int i = 0; i < 10; i++) {
+            allocator.next(source);
+        }
+
+        assertThat(allocator.next(source)).isEqualTo(1010);
+    }
+
+    @Test
+    void testRejectsAPrefetchThresholdOfTheBlockSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new PrefetchingIdAllocator(10, 10, Runnable::run, source));
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.vazh.domain.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.vazh.config.ApplicationProperties;
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.PostgreSQL10Dialect;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.type.LongType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link PrefetchingSequenceGenerator}.
+ */
+class PrefetchingSequenceGeneratorTest {
+
+    private StandardServiceRegistry serviceRegistry;
+
+    @AfterEach
+    void closeServiceRegistry() {
+        if (serviceRegistry != null) {
+            StandardServiceRegistryBuilder.destroy(serviceRegistry);
+        }
+    }
+
+    @Test
+    void testReadsTheBlockSizeOfTheEntity() {
+        ApplicationProperties.IdGenerator idGenerator = new ApplicationProperties.IdGenerator();
+        ApplicationProperties.IdGenerator.Blocks blocks = new ApplicationProperties.IdGenerator.Blocks();
+        blocks.setBlockSize(100);
+        idGenerator.getEntities().put("MailOutboxEntry", blocks);
+        serviceRegistry = serviceRegistry(idGenerator);
+
+        PrefetchingSequenceGenerator mailOutboxGenerator = new PrefetchingSequenceGenerator();
+        mailOutboxGenerator.configure(LongType.INSTANCE, params("MailOutboxEntry", "mail_outbox_sequence_generator"), serviceRegistry);
+        PrefetchingSequenceGenerator userGenerator = new PrefetchingSequenceGenerator();
+        userGenerator.configure(LongType.INSTANCE, params("User", "jhi_user_sequence_generator"), serviceRegistry);
+
+        assertThat(mailOutboxGenerator.getDatabaseStructure().getIncrementSize()).isEqualTo(100);
+        assertThat(userGenerator.getDatabaseStructure().getIncrementSize()).isEqualTo(1000);
+    }
+
+    @Test
+    void testRequiresTheIdGeneratorSetting() {
+        serviceRegistry = serviceRegistry(null);
+        PrefetchingSequenceGenerator generator = new PrefetchingSequenceGenerator();
+
+        assertThatThrownBy(() -> generator.configure(LongType.INSTANCE, params("User", "jhi_user_sequence_generator"), serviceRegistry))
+            .isInstanceOf(MappingException.class);
+    }
+
+    private static StandardServiceRegistry serviceRegistry(ApplicationProperties.IdGenerator idGenerator) {
+        StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.DIALECT, PostgreSQL10Dialect.class.getName())
+            .applySetting("hibernate.temp.use_jdbc_metadata_defaults", false);
+        if (idGenerator != null) {
+            builder.applySetting(PrefetchingSequenceGenerator.ID_GENERATOR_SETTING, idGenerator);
+        }
+        return builder.build();
+    }
+
+    private static Properties params(String entityName, String sequenceName) {
+        Properties params = new Properties();
+        params.setProperty(IdentifierGenerator.JPA_ENTITY_NAME, entityName);
+        params.setProperty(SequenceStyleGenerator.SEQUENCE_PARAM, sequenceName);
+        return params;
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.vazh.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class HotPathsTests {
+
+    @AfterEach
+    public void disable() {
+        HotPaths.disable();
+    }
+
+    @Test
+    void testNothingIsRecordedWhenDisabled() {
+        HotPaths.begin();
+
+        assertThat(HotPaths.start()).isEqualTo(HotPaths.NOT_RECORDING);
+        HotPaths.SlowestRequests slowestRequests = new HotPaths.SlowestRequests(4);
+        HotPaths.enable(slowestRequests);
+        HotPaths.end("GET", "/api/account", 200, null, TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(slowestRequests.getRequests()).isEmpty();
+    }
+
+    @Test
+    void testRecordsThePhasesAndEventsOfARequest() {
+        HotPaths.SlowestRequests slowestRequests = new HotPaths.SlowestRequests(4);
+        HotPaths.enable(slowestRequests);
+
+        HotPaths.begin();
+        long start = HotPaths.start();
+        HotPaths.increment(HotPaths.Event.LOCAL_CACHE_MISS, 1);
+        HotPaths.increment(HotPaths.Event.REMOTE_CACHE_HIT, 1);
+        HotPaths.stop(HotPaths.Phase.USER_LOOKUP, start);
+        HotPaths.end("GET", "/api/account", 200, "0af7651916cd43dd8448eb211c80319c", TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(slowestRequests.getRequests()).hasSize(1);
+        HotPaths.Request request = slowestRequests.getRequests().get(0);
+        assertThat(request.getUri()).isEqualTo("/api/account");
+        assertThat(request.getTraceId()).isEqualTo("0af7651916cd43dd8448eb211c80319c");
+        assertThat(request.getDuration()).isEqualTo(5.0);
+        assertThat(request.getPhases()).containsOnlyKeys(HotPaths.Phase.USER_LOOKUP);
+        assertThat(request.getEvents())
+            .containsEntry(HotPaths.Event.LOCAL_CACHE_MISS, 1L)
+            .containsEntry(HotPaths.Event.REMOTE_CACHE_HIT, 1L)
+            .hasSize(2);
+        // The request is over
+        assertThat(HotPaths.start()).isEqualTo(HotPaths.NOT_RECORDING);
+    }
+
+    @Test
+    void testKeepsTheSlowestRequests() {
+        HotPaths.SlowestRequests slowestRequests = new HotPaths.SlowestRequests(3);
+        HotPaths.enable(slowestRequests);
+
+        for (int duration : new int[] { 4, 1, 7, 3, 9, 2, 8 }) {
+            HotPaths.begin();
+            HotPaths.end("GET", "/api/account", 200, null, TimeUnit.MILLISECONDS.toNanos(duration));
+        }
+
+        assertThat(slowestRequests.getRequests()).extracting(HotPaths.Request::getDuration).containsExactly(9.0, 8.0, 7.0);
+        slowestRequests.clear();
+        assertThat(slowestRequests.getRequests()).isEmpty();
+    }
+
+    @Test
+    void testKeepsTheSlowestRequestsOfConcurrentThreads() throws Exception {
+        HotPaths.SlowestRequests slowestRequests = new HotPaths.SlowestRequests(10);
+        HotPaths.enable(slowestRequests);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            threads.add(
+                new Thread(() -> {
+                    for (int i = offset; i < 1000; i += 4) {
+                        HotPaths.begin();
+                        HotPaths.end("GET", "/api/account", 200, null, i + 1);
+                    }
+                })
+            );
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(slowestRequests.getRequests().stream().map(request -> Math.round(request.getDuration() * 1_000_000)))
+            .containsExactly(1000L, 999L, 998L, 997L, 996L, 995L, 994L, 993L, 992L, 991L);
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.vazh.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exemplars.DefaultExemplarSampler;
+import io.prometheus.client.exporter.common.TextFormat;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsProperties;
+import org.springframework.boot.actuate.autoconfigure.metrics.PropertiesMeterFilter;
+
+class HttpRequestsMetricsPolicyTests {
+
+    private static final String METRIC_NAME = "http.server.requests";
+
+    private static final List<String> URIS = List.of(
+        "/api/authenticate",
+        "/api/account",
+        "/api/account/change-password",
+        "/api/register",
+        "/api/activate",
+        "/api/account/reset-password/init",
+        "/api/admin/users",
+        "/api/admin/users/{login}",
+        "/api/authorities",
+        "/management/health",
+        "/management/info",
+        "/management/prometheus",
+        "root",
+        "NOT_FOUND"
+    );
+
+    private static final List<String> STATUSES = List.of("200", "201", "400", "401", "404", "500");
+
+    @AfterEach
+    public void clearMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    void testHistogramIsOnlyPublishedForNamedUris() {
+        PrometheusMeterRegistry registry = policyRegistry(null);
+
+        Timer named = timer(registry, "/api/admin/users/{login}", "200");
+        Timer other = timer(registry, "/api/authorities", "200");
+
+        assertThat(named.takeSnapshot().histogramCounts()).hasSize(new ApplicationProperties().getMetrics().getSlo().size());
+        assertThat(named.takeSnapshot().percentileValues()).isEmpty();
+        assertThat(other.takeSnapshot().histogramCounts()).isEmpty();
+        assertThat(other.takeSnapshot().percentileValues()).isEmpty();
+    }
+
+    @Test
+    void testSeriesCountIsReducedFromPercentilesAndHistogramsForAllMeters() {
+        MetricsProperties previous = new MetricsProperties();
+        previous.getDistribution().getPercentilesHistogram().put("all", true);
+        previous.getDistribution().getPercentiles().put("all", new double[] { 0, 0.5, 0.75, 0.95, 0.99, 1.0 });
+        PrometheusMeterRegistry previousRegistry = registry(null);
+        previousRegistry.config().meterFilter(new PropertiesMeterFilter(previous));
+        PrometheusMeterRegistry policyRegistry = policyRegistry(null);
+
+        for (String uri : URIS) {
+            for (String status : STATUSES) {
+                timer(previousRegistry, uri, status);
+                timer(policyRegistry, uri, status);
+            }
+        }
+
+        long previousSeries = seriesCount(previousRegistry);
+        long policySeries = seriesCount(policyRegistry);
+        // 84 timers, with more than 70 buckets and 6 percentiles each before. After, the 42 timers of named URIs have 10
+        // buckets, and all the timers have their count, sum and max
+        assertThat(previousSeries).isGreaterThan(84 * 76);
+        assertThat(policySeries).isEqualTo(42 * 10 + 84 * 3);
+        assertThat(policySeries).isLessThan(previousSeries / 9);
+    }
+
+    @Test
+    void testBucketsHaveExemplarsOfTheCurrentRequest() {
+        PrometheusMeterRegistry registry = policyRegistry(new DefaultExemplarSampler(new RequestSpanContextSupplier("traceId", "spanId")));
+        MDC.put("traceId", "0af7651916cd43dd8448eb211c80319c");
+        MDC.put("spanId", "b7ad6b7169203331");
+
+        timer(registry, "/api/account", "200").record(Duration.ofMillis(30));
+
+        assertThat(registry.scrape(TextFormat.CONTENT_TYPE_OPENMETRICS_100))
+            .contains("trace_id=\"0af7651916cd43dd8448eb211c80319c\"")
+            .contains("span_id=\"b7ad6b7169203331\"");
+    }
+
+    private static PrometheusMeterRegistry policyRegistry(DefaultExemplarSampler exemplarSampler) {
+        ApplicationProperties.Metrics metrics = new ApplicationProperties().getMetrics();
+        PrometheusMeterRegistry registry = registry(exemplarSampler);
+        registry.config().meterFilter(new HttpRequestsMetricsPolicy(METRIC_NAME, metrics.getHistogramUris(), metrics.getSlo()));
+        return registry;
+    }
+
+    private static PrometheusMeterRegistry registry(DefaultExemplarSampler exemplarSampler) {
+        return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT, new CollectorRegistry(), Clock.SYSTEM, exemplarSampler);
+    }
+
+    private static Timer timer(PrometheusMeterRegistry registry, String uri, String status) {
+        Timer timer = registry.timer(
+            METRIC_NAME,
+            Tags.of("uri", uri, "status", status, "method", "GET", "outcome", "SUCCESS", "exception", "None")
+        );
+        timer.record(Duration.ofMillis(20));
+        return timer;
+    }
+
+    private static long seriesCount(PrometheusMeterRegistry registry) {
+        return registry.scrape().lines().filter(line -> !line.startsWith("#") && !line.isBlank()).count();
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.vazh.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MailMetersServiceTests {
+
+    private static final String QUEUE_DEPTH_METER_EXPECTED_NAME = "mail.queue.depth";
+    private static final String SEND_METER_EXPECTED_NAME = "mail.send";
+    private static final String DELIVERY_METER_EXPECTED_NAME = "mail.delivery";
+    private static final String FAILURES_METER_EXPECTED_NAME = "mail.failures";
+
+    private MeterRegistry meterRegistry;
+
+    private MailMetersService mailMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        mailMetersService = new MailMetersService(meterRegistry);
+    }
+
+    @Test
+    void testMailMetersAreCreated() {
+        meterRegistry.get(SEND_METER_EXPECTED_NAME).timer();
+        meterRegistry.get(DELIVERY_METER_EXPECTED_NAME).timer();
+
+        assertThat(meterRegistry.get(FAILURES_METER_EXPECTED_NAME).counters()).hasSize(4);
+    }
+
+    @Test
+    void testQueueDepthIsTracked() {
+        AtomicInteger depth = new AtomicInteger(3);
+        mailMetersService.registerQueueDepth(depth::get);
+
+        assertThat(meterRegistry.get(QUEUE_DEPTH_METER_EXPECTED_NAME).gauge().value()).isEqualTo(3);
+        depth.set(1);
+        assertThat(meterRegistry.get(QUEUE_DEPTH_METER_EXPECTED_NAME).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testSendsAndDeliveriesAreTracked() {
+        mailMetersService.trackSend(TimeUnit.MILLISECONDS.toNanos(20));
+        mailMetersService.trackDelivery(TimeUnit.MILLISECONDS.toNanos(30));
+        mailMetersService.trackDelivery(TimeUnit.MILLISECONDS.toNanos(40));
+
+        assertThat(meterRegistry.get(SEND_METER_EXPECTED_NAME).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(DELIVERY_METER_EXPECTED_NAME).timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(DELIVERY_METER_EXPECTED_NAME).timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(70);
+    }
+
+    @Test
+    void testFailuresAreTrackedByOutcome() {
+        mailMetersService.trackRetried();
+        mailMetersService.trackRetried();
+        mailMetersService.trackAbandoned();
+        mailMetersService.trackRejected();
+        mailMetersService.trackDropped();
+
+        assertThat(meterRegistry.get(FAILURES_METER_EXPECTED_NAME).tags("outcome", "retried").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(FAILURES_METER_EXPECTED_NAME).tags("outcome", "abandoned").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(FAILURES_METER_EXPECTED_NAME).tags("outcome", "rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(FAILURES_METER_EXPECTED_NAME).tags("outcome", "dropped").counter().count()).isEqualTo(1);
+    }
+}
@@ -6,12 +6,19 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class SecurityMetersServiceTests {
 
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
+    private static final String TOKEN_CACHE_METER_EXPECTED_NAME = "security.authentication.token-cache";
+    private static final String TOKEN_CACHE_EVICTIONS_METER_EXPECTED_NAME = "security.authentication.token-cache.evictions";
+    private static final String PASSWORD_HASHING_METER_EXPECTED_NAME = "security.password-hashing";
+    private static final String PASSWORD_HASHING_QUEUE_WAIT_METER_EXPECTED_NAME = "security.password-hashing.queue-wait";
+    private static final String PASSWORD_HASHING_REJECTED_METER_EXPECTED_NAME = "security.password-hashing.rejected";
+    private static final String PASSWORD_REHASHED_METER_EXPECTED_NAME = "security.password-hashing.rehashed";
 
     private MeterRegistry meterRegistry;
 
@@ -67,4 +74,37 @@ class SecurityMetersServiceTests {
 
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
+
+    @Test
+    void testTokenCacheMethodsShouldBeBoundToCorrectCounters() {
+        assertThat(meterRegistry.find(TOKEN_CACHE_METER_EXPECTED_NAME).counters()).hasSize(2);
+
+        securityMetersService.trackTokenCacheHit();
+        securityMetersService.trackTokenCacheHit();
+        securityMetersService.trackTokenCacheMiss();
+        securityMetersService.trackTokenCacheEviction();
+
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TOKEN_CACHE_EVICTIONS_METER_EXPECTED_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPasswordHashingMethodsShouldBeBoundToCorrectMeters() {
+        assertThat(meterRegistry.find(PASSWORD_HASHING_METER_EXPECTED_NAME).timers()).hasSize(2);
+
+        securityMetersService.trackPasswordHashing(SecurityMetersService.PASSWORD_HASHING_OPERATION_ENCODE, 1_000_000);
+        securityMetersService.trackPasswordHashing(SecurityMetersService.PASSWORD_HASHING_OPERATION_MATCHES, 2_000_000);
+        securityMetersService.trackPasswordHashing(SecurityMetersService.PASSWORD_HASHING_OPERATION_MATCHES, 2_000_000);
+        securityMetersService.trackPasswordHashingQueueWait(3_000_000);
+        securityMetersService.trackPasswordHashingRejected();
+        securityMetersService.trackPasswordRehashed();
+
+        assertThat(meterRegistry.get(PASSWORD_HASHING_METER_EXPECTED_NAME).tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(PASSWORD_HASHING_METER_EXPECTED_NAME).tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(PASSWORD_HASHING_QUEUE_WAIT_METER_EXPECTED_NAME).timer().totalTime(TimeUnit.MILLISECONDS))
+            .isEqualTo(3);
+        assertThat(meterRegistry.get(PASSWORD_HASHING_REJECTED_METER_EXPECTED_NAME).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(PASSWORD_REHASHED_METER_EXPECTED_NAME).counter().count()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,43 @@
+package io.github.vazh.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UserMetersServiceTests {
+
+    private static final String CLEANUP_DELETED_METER_EXPECTED_NAME = "users.cleanup.deleted";
+    private static final String CLEANUP_CHUNKS_METER_EXPECTED_NAME = "users.cleanup.chunks";
+
+    private MeterRegistry meterRegistry;
+
+    private UserMetersService userMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        userMetersService = new UserMetersService(meterRegistry);
+    }
+
+    @Test
+    void testCleanupMetersAreCreated() {
+        meterRegistry.get(CLEANUP_DELETED_METER_EXPECTED_NAME).counter();
+
+        meterRegistry.get(CLEANUP_CHUNKS_METER_EXPECTED_NAME).timer();
+    }
+
+    @Test
+    void testCleanupChunksAreTracked() {
+        userMetersService.trackCleanupChunk(500, TimeUnit.MILLISECONDS.toNanos(20));
+        userMetersService.trackCleanupChunk(12, TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(meterRegistry.get(CLEANUP_DELETED_METER_EXPECTED_NAME).counter().count()).isEqualTo(512);
+        assertThat(meterRegistry.get(CLEANUP_CHUNKS_METER_EXPECTED_NAME).timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(CLEANUP_CHUNKS_METER_EXPECTED_NAME).timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(25);
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.vazh.management;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadPinningMonitorTests {
+
+    private static final String PINNED_METER_EXPECTED_NAME = "jvm.threads.virtual.pinned";
+
+    @Test
+    void testPinnedMeterIsCreated() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(20));
+        monitor.destroy();
+
+        meterRegistry.get(PINNED_METER_EXPECTED_NAME).timer();
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.vazh.repository;
+
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import io.github.vazh.config.NearCache;
+import io.github.vazh.domain.User;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.access.CollectionDataAccess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Test class for the {@link UserCacheEvictor}.
+ */
+class UserCacheEvictorTest {
+
+    private static final String USER_REGION = User.class.getName();
+
+    private static final String AUTHORITIES_REGION = User.class.getName() + ".authorities";
+
+    private javax.cache.Cache<Object, Object> usersByLogin;
+
+    private javax.cache.Cache<Object, Object> usersByEmail;
+
+    private javax.cache.Cache<Object, Object> userRegion;
+
+    private javax.cache.Cache<Object, Object> authoritiesRegion;
+
+    private UserCacheEvictor userCacheEvictor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        usersByLogin = mock(javax.cache.Cache.class);
+        usersByEmail = mock(javax.cache.Cache.class);
+        userRegion = mock(javax.cache.Cache.class);
+        authoritiesRegion = mock(javax.cache.Cache.class);
+        Cache usersByLoginCache = nativeCache(usersByLogin);
+        Cache usersByEmailCache = nativeCache(usersByEmail);
+        Cache userRegionCache = nativeCache(userRegion);
+        Cache authoritiesRegionCache = nativeCache(authoritiesRegion);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).thenReturn(usersByLoginCache);
+        when(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).thenReturn(usersByEmailCache);
+        when(cacheManager.getCache(USER_REGION)).thenReturn(userRegionCache);
+        when(cacheManager.getCache(AUTHORITIES_REGION)).thenReturn(authoritiesRegionCache);
+        EntityManagerFactory entityManagerFactory = mockSecondLevelCache();
+        userCacheEvictor = new UserCacheEvictor(cacheManager, entityManagerFactory);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(userCacheEvictor);
+    }
+
+    @Test
+    void testEvictsImmediatelyOutsideOfTransaction() {
+        userCacheEvictor.evict(user("john", null));
+
+        verify(usersByLogin).removeAll(Set.of("john"));
+        verifyNoInteractions(usersByEmail);
+    }
+
+    @Test
+    void testEvictsOldAndNewLoginAndEmailOnceAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        User user = user("john", "john@localhost");
+
+        userCacheEvictor.evict(user);
+        user.setLogin("johnny");
+        user.setEmail("johnny@localhost");
+        userCacheEvictor.evict(user);
+        userCacheEvictor.evict(user);
+
+        verifyNoInteractions(usersByLogin, usersByEmail);
+        complete(true);
+        verify(usersByLogin).removeAll(Set.of("john", "johnny"));
+        verify(usersByEmail).removeAll(Set.of("john@localhost", "johnny@localhost"));
+        verifyNoMoreInteractions(usersByLogin, usersByEmail);
+    }
+
+    @Test
+    void testDoesNotEvictAfterRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        userCacheEvictor.evict(user("john", "john@localhost"));
+        userCacheEvictor.evictEntity(1L);
+
+        complete(false);
+        verifyNoInteractions(usersByLogin, usersByEmail, userRegion, authoritiesRegion);
+    }
+
+    @Test
+    void testEvictsEntityAndAuthoritiesFromSecondLevelCacheAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        userCacheEvictor.evictEntity(1L);
+        userCacheEvictor.evictEntity(2L);
+
+        verifyNoInteractions(userRegion, authoritiesRegion);
+        complete(true);
+        verify(userRegion).removeAll(Set.of("user#1", "user#2"));
+        verify(authoritiesRegion).removeAll(Set.of("authorities#1", "authorities#2"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSendsTheRemovalsOfAllNearCachesBeforeWaiting() {
+        NearCache<Object, Object> usersByLoginNearCache = mock(NearCache.class);
+        NearCache<Object, Object> userRegionNearCache = mock(NearCache.class);
+        CompletableFuture<Void> usersByLoginRemoval = new CompletableFuture<>();
+        when(usersByLoginNearCache.removeAllAsync(any())).thenReturn(usersByLoginRemoval);
+        when(userRegionNearCache.removeAllAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+        Cache usersByLoginCache = mock(Cache.class);
+        when(usersByLoginCache.getNativeCache()).thenReturn(usersByLoginNearCache);
+        Cache userRegionCache = mock(Cache.class);
+        when(userRegionCache.getNativeCache()).thenReturn(userRegionNearCache);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).thenReturn(usersByLoginCache);
+        when(cacheManager.getCache(USER_REGION)).thenReturn(userRegionCache);
+        UserCacheEvictor nearCacheEvictor = new UserCacheEvictor(cacheManager, mockSecondLevelCache());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            nearCacheEvictor.evict(user("john", null));
+            nearCacheEvictor.evictEntity(1L);
+            // Completed by Redis once every removal has been sent
+            doAnswer(invocation -> usersByLoginRemoval.complete(null)).when(userRegionNearCache).removeAllAsync(any());
+
+            var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> synchronizations.forEach(TransactionSynchronization::afterCommit));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.unbindResourceIfPossible(nearCacheEvictor);
+        }
+
+        verify(usersByLoginNearCache).removeAllAsync(Set.of("john"));
+        verify(userRegionNearCache).removeAllAsync(Set.of("user#1"));
+        verify(usersByLoginNearCache, never()).removeAll(any());
+    }
+
+    @Test
+    void testEvictsKeysOneByOneFromOtherCaches() {
+        Cache cache = spy(new ConcurrentMapCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(any())).thenReturn(cache);
+
+        new UserCacheEvictor(cacheManager, mock(EntityManagerFactory.class)).evict(user("john", null));
+
+        verify(cache).evict("john");
+    }
+
+    private static void complete(boolean committed) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        int status = committed ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EntityManagerFactory mockSecondLevelCache() {
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class, RETURNS_DEEP_STUBS);
+        EntityPersister userPersister = sessionFactory.getMetamodel().entityPersister(User.class);
+        when(userPersister.canWriteToCache()).thenReturn(true);
+        EntityDataAccess userAccess = userPersister.getCacheAccessStrategy();
+        when(userAccess.getRegion().getName()).thenReturn(USER_REGION);
+        when(userAccess.generateCacheKey(any(), eq(userPersister), eq(sessionFactory), isNull()))
+            .thenAnswer(invocation -> "user#" + invocation.getArgument(0));
+        CollectionPersister authoritiesPersister = sessionFactory.getMetamodel().collectionPersister(AUTHORITIES_REGION);
+        when(authoritiesPersister.hasCache()).thenReturn(true);
+        CollectionDataAccess authoritiesAccess = authoritiesPersister.getCacheAccessStrategy();
+        when(authoritiesAccess.getRegion().getName()).thenReturn(AUTHORITIES_REGION);
+        when(authoritiesAccess.generateCacheKey(any(), eq(authoritiesPersister), eq(sessionFactory), isNull()))
+            .thenAnswer(invocation -> "authorities#" + invocation.getArgument(0));
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        return entityManagerFactory;
+    }
+
+    private static Cache nativeCache(javax.cache.Cache<Object, Object> nativeCache) {
+        Cache cache = mock(Cache.class);
+        when(cache.getNativeCache()).thenReturn(nativeCache);
+        return cache;
+    }
+
+    private static User user(String login, String email) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(email);
+        return user;
+    }
+}
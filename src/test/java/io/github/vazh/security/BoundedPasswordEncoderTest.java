@@ -0,0 +1,147 @@
+package io.github.vazh.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Test class for the {@link BoundedPasswordEncoder} password encoder.
+ */
+class BoundedPasswordEncoderTest {
+
+    private ApplicationProperties.Security.PasswordHashing properties;
+
+    private MeterRegistry meterRegistry;
+
+    private SecurityMetersService securityMetersService;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties.Security.PasswordHashing();
+        properties.setStrength(4);
+        properties.setPoolSize(1);
+        properties.setQueueCapacity(1);
+        properties.setTimeout(Duration.ofSeconds(5));
+        properties.setRetryAfter(Duration.ofSeconds(3));
+        meterRegistry = new SimpleMeterRegistry();
+        securityMetersService = new SecurityMetersService(meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (passwordEncoder != null) {
+            passwordEncoder.destroy();
+        }
+    }
+
+    @Test
+    void testEncodesAndMatchesOnHashingPool() {
+        passwordEncoder = new BoundedPasswordEncoder(properties, securityMetersService);
+
+        String encodedPassword = passwordEncoder.encode("password");
+
+        assertThat(encodedPassword).startsWith("$2a$04$");
+        assertThat(passwordEncoder.matches("password", encodedPassword)).isTrue();
+        assertThat(passwordEncoder.matches("other", encodedPassword)).isFalse();
+        assertThat(meterRegistry.get(SecurityMetersService.PASSWORD_HASHING_METER_NAME).tag("operation", "encode").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(SecurityMetersService.PASSWORD_HASHING_METER_NAME).tag("operation", "matches").timer().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get(SecurityMetersService.PASSWORD_HASHING_QUEUE_WAIT_METER_NAME).timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testUpgradeEncodingWhenCostChanged() {
+        passwordEncoder = new BoundedPasswordEncoder(properties, securityMetersService);
+
+        assertThat(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password"))).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding("$2b$12$abcdefghijklmnopqrstuv")).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding("not-a-bcrypt-hash")).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        passwordEncoder = new BoundedPasswordEncoder(properties, blockingEncoder(started, release), securityMetersService);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("running"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("queued"));
+        waitForQueuedTask();
+
+        assertThatThrownBy(() -> passwordEncoder.encode("rejected"))
+            .isInstanceOfSatisfying(
+                PasswordHashingBusyException.class,
+                e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(3))
+            );
+        assertThat(meterRegistry.get(SecurityMetersService.PASSWORD_HASHING_REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    void testRejectsWhenTimedOut() throws Exception {
+        properties.setTimeout(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        passwordEncoder = new BoundedPasswordEncoder(properties, blockingEncoder(new CountDownLatch(1), release), securityMetersService);
+
+        assertThatThrownBy(() -> passwordEncoder.matches("password", "encoded")).isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(meterRegistry.get(SecurityMetersService.PASSWORD_HASHING_REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    private void waitForQueuedTask() throws InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(passwordEncoder, "executor");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getQueue().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                await();
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                await();
+                return rawPassword.toString().equals(encodedPassword);
+            }
+
+            private void await() {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+}
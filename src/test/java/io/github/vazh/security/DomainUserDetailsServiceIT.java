@@ -14,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -37,6 +38,9 @@ class DomainUserDetailsServiceIT {
     @Qualifier("userDetailsService")
     private UserDetailsService domainUserDetailsService;
 
+    @Autowired
+    private UnknownLoginCache unknownLoginCache;
+
     @BeforeEach
     public void init() {
         User userOne = new User();
@@ -110,4 +114,25 @@ class DomainUserDetailsServiceIT {
         assertThatExceptionOfType(UserNotActivatedException.class)
             .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_THREE_LOGIN));
     }
+
+    @Test
+    void assertThatUnknownLoginIsRejectedFromCacheUntilForgotten() {
+        String login = "test-user-unknown-" + RandomStringUtils.randomAlphanumeric(8).toLowerCase(Locale.ENGLISH);
+        assertThatExceptionOfType(UsernameNotFoundException.class).isThrownBy(() -> domainUserDetailsService.loadUserByUsername(login));
+        assertThat(unknownLoginCache.isUnknown(login)).isTrue();
+
+        User user = new User();
+        user.setLogin(login);
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail(login + "@localhost");
+        user.setLangKey("en");
+        userRepository.save(user);
+
+        assertThatExceptionOfType(UsernameNotFoundException.class).isThrownBy(() -> domainUserDetailsService.loadUserByUsername(login));
+
+        unknownLoginCache.forget(login, user.getEmail());
+
+        assertThat(domainUserDetailsService.loadUserByUsername(login).getUsername()).isEqualTo(login);
+    }
 }
@@ -0,0 +1,67 @@
+package io.github.vazh.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Test class for the {@link GrantedAuthorityRegistry} utility class.
+ */
+class GrantedAuthorityRegistryTest {
+
+    private GrantedAuthorityRegistry registry;
+
+    @BeforeEach
+    public void setup() {
+        registry = new GrantedAuthorityRegistry(2);
+    }
+
+    @Test
+    void testParsesCommaSeparatedNames() {
+        List<GrantedAuthority> authorities = registry.fromCommaSeparatedNames(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER);
+
+        assertThat(authorities)
+            .containsExactly(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN), new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+    }
+
+    @Test
+    void testIgnoresEmptyNames() {
+        assertThat(registry.fromCommaSeparatedNames("")).isEmpty();
+        assertThat(registry.fromCommaSeparatedNames(AuthoritiesConstants.USER + ", ,"))
+            .containsExactly(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+    }
+
+    @Test
+    void testReturnsSharedInstanceForSameNames() {
+        List<GrantedAuthority> first = registry.fromCommaSeparatedNames(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER);
+        List<GrantedAuthority> second = registry.fromCommaSeparatedNames(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER);
+        List<GrantedAuthority> user = registry.fromCommaSeparatedNames(AuthoritiesConstants.USER);
+
+        assertThat(second).isSameAs(first);
+        assertThat(user.get(0)).isSameAs(first.get(1));
+    }
+
+    @Test
+    void testReturnsImmutableAuthorities() {
+        List<GrantedAuthority> authorities = registry.fromCommaSeparatedNames(AuthoritiesConstants.USER);
+
+        assertThatThrownBy(() -> authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN)))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testDoesNotGrowBeyondMaxEntries() {
+        registry.fromCommaSeparatedNames("ROLE_A");
+        registry.fromCommaSeparatedNames("ROLE_B");
+        List<GrantedAuthority> notShared = registry.fromCommaSeparatedNames("ROLE_C");
+
+        assertThat(registry.size()).isEqualTo(2);
+        assertThat(notShared).containsExactly(new SimpleGrantedAuthority("ROLE_C"));
+        assertThat(registry.fromCommaSeparatedNames("ROLE_C")).isNotSameAs(notShared).isEqualTo(notShared);
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.vazh.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Test class for the {@link UnknownLoginCache} cache.
+ */
+class UnknownLoginCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private RTopic topic;
+
+    private RedissonClient redissonClient;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+        topic = mock(RTopic.class);
+        redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(UnknownLoginCache.INVALIDATION_TOPIC)).thenReturn(topic);
+    }
+
+    @Test
+    void testUnknownLoginIsCachedIgnoringCase() {
+        UnknownLoginCache unknownLoginCache = unknownLoginCache();
+
+        assertThat(unknownLoginCache.isUnknown("unknown")).isFalse();
+        unknownLoginCache.markUnknown("unknown");
+
+        assertThat(unknownLoginCache.isUnknown("unknown")).isTrue();
+        assertThat(unknownLoginCache.isUnknown("UNKNOWN")).isTrue();
+        assertThat(meterRegistry.get(SecurityMetersService.UNKNOWN_LOGIN_CACHE_METER_NAME).tag("result", "hit").counter().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get(SecurityMetersService.UNKNOWN_LOGIN_CACHE_METER_NAME).tag("result", "miss").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testForgetRemovesLoginAndEmail() {
+        UnknownLoginCache unknownLoginCache = unknownLoginCache();
+        unknownLoginCache.markUnknown("john");
+        unknownLoginCache.markUnknown("John@Example.com");
+
+        unknownLoginCache.forget("john", "john@example.com");
+
+        assertThat(unknownLoginCache.isUnknown("john")).isFalse();
+        assertThat(unknownLoginCache.isUnknown("john@example.com")).isFalse();
+    }
+
+    @Test
+    void testForgetIsPublishedToEveryNode() {
+        UnknownLoginCache unknownLoginCache = unknownLoginCache();
+
+        unknownLoginCache.forget("John", "John@Example.com");
+
+        ArgumentCaptor<UnknownLoginCache.Invalidation> invalidation = ArgumentCaptor.forClass(UnknownLoginCache.Invalidation.class);
+        verify(topic).publish(invalidation.capture());
+        assertThat(invalidation.getValue().getLogins()).containsExactly("john", "john@example.com");
+    }
+
+    @Test
+    void testForgetIsPublishedAfterCommit() {
+        UnknownLoginCache unknownLoginCache = unknownLoginCache();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            unknownLoginCache.markUnknown("john");
+            unknownLoginCache.forget("john", null);
+
+            assertThat(unknownLoginCache.isUnknown("john")).isFalse();
+            unknownLoginCache.markUnknown("john");
+            verify(topic, never()).publish(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(unknownLoginCache.isUnknown("john")).isFalse();
+        verify(topic).publish(any(UnknownLoginCache.Invalidation.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testForgetsLoginsPublishedByOtherNodes() {
+        UnknownLoginCache unknownLoginCache = unknownLoginCache();
+        ArgumentCaptor<MessageListener<UnknownLoginCache.Invalidation>> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(UnknownLoginCache.Invalidation.class), listener.capture());
+        unknownLoginCache.markUnknown("john");
+
+        listener.getValue().onMessage(UnknownLoginCache.INVALIDATION_TOPIC, new UnknownLoginCache.Invalidation(List.of("john")));
+
+        assertThat(unknownLoginCache.isUnknown("john")).isFalse();
+    }
+
+    @Test
+    void testNothingIsCachedWhenDisabled() {
+        applicationProperties.getSecurity().getUnknownLoginCache().setEnabled(false);
+        UnknownLoginCache unknownLoginCache = unknownLoginCache();
+
+        unknownLoginCache.markUnknown("unknown");
+
+        assertThat(unknownLoginCache.isUnknown("unknown")).isFalse();
+        unknownLoginCache.forget("unknown", null);
+    }
+
+    private UnknownLoginCache unknownLoginCache() {
+        return new UnknownLoginCache(applicationProperties, new SecurityMetersService(meterRegistry), redissonClient);
+    }
+}
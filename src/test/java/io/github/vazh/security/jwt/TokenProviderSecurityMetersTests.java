@@ -2,6 +2,7 @@ package io.github.vazh.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.github.vazh.config.ApplicationProperties;
 import io.github.vazh.management.SecurityMetersService;
 import io.github.vazh.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
@@ -28,6 +29,7 @@ class TokenProviderSecurityMetersTests {
 
     private static final long ONE_MINUTE = 60000;
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
+    private static final String TOKEN_CACHE_METER_EXPECTED_NAME = "security.authentication.token-cache";
 
     private MeterRegistry meterRegistry;
 
@@ -43,7 +45,7 @@ class TokenProviderSecurityMetersTests {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
         Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -107,6 +109,51 @@ class TokenProviderSecurityMetersTests {
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
 
+    @Test
+    void testTokenMalformedBeforeParsingCount() {
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isZero();
+
+        tokenProvider.validateToken("not-a-jwt");
+        tokenProvider.validateToken("not.a.jwt!");
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testTokenCacheMissThenHitCount() {
+        String validToken = createValidToken();
+
+        tokenProvider.resolveAuthentication(validToken);
+
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "hit").counter().count()).isZero();
+
+        tokenProvider.resolveAuthentication(validToken);
+
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testTokenCacheIsNotUsedWhenDisabled() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getTokenCache().setEnabled(false);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TokenProvider provider = new TokenProvider(jHipsterProperties, applicationProperties, new SecurityMetersService(registry));
+        String validToken = provider.createToken(createAuthentication(), false);
+
+        assertThat(provider.resolveAuthentication(validToken)).isPresent();
+        assertThat(provider.resolveAuthentication(validToken)).isPresent();
+
+        assertThat(aggregate(registry.find(TOKEN_CACHE_METER_EXPECTED_NAME).counters())).isZero();
+    }
+
     private String createValidToken() {
         Authentication authentication = createAuthentication();
 
@@ -2,6 +2,7 @@ package io.github.vazh.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.github.vazh.config.ApplicationProperties;
 import io.github.vazh.management.SecurityMetersService;
 import io.github.vazh.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
@@ -36,7 +37,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -88,6 +89,86 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testValidateReturnsClaimsOfValidToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        TokenValidationResult validation = tokenProvider.validate(token);
+
+        assertThat(validation.isValid()).isTrue();
+        assertThat(validation.getFailure()).isNull();
+        assertThat(validation.getClaims().getSubject()).isEqualTo("anonymous");
+    }
+
+    @Test
+    void testValidateReturnsFailureCause() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String expiredToken = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.validate(expiredToken).getFailure()).isEqualTo(TokenValidationResult.Failure.EXPIRED);
+        assertThat(tokenProvider.validate(createTokenWithDifferentSignature()).getFailure())
+            .isEqualTo(TokenValidationResult.Failure.INVALID_SIGNATURE);
+        assertThat(tokenProvider.validate(createUnsupportedToken()).getFailure()).isEqualTo(TokenValidationResult.Failure.UNSUPPORTED);
+        assertThat(tokenProvider.validate("").getFailure()).isEqualTo(TokenValidationResult.Failure.INVALID);
+    }
+
+    @Test
+    void testValidateRejectsMalformedTokenBeforeParsing() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        int lastPeriod = token.lastIndexOf('.');
+
+        assertThat(tokenProvider.validate("wrong_jwt").getFailure()).isEqualTo(TokenValidationResult.Failure.MALFORMED);
+        assertThat(tokenProvider.validate(token + ".extra").getFailure()).isEqualTo(TokenValidationResult.Failure.MALFORMED);
+        assertThat(tokenProvider.validate("." + token.substring(token.indexOf('.'))).getFailure())
+            .isEqualTo(TokenValidationResult.Failure.MALFORMED);
+        assertThat(tokenProvider.validate(token.substring(0, lastPeriod) + ".sig+nature").getFailure())
+            .isEqualTo(TokenValidationResult.Failure.MALFORMED);
+        assertThat(tokenProvider.validate(token.substring(0, lastPeriod + 1)).getFailure())
+            .isEqualTo(TokenValidationResult.Failure.UNSUPPORTED);
+    }
+
+    @Test
+    void testResolveAuthenticationReturnsAuthenticationOfValidToken() {
+        Authentication authentication = createAuthentication();
+        String token = tokenProvider.createToken(authentication, false);
+
+        Optional<Authentication> resolved = tokenProvider.resolveAuthentication(token);
+
+        assertThat(resolved).isPresent();
+        assertThat(resolved.get().getName()).isEqualTo("anonymous");
+        assertThat(resolved.get().getCredentials()).hasToString(token);
+        assertThat(resolved.get().getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    @Test
+    void testResolveAuthenticationReturnsSameAuthenticationFromCache() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication first = tokenProvider.resolveAuthentication(token).orElseThrow();
+        Authentication second = tokenProvider.resolveAuthentication(token).orElseThrow();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPrincipal()).isEqualTo(first.getPrincipal());
+        assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+    }
+
+    @Test
+    void testResolveAuthenticationReturnsEmptyWhenJWTisInvalid() {
+        assertThat(tokenProvider.resolveAuthentication(createTokenWithDifferentSignature())).isEmpty();
+        assertThat(tokenProvider.resolveAuthentication(createUnsupportedToken())).isEmpty();
+    }
+
+    @Test
+    void testResolveAuthenticationDoesNotCacheExpiredJWT() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.resolveAuthentication(token)).isEmpty();
+        assertThat(tokenProvider.resolveAuthentication(token)).isEmpty();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -96,7 +177,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -110,7 +191,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
@@ -0,0 +1,164 @@
+package io.github.vazh.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.management.MailMetersService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * Test class for the {@link MailDispatcher}.
+ */
+class MailDispatcherTest {
+
+    private JavaMailSender javaMailSender;
+
+    private MailMetersService mailMetersService;
+
+    private ApplicationProperties applicationProperties;
+
+    private final List<Runnable> drainingTasks = new ArrayList<>();
+
+    private final List<List<String>> sentBatches = new CopyOnWriteArrayList<>();
+
+    private MailDispatcher mailDispatcher;
+
+    @BeforeEach
+    public void setup() {
+        javaMailSender = mock(JavaMailSender.class);
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doAnswer(invocation -> {
+                List<String> subjects = new ArrayList<>();
+                for (Object message : invocation.getArguments()) {
+                    subjects.add(((MimeMessage) message).getSubject());
+                }
+                sentBatches.add(subjects);
+                return null;
+            })
+            .when(javaMailSender)
+            .send(ArgumentMatchers.<MimeMessage[]>any());
+        mailMetersService = mock(MailMetersService.class);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMailQueue().setCapacity(3);
+        applicationProperties.getMailQueue().setInitialBackoff(Duration.ofMillis(10));
+        mailDispatcher = new MailDispatcher(javaMailSender, drainingTasks::add, mailMetersService, applicationProperties);
+    }
+
+    @AfterEach
+    public void destroy() {
+        mailDispatcher.destroy();
+    }
+
+    @Test
+    void testSendsQueuedEmailsByPriorityOverOneConnection() {
+        dispatch(MailDispatcher.Priority.LOW, "low");
+        dispatch(MailDispatcher.Priority.NORMAL, "normal");
+        dispatch(MailDispatcher.Priority.HIGH, "high");
+        assertThat(mailDispatcher.size()).isEqualTo(3);
+        assertThat(drainingTasks).hasSize(1);
+
+        drainingTasks.get(0).run();
+
+        assertThat(sentBatches).containsExactly(List.of("high", "normal", "low"));
+        assertThat(mailDispatcher.size()).isZero();
+        verify(mailMetersService).trackSend(anyLong());
+        verify(mailMetersService, times(3)).trackDelivery(anyLong());
+    }
+
+    @Test
+    void testSendsEmailsByBatches() {
+        applicationProperties.getMailQueue().setBatchSize(2);
+        dispatch(MailDispatcher.Priority.NORMAL, "first");
+        dispatch(MailDispatcher.Priority.NORMAL, "second");
+        dispatch(MailDispatcher.Priority.NORMAL, "third");
+
+        drainingTasks.get(0).run();
+
+        assertThat(sentBatches).containsExactly(List.of("first", "second"), List.of("third"));
+    }
+
+    @Test
+    void testDropsTheLowestPriorityEmailWhenFull() {
+        dispatch(MailDispatcher.Priority.LOW, "low");
+        dispatch(MailDispatcher.Priority.NORMAL, "normal");
+        dispatch(MailDispatcher.Priority.LOW, "other low");
+
+        assertThat(dispatch(MailDispatcher.Priority.HIGH, "high")).isTrue();
+        assertThat(dispatch(MailDispatcher.Priority.LOW, "rejected")).isFalse();
+        drainingTasks.get(0).run();
+
+        assertThat(sentBatches).containsExactly(List.of("high", "normal", "low"));
+        verify(mailMetersService).trackDropped();
+        verify(mailMetersService).trackRejected();
+    }
+
+    @Test
+    void testRejectsEmailsWhenFull() {
+        applicationProperties.getMailQueue().setOverflowPolicy(ApplicationProperties.MailQueue.OverflowPolicy.REJECT);
+        dispatch(MailDispatcher.Priority.LOW, "first");
+        dispatch(MailDispatcher.Priority.LOW, "second");
+        dispatch(MailDispatcher.Priority.LOW, "third");
+
+        assertThat(dispatch(MailDispatcher.Priority.HIGH, "rejected")).isFalse();
+        assertThat(mailDispatcher.size()).isEqualTo(3);
+        verify(mailMetersService).trackRejected();
+        verify(mailMetersService, never()).trackDropped();
+    }
+
+    @Test
+    void testRetriesFailedEmailsWithBackoff() {
+        applicationProperties.getMailQueue().setMaxAttempts(2);
+        mailDispatcher.destroy();
+        mailDispatcher = new MailDispatcher(javaMailSender, Runnable::run, mailMetersService, applicationProperties);
+        doAnswer(invocation -> {
+                MimeMessage[] messages = Stream.of(invocation.getArguments()).toArray(MimeMessage[]::new);
+                Map<Object, Exception> failures = Stream
+                    .of(messages)
+                    .filter(message -> subject(message).startsWith("failing"))
+                    .collect(Collectors.toMap(message -> message, message -> new MessagingException("Mailbox unavailable")));
+                sentBatches.add(Stream.of(messages).map(MailDispatcherTest::subject).collect(Collectors.toList()));
+                if (!failures.isEmpty()) {
+                    throw new MailSendException(failures);
+                }
+                return null;
+            })
+            .when(javaMailSender)
+            .send(ArgumentMatchers.<MimeMessage[]>any());
+
+        dispatch(MailDispatcher.Priority.NORMAL, "sent");
+        dispatch(MailDispatcher.Priority.NORMAL, "failing");
+
+        verify(mailMetersService, timeout(5_000)).trackAbandoned();
+        assertThat(sentBatches).containsExactly(List.of("sent"), List.of("failing"), List.of("failing"));
+        verify(mailMetersService).trackRetried();
+        verify(mailMetersService).trackDelivery(anyLong());
+    }
+
+    private boolean dispatch(MailDispatcher.Priority priority, String subject) {
+        return mailDispatcher.dispatch(priority, subject + "@localhost", message -> message.setSubject(subject));
+    }
+
+    private static String subject(MimeMessage message) {
+        try {
+            return message.getSubject();
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.vazh.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.domain.MailOutboxEntry;
+import io.github.vazh.domain.User;
+import io.github.vazh.management.MailMetersService;
+import io.github.vazh.repository.MailOutboxRepository;
+import io.github.vazh.repository.UserRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Test class for the {@link MailOutboxService}.
+ */
+class MailOutboxServiceTest {
+
+    private MailOutboxRepository mailOutboxRepository;
+
+    private JavaMailSender javaMailSender;
+
+    private MailMetersService mailMetersService;
+
+    private ApplicationProperties applicationProperties;
+
+    private MailOutboxService mailOutboxService;
+
+    @BeforeEach
+    public void setup() {
+        mailOutboxRepository = mock(MailOutboxRepository.class);
+        javaMailSender = mock(JavaMailSender.class);
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        MailService mailService = mock(MailService.class);
+        when(mailService.templateMessage(any(), any(), any()))
+            .thenAnswer(invocation -> {
+                User user = invocation.getArgument(0);
+                return (MimeMessagePreparator) message -> message.setSubject(user.getLogin());
+            });
+        mailMetersService = mock(MailMetersService.class);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMailQueue().setBatchSize(2);
+        applicationProperties.getMailQueue().setMaxAttempts(2);
+        mailOutboxService =
+            new MailOutboxService(
+                mailOutboxRepository,
+                mock(UserRepository.class),
+                mailService,
+                javaMailSender,
+                mailMetersService,
+                applicationProperties,
+                mock(PlatformTransactionManager.class)
+            );
+    }
+
+    @Test
+    void testWritesEmailsToTheOutbox() {
+        User user = user(1L, "reset");
+
+        mailOutboxService.enqueuePasswordResetMail(user);
+
+        ArgumentCaptor<MailOutboxEntry> entryCaptor = ArgumentCaptor.forClass(MailOutboxEntry.class);
+        verify(mailOutboxRepository).save(entryCaptor.capture());
+        MailOutboxEntry entry = entryCaptor.getValue();
+        assertThat(entry.getUser()).isSameAs(user);
+        assertThat(entry.getTemplate()).isEqualTo(MailService.PASSWORD_RESET_TEMPLATE);
+        assertThat(entry.getTitleKey()).isEqualTo(MailService.PASSWORD_RESET_TITLE_KEY);
+        assertThat(entry.getPriority()).isEqualTo(MailDispatcher.Priority.HIGH.ordinal());
+        assertThat(entry.getNextAttemptDate()).isEqualTo(entry.getCreatedDate());
+    }
+
+    @Test
+    void testDoesNotWriteEmailsOfUsersWithoutEmail() {
+        User user = user(1L, "noemail");
+        user.setEmail(null);
+
+        mailOutboxService.enqueueActivationEmail(user);
+
+        verify(mailOutboxRepository, never()).save(any());
+    }
+
+    @Test
+    void testSendsTheLockedEmailsByBatches() {
+        MailOutboxEntry first = entry(user(1L, "first"));
+        MailOutboxEntry second = entry(user(2L, "second"));
+        MailOutboxEntry third = entry(user(3L, "third"));
+        when(mailOutboxRepository.lockNextToSend(any(), anyInt())).thenReturn(List.of(first, second), List.of(third));
+        List<List<String>> sentBatches = new ArrayList<>();
+        doAnswer(invocation -> {
+                sentBatches.add(
+                    Stream.of(invocation.getArguments()).map(message -> subject((MimeMessage) message)).collect(Collectors.toList())
+                );
+                return null;
+            })
+            .when(javaMailSender)
+            .send(ArgumentMatchers.<MimeMessage[]>any());
+
+        mailOutboxService.sendOutbox();
+
+        assertThat(sentBatches).containsExactly(List.of("first", "second"), List.of("third"));
+        verify(mailOutboxRepository, times(2)).lockNextToSend(any(), eq(2));
+        verify(mailOutboxRepository).delete(first);
+        verify(mailOutboxRepository).delete(second);
+        verify(mailOutboxRepository).delete(third);
+        verify(mailMetersService, times(3)).trackDelivery(anyLong());
+    }
+
+    @Test
+    void testPostponesFailedEmailsUntilTheLastAttempt() {
+        MailOutboxEntry sent = entry(user(1L, "sent"));
+        MailOutboxEntry failing = entry(user(2L, "failing"));
+        MailOutboxEntry abandoned = entry(user(3L, "abandoned"));
+        abandoned.setAttempts(1);
+        when(mailOutboxRepository.lockNextToSend(any(), anyInt())).thenReturn(List.of(sent, failing), List.of(abandoned));
+        doAnswer(invocation -> {
+                Map<Object, Exception> failures = Stream
+                    .of(invocation.getArguments())
+                    .filter(message -> !"sent".equals(subject((MimeMessage) message)))
+                    .collect(Collectors.toMap(message -> message, message -> new MessagingException("Mailbox unavailable")));
+                if (!failures.isEmpty()) {
+                    throw new MailSendException(failures);
+                }
+                return null;
+            })
+            .when(javaMailSender)
+            .send(ArgumentMatchers.<MimeMessage[]>any());
+        Instant before = Instant.now();
+
+        mailOutboxService.sendOutbox();
+
+        verify(mailOutboxRepository).delete(sent);
+        verify(mailOutboxRepository, never()).delete(failing);
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(failing.getNextAttemptDate()).isAfterOrEqualTo(before.plus(Duration.ofSeconds(2)));
+        verify(mailOutboxRepository).delete(abandoned);
+        verify(mailMetersService).trackRetried();
+        verify(mailMetersService).trackAbandoned();
+    }
+
+    private static User user(Long id, String login) {
+        User user = new User();
+        user.setId(id);
+        user.setLogin(login);
+        user.setEmail(login + "@localhost");
+        user.setLangKey("en");
+        return user;
+    }
+
+    private static MailOutboxEntry entry(User user) {
+        MailOutboxEntry entry = new MailOutboxEntry();
+        entry.setUser(user);
+        entry.setTemplate(MailService.ACTIVATION_TEMPLATE);
+        entry.setTitleKey(MailService.ACTIVATION_TITLE_KEY);
+        entry.setCreatedDate(Instant.now());
+        entry.setNextAttemptDate(entry.getCreatedDate());
+        return entry;
+    }
+
+    private static String subject(MimeMessage message) {
+        try {
+            return message.getSubject();
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.vazh.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import io.github.vazh.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the {@link MailService}.
+ */
+class MailServiceTest {
+
+    private MailDispatcher mailDispatcher;
+
+    private MailService mailService;
+
+    @BeforeEach
+    public void setup() {
+        mailDispatcher = mock(MailDispatcher.class);
+        mailService = new MailService(new JHipsterProperties(), mailDispatcher, mock(MailTemplateRenderer.class));
+    }
+
+    @Test
+    void shouldReportQueuedEmails() {
+        when(mailDispatcher.dispatch(any(), any(), any())).thenReturn(true);
+
+        assertThat(mailService.sendEmail("john.doe@example.com", "subject", "content", false, false)).isTrue();
+        assertThat(mailService.sendCreationEmail(user("john.doe@example.com"))).isTrue();
+        verify(mailDispatcher).dispatch(eq(MailDispatcher.Priority.LOW), eq("john.doe@example.com"), any());
+    }
+
+    @Test
+    void shouldReportEmailsRejectedByAFullQueue() {
+        when(mailDispatcher.dispatch(any(), any(), any())).thenReturn(false);
+
+        assertThat(mailService.sendEmail("john.doe@example.com", "subject", "content", false, false)).isFalse();
+        assertThat(mailService.sendEmailFromTemplate(user("john.doe@example.com"), "mail/testEmail", "email.test.title")).isFalse();
+        assertThat(mailService.sendCreationEmail(user("john.doe@example.com"))).isFalse();
+    }
+
+    @Test
+    void shouldNotDispatchTemplateEmailsToUsersWithoutEmail() {
+        assertThat(mailService.sendCreationEmail(user(null))).isFalse();
+        verifyNoInteractions(mailDispatcher);
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setLogin("john");
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.vazh.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.vazh.domain.User;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the {@link MailTemplateRenderer}.
+ */
+class MailTemplateRendererTest {
+
+    private final AtomicInteger resolvedMessages = new AtomicInteger();
+
+    private MailTemplateRenderer cachingRenderer;
+
+    private MailTemplateRenderer renderer;
+
+    @BeforeEach
+    public void setup() {
+        // Counts the messages resolved, by Thymeleaf or for the subjects, as a sign of rendering
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource() {
+            @Override
+            protected String resolveCodeWithoutArguments(String code, Locale locale) {
+                resolvedMessages.incrementAndGet();
+                return super.resolveCodeWithoutArguments(code, locale);
+            }
+
+            @Override
+            protected MessageFormat resolveCode(String code, Locale locale) {
+                resolvedMessages.incrementAndGet();
+                return super.resolveCode(code, locale);
+            }
+        };
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+        ThymeleafProperties thymeleafProperties = new ThymeleafProperties();
+        cachingRenderer = new MailTemplateRenderer(jHipsterProperties, messageSource, templateEngine, thymeleafProperties);
+        thymeleafProperties.setCache(false);
+        renderer = new MailTemplateRenderer(jHipsterProperties, messageSource, templateEngine, thymeleafProperties);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail", "mail/testEmail" })
+    void testRendersTheCachedTemplatesAsThymeleaf(String templateName) {
+        User user = user("john.o'doe");
+
+        MailTemplateRenderer.RenderedMail expected = renderer.render(user, templateName, "email.activation.title");
+        MailTemplateRenderer.RenderedMail cached = cachingRenderer.render(user, templateName, "email.activation.title");
+        user.setLogin("jane&co");
+        MailTemplateRenderer.RenderedMail other = cachingRenderer.render(user, templateName, "email.activation.title");
+
+        assertThat(cached.getSubject()).isEqualTo(expected.getSubject()).isEqualTo("jhipsterSampleApplication account activation");
+        assertThat(cached.getContent()).isEqualTo(expected.getContent()).contains("john.o&#39;doe");
+        assertThat(other.getContent()).isEqualTo(renderer.render(user, templateName, "email.activation.title").getContent());
+    }
+
+    @Test
+    void testRendersCachedTemplatesWithoutThymeleaf() {
+        cachingRenderer.render(user("first"), "mail/activationEmail", "email.activation.title");
+        resolvedMessages.set(0);
+
+        MailTemplateRenderer.RenderedMail mail = cachingRenderer.render(user("second"), "mail/activationEmail", "email.activation.title");
+
+        assertThat(mail.getContent()).contains("second", "key-second");
+        assertThat(resolvedMessages).hasValue(0);
+    }
+
+    @Test
+    void testRendersTemplatesDependingOnTheUserWithThymeleaf() {
+        User user = user("john");
+        user.setActivated(true);
+        cachingRenderer.render(user, "mail/testConditionalEmail", "email.test.title");
+        resolvedMessages.set(0);
+
+        MailTemplateRenderer.RenderedMail mail = cachingRenderer.render(user, "mail/testConditionalEmail", "email.test.title");
+        user.setActivated(false);
+        MailTemplateRenderer.RenderedMail inactive = cachingRenderer.render(user, "mail/testConditionalEmail", "email.test.title");
+
+        assertThat(mail.getContent()).contains("<p>john</p>");
+        assertThat(inactive.getContent()).doesNotContain("john");
+        assertThat(resolvedMessages.get()).isPositive();
+    }
+
+    @Test
+    void testRendersUsersWithoutAPrintedPropertyWithThymeleaf() {
+        cachingRenderer.render(user("first"), "mail/testEmail", "email.test.title");
+        resolvedMessages.set(0);
+        User user = user(null);
+
+        MailTemplateRenderer.RenderedMail mail = cachingRenderer.render(user, "mail/testEmail", "email.test.title");
+
+        assertThat(mail.getContent()).isEqualTo(renderer.render(user, "mail/testEmail", "email.test.title").getContent());
+        assertThat(resolvedMessages.get()).isPositive();
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail("john.doe@example.com");
+        user.setLangKey("en");
+        user.setActivationKey("key-" + login);
+        user.setResetKey("reset-" + login);
+        return user;
+    }
+}
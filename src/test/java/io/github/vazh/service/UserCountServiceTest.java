@@ -0,0 +1,107 @@
+package io.github.vazh.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.repository.UserRepository;
+import io.github.vazh.service.dto.CountedPage;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Test class for the {@link UserCountService}.
+ */
+class UserCountServiceTest {
+
+    private UserRepository userRepository;
+
+    private UserCountService userCountService;
+
+    @BeforeEach
+    public void setup() {
+        userRepository = mock(UserRepository.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getUserCount().setExactThreshold(1_000);
+        userCountService = new UserCountService(userRepository, applicationProperties);
+    }
+
+    @Test
+    void testLastPageIsCountedWithoutQuery() {
+        CountedPage<String> page = userCountService.toPage(slice(2, false), false);
+
+        assertThat(page.getTotalElements()).isEqualTo(6);
+        assertThat(page.isTotalExact()).isTrue();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testCountsExactlyBelowThreshold() {
+        when(userRepository.estimateCount()).thenReturn(999L);
+        when(userRepository.count()).thenReturn(42L);
+        when(userRepository.countByActivatedIsTrue()).thenReturn(40L);
+
+        CountedPage<String> all = userCountService.toPage(slice(0, true), false);
+        CountedPage<String> activated = userCountService.toPage(slice(0, true), true);
+
+        assertThat(all.getTotalElements()).isEqualTo(42);
+        assertThat(all.isTotalExact()).isTrue();
+        assertThat(activated.getTotalElements()).isEqualTo(40);
+        assertThat(activated.isTotalExact()).isTrue();
+    }
+
+    @Test
+    void testCountsExactlyWhenTableWasNeverAnalyzed() {
+        when(userRepository.estimateCount()).thenReturn(-1L);
+        when(userRepository.count()).thenReturn(42L);
+
+        CountedPage<String> page = userCountService.toPage(slice(0, true), false);
+
+        assertThat(page.getTotalElements()).isEqualTo(42);
+        assertThat(page.isTotalExact()).isTrue();
+    }
+
+    @Test
+    void testEstimatesAllUsersFromStatisticsAboveThreshold() {
+        when(userRepository.estimateCount()).thenReturn(2_000_000L);
+
+        CountedPage<String> page = userCountService.toPage(slice(0, true), false);
+
+        assertThat(page.getTotalElements()).isEqualTo(2_000_000L);
+        assertThat(page.isTotalExact()).isFalse();
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void testCachesActivatedUserCountAboveThreshold() {
+        when(userRepository.estimateCount()).thenReturn(2_000_000L);
+        when(userRepository.countByActivatedIsTrue()).thenReturn(1_500_000L);
+
+        userCountService.toPage(slice(0, true), true);
+        CountedPage<String> page = userCountService.toPage(slice(1, true), true);
+
+        assertThat(page.getTotalElements()).isEqualTo(1_500_000L);
+        assertThat(page.isTotalExact()).isFalse();
+        verify(userRepository, times(1)).countByActivatedIsTrue();
+    }
+
+    @Test
+    void testEstimateDoesNotHideKnownPages() {
+        when(userRepository.estimateCount()).thenReturn(2_000_000L);
+        when(userRepository.countByActivatedIsTrue()).thenReturn(3L);
+
+        CountedPage<String> page = userCountService.toPage(slice(5, true), true);
+
+        assertThat(page.getTotalElements()).isEqualTo(13);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.isTotalExact()).isFalse();
+    }
+
+    private static Slice<String> slice(int page, boolean hasNext) {
+        return new SliceImpl<>(List.of("a", "b"), PageRequest.of(page, 2), hasNext);
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.vazh.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import io.github.vazh.config.ApplicationProperties;
+import io.github.vazh.domain.Authority;
+import io.github.vazh.domain.User;
+import io.github.vazh.repository.AuthorityRepository;
+import io.github.vazh.repository.UserCacheEvictor;
+import io.github.vazh.repository.UserRepository;
+import io.github.vazh.security.AuthoritiesConstants;
+import io.github.vazh.security.PasswordHashingBusyException;
+import io.github.vazh.security.UnknownLoginCache;
+import io.github.vazh.service.dto.ImportedUserDTO;
+import io.github.vazh.service.dto.UserImportReportDTO;
+import io.github.vazh.service.dto.UserImportResultDTO;
+import io.github.vazh.service.dto.UserImportRow;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Test class for the {@link UserImportService}.
+ */
+class UserImportServiceTest {
+
+    private UserRepository userRepository;
+
+    private PasswordEncoder passwordEncoder;
+
+    private UserCacheEvictor userCacheEvictor;
+
+    private UnknownLoginCache unknownLoginCache;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    public void setup() {
+        userRepository = mock(UserRepository.class);
+        AuthorityRepository authorityRepository = mock(AuthorityRepository.class);
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        when(authorityRepository.findAll()).thenReturn(List.of(authority));
+        passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        userCacheEvictor = mock(UserCacheEvictor.class);
+        unknownLoginCache = mock(UnknownLoginCache.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getUserImport().setBatchSize(3);
+        applicationProperties.getUserImport().setHashingParallelism(2);
+        userImportService =
+            new UserImportService(
+                userRepository,
+                authorityRepository,
+                passwordEncoder,
+                userCacheEvictor,
+                unknownLoginCache,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                mock(PlatformTransactionManager.class),
+                applicationProperties
+            );
+    }
+
+    @AfterEach
+    public void destroy() {
+        userImportService.destroy();
+    }
+
+    @Test
+    void testImportsUsersByBatches() {
+        ImportedUserDTO john = user("John", "John@Localhost");
+        john.setPassword("secret");
+        john.setAuthorities(Set.of(AuthoritiesConstants.USER, "ROLE_UNKNOWN"));
+
+        UserImportReportDTO report = userImportService.importUsers(
+            List.of(
+                UserImportRow.of(1, john),
+                UserImportRow.of(2, user("jane", null)),
+                UserImportRow.of(3, user("bob", "bob@localhost")),
+                UserImportRow.of(4, user("alice", null))
+            )
+                .iterator()
+        );
+
+        assertThat(report.getCreated()).isEqualTo(4);
+        assertThat(report.getRejected()).isZero();
+        assertThat(report.getRows()).extracting(UserImportResultDTO::getLogin).containsExactly("john", "jane", "bob", "alice");
+        verify(userRepository).findLoginsIn(Set.of("john", "jane", "bob"));
+        verify(userRepository).findLoginsIn(Set.of("alice"));
+        verify(userRepository).findEmailsIn(Set.of("john@localhost", "bob@localhost"));
+        List<User> saved = savedUsers(2);
+        assertThat(saved).extracting(User::getLogin).containsExactly("john", "jane", "bob", "alice");
+        assertThat(saved.get(0).getEmail()).isEqualTo("john@localhost");
+        assertThat(saved.get(0).getPassword()).isEqualTo("hash:secret");
+        assertThat(saved.get(0).getAuthorities()).extracting(Authority::getName).containsExactly(AuthoritiesConstants.USER);
+        assertThat(saved.get(0).isActivated()).isTrue();
+        assertThat(saved.get(1).getPassword()).startsWith("hash:").isNotEqualTo("hash:null");
+        assertThat(saved.get(1).getLangKey()).isNotNull();
+        verify(userCacheEvictor, times(4)).evict(any(User.class));
+        verify(userCacheEvictor).evict(saved.get(0));
+        verify(unknownLoginCache).forget("john", "john@localhost");
+    }
+
+    @Test
+    void testRejectsInvalidDuplicateAndConflictingRows() {
+        when(userRepository.findLoginsIn(any())).thenReturn(List.of("admin"));
+        when(userRepository.findEmailsIn(any())).thenReturn(List.of("used@localhost"));
+        ImportedUserDTO shortPassword = user("short", null);
+        shortPassword.setPassword("abc");
+
+        UserImportReportDTO report = userImportService.importUsers(
+            List.of(
+                UserImportRow.unreadable(1, "Malformed JSON"),
+                UserImportRow.of(2, user("invalid login", null)),
+                UserImportRow.of(3, shortPassword),
+                UserImportRow.of(4, user("john", "john@localhost")),
+                UserImportRow.of(5, user("JOHN", null)),
+                UserImportRow.of(6, user("jane", "John@localhost")),
+                UserImportRow.of(7, user("admin", null)),
+                UserImportRow.of(8, user("bob", "used@localhost"))
+            )
+                .iterator()
+        );
+
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getRejected()).isEqualTo(7);
+        assertThat(report.getRows())
+            .extracting(UserImportResultDTO::getStatus)
+            .containsExactly(
+                UserImportResultDTO.Status.INVALID,
+                UserImportResultDTO.Status.INVALID,
+                UserImportResultDTO.Status.INVALID,
+                UserImportResultDTO.Status.CREATED,
+                UserImportResultDTO.Status.DUPLICATE,
+                UserImportResultDTO.Status.DUPLICATE,
+                UserImportResultDTO.Status.CONFLICT,
+                UserImportResultDTO.Status.CONFLICT
+            );
+        assertThat(report.getRows().get(2).getMessage()).startsWith("password");
+        assertThat(savedUsers(1)).extracting(User::getLogin).containsExactly("john");
+    }
+
+    @Test
+    void testReportsFailedRowsWhenTheyCannotBeSaved() {
+        when(passwordEncoder.encode("busy")).thenThrow(new PasswordHashingBusyException("busy", Duration.ofSeconds(1)));
+        when(userRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        ImportedUserDTO busy = user("busy", null);
+        busy.setPassword("busy");
+
+        UserImportReportDTO report = userImportService.importUsers(
+            List.of(UserImportRow.of(1, busy), UserImportRow.of(2, user("john", null))).iterator()
+        );
+
+        assertThat(report.getCreated()).isZero();
+        assertThat(report.getRows())
+            .extracting(UserImportResultDTO::getStatus)
+            .containsExactly(UserImportResultDTO.Status.FAILED, UserImportResultDTO.Status.FAILED);
+        verifyNoInteractions(userCacheEvictor, unknownLoginCache);
+    }
+
+    private List<User> savedUsers(int batches) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<User>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(userRepository, times(batches)).saveAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(Collection::stream).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static ImportedUserDTO user(String login, String email) {
+        ImportedUserDTO user = new ImportedUserDTO();
+        user.setLogin(login);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -1,16 +1,26 @@
 package io.github.vazh.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.Mockito.when;
 
 import io.github.vazh.IntegrationTest;
+import io.github.vazh.config.ApplicationProperties;
 import io.github.vazh.config.Constants;
 import io.github.vazh.domain.User;
+import io.github.vazh.domain.MailOutboxEntry;
+import io.github.vazh.management.UserMetersService;
+import io.github.vazh.repository.AuthorityRepository;
+import io.github.vazh.repository.MailOutboxRepository;
+import io.github.vazh.repository.UserIdentifiers;
 import io.github.vazh.repository.UserRepository;
+import io.github.vazh.security.AuthoritiesConstants;
 import io.github.vazh.service.dto.AdminUserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -50,6 +60,18 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
@@ -88,6 +110,24 @@ class UserServiceIT {
         assertThat(maybeUser.orElse(null).getResetKey()).isNotNull();
     }
 
+    @Test
+    @Transactional
+    void assertThatPasswordResetEmailIsWrittenToTheMailOutbox() {
+        userRepository.saveAndFlush(user);
+
+        userService.requestPasswordReset(user.getEmail());
+
+        List<MailOutboxEntry> entries = mailOutboxRepository.lockNextToSend(Instant.now(), 10);
+        assertThat(entries).hasSize(1);
+        assertThat(entries.get(0).getUser()).isEqualTo(user);
+        assertThat(entries.get(0).getTemplate()).isEqualTo(MailService.PASSWORD_RESET_TEMPLATE);
+        assertThat(entries.get(0).getPriority()).isEqualTo(MailDispatcher.Priority.HIGH.ordinal());
+
+        userService.deleteUser(user.getLogin());
+        userRepository.flush();
+        assertThat(mailOutboxRepository.count()).isZero();
+    }
+
     @Test
     @Transactional
     void assertThatOnlyActivatedUserCanRequestPasswordReset() {
@@ -159,13 +199,44 @@ class UserServiceIT {
         dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
         userRepository.saveAndFlush(user);
         Instant threeDaysAgo = now.minus(3, ChronoUnit.DAYS);
-        List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
+        List<UserIdentifiers> users = findNotActivatedUsersCreatedBefore(threeDaysAgo);
         assertThat(users).isNotEmpty();
         userService.removeNotActivatedUsers();
-        users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
+        users = findNotActivatedUsersCreatedBefore(threeDaysAgo);
         assertThat(users).isEmpty();
     }
 
+    @Test
+    @Transactional
+    void assertThatNotActivatedUsersAreDeletedByChunks() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        for (int i = 0; i < 5; i++) {
+            User notActivatedUser = new User();
+            notActivatedUser.setLogin("not-activated-" + i);
+            notActivatedUser.setEmail("not-activated-" + i + "@localhost");
+            notActivatedUser.setPassword(RandomStringUtils.randomAlphanumeric(60));
+            notActivatedUser.setActivated(false);
+            notActivatedUser.setActivationKey(RandomStringUtils.random(20));
+            notActivatedUser.setAuthorities(new HashSet<>(authorityRepository.findAll()));
+            userRepository.saveAndFlush(notActivatedUser);
+        }
+        Instant threeDaysAgo = now.minus(3, ChronoUnit.DAYS);
+        double deletedBefore = meterRegistry.get(UserMetersService.CLEANUP_DELETED_METER_NAME).counter().count();
+        long chunksBefore = meterRegistry.get(UserMetersService.CLEANUP_CHUNKS_METER_NAME).timer().count();
+        int chunkSize = applicationProperties.getUserCleanup().getChunkSize();
+        applicationProperties.getUserCleanup().setChunkSize(2);
+        try {
+            userService.removeNotActivatedUsers();
+        } finally {
+            applicationProperties.getUserCleanup().setChunkSize(chunkSize);
+        }
+
+        assertThat(findNotActivatedUsersCreatedBefore(threeDaysAgo)).isEmpty();
+        assertThat(meterRegistry.get(UserMetersService.CLEANUP_DELETED_METER_NAME).counter().count() - deletedBefore).isEqualTo(5);
+        assertThat(meterRegistry.get(UserMetersService.CLEANUP_CHUNKS_METER_NAME).timer().count() - chunksBefore).isEqualTo(3);
+    }
+
     @Test
     @Transactional
     void assertThatNotActivatedUsersWithNullActivationKeyCreatedBefore3DaysAreNotDeleted() {
@@ -176,10 +247,43 @@ class UserServiceIT {
         dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
         userRepository.saveAndFlush(user);
         Instant threeDaysAgo = now.minus(3, ChronoUnit.DAYS);
-        List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
+        List<UserIdentifiers> users = findNotActivatedUsersCreatedBefore(threeDaysAgo);
         assertThat(users).isEmpty();
         userService.removeNotActivatedUsers();
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    void assertThatNonPositiveCleanupChunkSizeIsRejected() {
+        ApplicationProperties.UserCleanup userCleanup = new ApplicationProperties.UserCleanup();
+        assertThatIllegalArgumentException().isThrownBy(() -> userCleanup.setChunkSize(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> userCleanup.setChunkSize(-1));
+        assertThat(userCleanup.getChunkSize()).isEqualTo(500);
+    }
+
+    @Test
+    @Transactional
+    void assertThatManagedUsersAreListedWithTheirAuthorities() {
+        user.setAuthorities(new HashSet<>(authorityRepository.findAll()));
+        userRepository.saveAndFlush(user);
+
+        List<AdminUserDTO> users = userService.getAllManagedUsers(PageRequest.of(0, 2000)).getContent();
+
+        assertThat(users)
+            .filteredOn(managedUser -> DEFAULT_LOGIN.equals(managedUser.getLogin()))
+            .singleElement()
+            .satisfies(managedUser -> {
+                assertThat(managedUser.getEmail()).isEqualTo(DEFAULT_EMAIL);
+                assertThat(managedUser.getImageUrl()).isEqualTo(DEFAULT_IMAGEURL);
+                assertThat(managedUser.isActivated()).isTrue();
+                assertThat(managedUser.getCreatedDate()).isNotNull();
+                assertThat(managedUser.getAuthorities()).containsOnly(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+            });
+        assertThat(users).allSatisfy(managedUser -> assertThat(managedUser.getAuthorities()).isNotNull());
+    }
+
+    private List<UserIdentifiers> findNotActivatedUsersCreatedBefore(Instant createdBefore) {
+        return userRepository.findNotActivatedUsersCreatedBefore(createdBefore, Long.MIN_VALUE, PageRequest.of(0, 100));
+    }
 }
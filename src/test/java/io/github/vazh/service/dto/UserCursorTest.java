@@ -0,0 +1,73 @@
+package io.github.vazh.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Test class for the {@link UserCursor}.
+ */
+class UserCursorTest {
+
+    @Test
+    void testFirstPageIsSortedByIdWhenUnsorted() {
+        UserCursor cursor = UserCursor.first(Sort.unsorted());
+
+        assertThat(cursor.isFirst()).isTrue();
+        assertThat(cursor.getSort()).isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    @Test
+    void testFirstPageAcceptsSecondarySortOnId() {
+        UserCursor cursor = UserCursor.first(Sort.by(Sort.Order.desc("login"), Sort.Order.asc("id")));
+
+        assertThat(cursor.getSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "login"));
+    }
+
+    @Test
+    void testRejectsSortWithoutMatchingIndex() {
+        assertThatIllegalArgumentException().isThrownBy(() -> UserCursor.first(Sort.by("email")));
+        assertThatIllegalArgumentException().isThrownBy(() -> UserCursor.first(Sort.by("firstName")));
+        assertThatIllegalArgumentException().isThrownBy(() -> UserCursor.first(Sort.by("login", "firstName")));
+        assertThatIllegalArgumentException().isThrownBy(() -> UserCursor.first(Sort.by(Sort.Order.asc("login").ignoreCase())));
+    }
+
+    @Test
+    void testRoundTripsToken() {
+        UserCursor cursor = UserCursor.first(Sort.by(Sort.Direction.DESC, "login")).after(42L, "john|doe");
+
+        String token = cursor.toToken();
+        UserCursor decoded = UserCursor.fromToken(token);
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(decoded.isFirst()).isFalse();
+        assertThat(decoded.getProperty()).isEqualTo("login");
+        assertThat(decoded.getDirection()).isEqualTo(Sort.Direction.DESC);
+        assertThat(decoded.getLastId()).isEqualTo(42L);
+        assertThat(decoded.getLastLogin()).isEqualTo("john|doe");
+    }
+
+    @Test
+    void testRejectsInvalidToken() {
+        assertThatIllegalArgumentException().isThrownBy(() -> UserCursor.fromToken("not a token"));
+        assertThatIllegalArgumentException().isThrownBy(() -> UserCursor.fromToken("bG9naW4"));
+        String unknownProperty = Base64.getUrlEncoder().encodeToString("1|email|ASC|1|john".getBytes(StandardCharsets.UTF_8));
+        assertThatIllegalArgumentException().isThrownBy(() -> UserCursor.fromToken(unknownProperty));
+        String invalidId = Base64.getUrlEncoder().encodeToString("1|id|ASC|null|john".getBytes(StandardCharsets.UTF_8));
+        assertThatIllegalArgumentException().isThrownBy(() -> UserCursor.fromToken(invalidId));
+    }
+
+    @Test
+    void testChecksRequestedSort() {
+        UserCursor cursor = UserCursor.first(Sort.by(Sort.Direction.DESC, "login")).after(1L, "john");
+
+        assertThat(cursor.isSortedBy(Sort.unsorted())).isTrue();
+        assertThat(cursor.isSortedBy(Sort.by(Sort.Order.desc("login"), Sort.Order.desc("id")))).isTrue();
+        assertThat(cursor.isSortedBy(Sort.by(Sort.Direction.ASC, "login"))).isFalse();
+        assertThat(cursor.isSortedBy(Sort.by("email"))).isFalse();
+    }
+}
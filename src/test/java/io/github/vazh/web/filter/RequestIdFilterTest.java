@@ -0,0 +1,51 @@
+package io.github.vazh.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Test class for the {@link RequestIdFilter}.
+ */
+class RequestIdFilterTest {
+
+    private final RequestIdFilter filter = new RequestIdFilter();
+
+    private final Map<String, String> ids = new HashMap<>();
+
+    @Test
+    void testGeneratesIdsWhileTheRequestIsHandled() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(
+            new MockHttpServletRequest(),
+            response,
+            (req, res) -> {
+                ids.put(RequestIdFilter.TRACE_ID, MDC.get(RequestIdFilter.TRACE_ID));
+                ids.put(RequestIdFilter.SPAN_ID, MDC.get(RequestIdFilter.SPAN_ID));
+            }
+        );
+
+        assertThat(ids.get(RequestIdFilter.TRACE_ID)).matches("[0-9a-f]{32}");
+        assertThat(ids.get(RequestIdFilter.SPAN_ID)).matches("[0-9a-f]{16}");
+        assertThat(response.getHeader(RequestIdFilter.REQUEST_ID_HEADER)).isEqualTo(ids.get(RequestIdFilter.TRACE_ID));
+        assertThat(MDC.get(RequestIdFilter.TRACE_ID)).isNull();
+    }
+
+    @Test
+    void testContinuesTheTraceOfATraceparentHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getHeader(RequestIdFilter.REQUEST_ID_HEADER)).isEqualTo("0af7651916cd43dd8448eb211c80319c");
+    }
+}
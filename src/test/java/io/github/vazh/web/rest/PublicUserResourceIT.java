@@ -1,10 +1,13 @@
 package io.github.vazh.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
 import io.github.vazh.IntegrationTest;
 import io.github.vazh.domain.User;
 import io.github.vazh.repository.UserRepository;
@@ -15,9 +18,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -72,6 +77,29 @@ class PublicUserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").doesNotExist());
     }
 
+    @Test
+    @Transactional
+    void getAllPublicUsersWithCursor() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        MvcResult result = restUserMockMvc
+            .perform(get("/api/users?cursor=&size=1&sort=id,asc").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[*].email").doesNotExist())
+            .andReturn();
+        String linkHeader = result.getResponse().getHeader(HttpHeaders.LINK);
+        assertThat(TestUtil.findLink(linkHeader, "first").getQuery()).contains("cursor=&", "size=1", "sort=id,asc");
+        Integer firstId = JsonPath.read(result.getResponse().getContentAsString(), "$[0].id");
+
+        restUserMockMvc
+            .perform(get(TestUtil.findLink(linkHeader, "next")).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(greaterThan(firstId)));
+    }
+
     @Test
     @Transactional
     void getAllAuthorities() throws Exception {
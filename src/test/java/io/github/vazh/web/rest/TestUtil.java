@@ -8,8 +8,10 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -202,5 +204,23 @@ public final class TestUtil {
         return allQuery.getResultList();
     }
 
+    /**
+     * Finds a link of a {@code Link} header.
+     * @param linkHeader the value of the header, or {@code null}.
+     * @param relType the relation type of the link.
+     * @return the URI of the link, or {@code null} if there is none.
+     */
+    public static URI findLink(String linkHeader, String relType) {
+        if (linkHeader == null) {
+            return null;
+        }
+        return Arrays
+            .stream(linkHeader.split(","))
+            .filter(link -> link.endsWith("; rel=\"" + relType + "\""))
+            .map(link -> URI.create(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .findFirst()
+            .orElse(null);
+    }
+
     private TestUtil() {}
 }
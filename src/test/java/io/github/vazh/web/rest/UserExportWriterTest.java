@@ -0,0 +1,130 @@
+package io.github.vazh.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.vazh.security.AuthoritiesConstants;
+import io.github.vazh.service.dto.AdminUserDTO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link UserExportWriter}.
+ */
+class UserExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void testWritesOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (UserExportWriter writer = UserExportWriter.ndjson(out, objectMapper)) {
+            writer.accept(user(1L, "john"));
+            writer.accept(user(2L, "jane"));
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readValue(lines[0], AdminUserDTO.class)).usingRecursiveComparison().isEqualTo(user(1L, "john"));
+        assertThat(objectMapper.readValue(lines[1], AdminUserDTO.class).getLogin()).isEqualTo("jane");
+        assertThat(lines[2]).isEmpty();
+    }
+
+    @Test
+    void testWritesNothingWithoutUsers() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UserExportWriter.ndjson(out, objectMapper).close();
+
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void testWritesCsvWithHeaderAndQuotedValues() throws IOException {
+        AdminUserDTO user = user(1L, "john");
+        user.setFirstName("John \"Johnny\"");
+        user.setLastName("Doe, Jr.");
+        user.setImageUrl(null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (UserExportWriter writer = UserExportWriter.csv(out)) {
+            writer.accept(user);
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+            .isEqualTo(
+                UserExportWriter.CSV_HEADER +
+                "\r\n" +
+                "1,john,\"John \"\"Johnny\"\"\",\"Doe, Jr.\",john@localhost,,true,en,system,2022-09-01T10:15:30Z,admin,," +
+                "ROLE_ADMIN ROLE_USER\r\n"
+            );
+    }
+
+    @Test
+    void testWritesCsvFormulasAsText() throws IOException {
+        AdminUserDTO user = user(1L, "john");
+        user.setFirstName("=HYPERLINK(\"http://evil.example\")");
+        user.setLastName("+1");
+        user.setImageUrl("@SUM(A1:A2)");
+        user.setLastModifiedBy("-admin");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (UserExportWriter writer = UserExportWriter.csv(out)) {
+            writer.accept(user);
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+            .isEqualTo(
+                UserExportWriter.CSV_HEADER +
+                "\r\n" +
+                "1,john,\"'=HYPERLINK(\"\"http://evil.example\"\")\",'+1,john@localhost,'@SUM(A1:A2),true,en,system,2022-09-01T10:15:30Z," +
+                "'-admin,,ROLE_ADMIN ROLE_USER\r\n"
+            );
+    }
+
+    @Test
+    void testFlushesPeriodically() throws IOException {
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+        UserExportWriter writer = UserExportWriter.csv(out);
+        for (int i = 1; i < UserExportWriter.FLUSH_INTERVAL; i++) {
+            writer.accept(user(i, "john"));
+        }
+        assertThat(flushes).hasValue(0);
+
+        writer.accept(user(UserExportWriter.FLUSH_INTERVAL, "john"));
+
+        assertThat(flushes).hasValue(1);
+        assertThat(writer.getWritten()).isEqualTo(UserExportWriter.FLUSH_INTERVAL);
+    }
+
+    private static AdminUserDTO user(long id, String login) {
+        AdminUserDTO user = new AdminUserDTO();
+        user.setId(id);
+        user.setLogin(login);
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail(login + "@localhost");
+        user.setImageUrl("http://placehold.it/50x50");
+        user.setActivated(true);
+        user.setLangKey("en");
+        user.setCreatedBy("system");
+        user.setCreatedDate(Instant.parse("2022-09-01T10:15:30Z"));
+        user.setLastModifiedBy("admin");
+        user.setAuthorities(Set.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN));
+        return user;
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.vazh.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.vazh.security.AuthoritiesConstants;
+import io.github.vazh.service.dto.AdminUserDTO;
+import io.github.vazh.service.dto.UserImportRow;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link UserImportReader}.
+ */
+class UserImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void testReadsOneJsonObjectPerLine() {
+        List<UserImportRow> rows = read(
+            UserImportReader.ndjson(
+                in("{\"login\":\"john\",\"password\":\"secret\",\"authorities\":[\"ROLE_USER\"]}\n\n{\"login\":\"jane\"\n[]\n"),
+                objectMapper
+            )
+        );
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).getLine()).isEqualTo(1);
+        assertThat(rows.get(0).getUser().getLogin()).isEqualTo("john");
+        assertThat(rows.get(0).getUser().getPassword()).isEqualTo("secret");
+        assertThat(rows.get(0).getUser().getAuthorities()).containsExactly(AuthoritiesConstants.USER);
+        assertThat(rows.get(1).getLine()).isEqualTo(3);
+        assertThat(rows.get(1).getUser()).isNull();
+        assertThat(rows.get(1).getError()).startsWith("Malformed JSON");
+        assertThat(rows.get(2).getLine()).isEqualTo(4);
+        assertThat(rows.get(2).getError()).isNotNull();
+    }
+
+    @Test
+    void testReadsCsvWithQuotedValuesOnSeveralLines() {
+        List<UserImportRow> rows = read(
+            UserImportReader.csv(
+                in(
+                    "email,login,lastName,authorities,password\r\n" +
+                    "john@localhost,john,\"Doe, \"\"Jr.\"\"\",ROLE_ADMIN ROLE_USER,secret\r\n" +
+                    "jane@localhost,jane,\"Doe\r\nSmith\",,\r\n" +
+                    "\r\n" +
+                    "bob@localhost,bob\r\n"
+                )
+            )
+        );
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).getLine()).isEqualTo(2);
+        assertThat(rows.get(0).getUser().getEmail()).isEqualTo("john@localhost");
+        assertThat(rows.get(0).getUser().getLogin()).isEqualTo("john");
+        assertThat(rows.get(0).getUser().getLastName()).isEqualTo("Doe, \"Jr.\"");
+        assertThat(rows.get(0).getUser().getAuthorities()).containsExactlyInAnyOrder(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        assertThat(rows.get(0).getUser().getPassword()).isEqualTo("secret");
+        assertThat(rows.get(1).getLine()).isEqualTo(3);
+        assertThat(rows.get(1).getUser().getLastName()).isEqualTo("Doe\nSmith");
+        assertThat(rows.get(1).getUser().getAuthorities()).isNull();
+        assertThat(rows.get(1).getUser().getPassword()).isNull();
+        assertThat(rows.get(2).getLine()).isEqualTo(6);
+        assertThat(rows.get(2).getError()).isEqualTo("Expected 5 values, found 2");
+    }
+
+    @Test
+    void testReadsTheCsvExport() throws IOException {
+        AdminUserDTO user = new AdminUserDTO();
+        user.setId(1L);
+        user.setLogin("john");
+        user.setFirstName("John");
+        user.setEmail("john@localhost");
+        user.setActivated(true);
+        user.setLangKey("en");
+        user.setAuthorities(Set.of(AuthoritiesConstants.USER));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (UserExportWriter writer = UserExportWriter.csv(out)) {
+            writer.accept(user);
+        }
+
+        List<UserImportRow> rows = read(UserImportReader.csv(new ByteArrayInputStream(out.toByteArray())));
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getUser().getId()).isNull();
+        assertThat(rows.get(0).getUser().getLogin()).isEqualTo("john");
+        assertThat(rows.get(0).getUser().getFirstName()).isEqualTo("John");
+        assertThat(rows.get(0).getUser().getLastName()).isNull();
+        assertThat(rows.get(0).getUser().getEmail()).isEqualTo("john@localhost");
+        assertThat(rows.get(0).getUser().getLangKey()).isEqualTo("en");
+        assertThat(rows.get(0).getUser().getAuthorities()).containsExactly(AuthoritiesConstants.USER);
+    }
+
+    @Test
+    void testReadsNothingFromEmptyInput() {
+        assertThat(read(UserImportReader.csv(in("")))).isEmpty();
+        assertThat(read(UserImportReader.ndjson(in(""), objectMapper))).isEmpty();
+    }
+
+    private static ByteArrayInputStream in(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<UserImportRow> read(UserImportReader reader) {
+        List<UserImportRow> rows = new ArrayList<>();
+        reader.forEachRemaining(rows::add);
+        return rows;
+    }
+}
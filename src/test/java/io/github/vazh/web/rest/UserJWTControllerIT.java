@@ -1,5 +1,6 @@
 package io.github.vazh.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -11,12 +12,18 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import io.github.vazh.IntegrationTest;
 import io.github.vazh.domain.User;
+import io.github.vazh.repository.UserCacheEvictor;
 import io.github.vazh.repository.UserRepository;
+import io.github.vazh.service.UserImportService;
+import io.github.vazh.service.dto.ImportedUserDTO;
+import io.github.vazh.service.dto.UserImportRow;
 import io.github.vazh.web.rest.vm.LoginVM;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,6 +41,12 @@ class UserJWTControllerIT {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserCacheEvictor userCacheEvictor;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -60,6 +73,30 @@ class UserJWTControllerIT {
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
 
+    @Test
+    @Transactional
+    void testAuthorizeRehashesPasswordWithConfiguredCost() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-rehash");
+        user.setEmail("user-jwt-controller-rehash@example.com");
+        user.setActivated(true);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-rehash");
+        login.setPassword("test");
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk());
+
+        String rehashedPassword = userRepository.findOneByLogin("user-jwt-controller-rehash").orElseThrow().getPassword();
+        assertThat(rehashedPassword).startsWith("$2a$10$");
+        assertThat(passwordEncoder.upgradeEncoding(rehashedPassword)).isFalse();
+        assertThat(passwordEncoder.matches("test", rehashedPassword)).isTrue();
+    }
+
     @Test
     @Transactional
     void testAuthorizeWithRememberMe() throws Exception {
@@ -95,4 +132,40 @@ class UserJWTControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    void testAuthorizeImportedUserPreviouslyLookedUp() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-import");
+        login.setPassword("test");
+        // Caches the login and the email as missing
+        assertThat(userRepository.findOneWithAuthoritiesByLogin("user-jwt-controller-import")).isEmpty();
+        assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase("user-jwt-controller-import@example.com")).isEmpty();
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isUnauthorized());
+
+        ImportedUserDTO user = new ImportedUserDTO();
+        user.setLogin("user-jwt-controller-import");
+        user.setEmail("user-jwt-controller-import@example.com");
+        user.setPassword("test");
+        try {
+            assertThat(userImportService.importUsers(List.of(UserImportRow.of(1, user)).iterator()).getCreated()).isEqualTo(1);
+
+            assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase("user-jwt-controller-import@example.com")).isPresent();
+            mockMvc
+                .perform(
+                    post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id_token").isNotEmpty());
+        } finally {
+            userRepository
+                .findOneByLogin("user-jwt-controller-import")
+                .ifPresent(imported -> {
+                    userRepository.delete(imported);
+                    userCacheEvictor.evict(imported);
+                });
+        }
+    }
 }
@@ -1,21 +1,27 @@
 package io.github.vazh.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import io.github.vazh.IntegrationTest;
 import io.github.vazh.domain.Authority;
 import io.github.vazh.domain.User;
 import io.github.vazh.repository.UserRepository;
 import io.github.vazh.security.AuthoritiesConstants;
 import io.github.vazh.service.dto.AdminUserDTO;
+import io.github.vazh.service.dto.UserCursor;
 import io.github.vazh.service.mapper.UserMapper;
 import io.github.vazh.web.rest.vm.ManagedUserVM;
+import java.net.URI;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,9 +29,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -74,6 +84,12 @@ class UserResourceIT {
     @Autowired
     private MockMvc restUserMockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     private User user;
 
     @BeforeEach
@@ -250,6 +266,7 @@ class UserResourceIT {
             .perform(get("/api/admin/users?sort=id,desc").accept(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count-Exact", "true"))
             .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)))
             .andExpect(jsonPath("$.[*].firstName").value(hasItem(DEFAULT_FIRSTNAME)))
             .andExpect(jsonPath("$.[*].lastName").value(hasItem(DEFAULT_LASTNAME)))
@@ -258,6 +275,165 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersWithCursor() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        long userCount = userRepository.count();
+
+        // Get all the users, one page at a time
+        List<String> logins = new ArrayList<>();
+        URI uri = URI.create("/api/admin/users?cursor=&size=1&sort=login,desc");
+        while (uri != null) {
+            MvcResult result = restUserMockMvc
+                .perform(get(uri).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andReturn();
+            logins.add(JsonPath.read(result.getResponse().getContentAsString(), "$[0].login"));
+            uri = TestUtil.findLink(result.getResponse().getHeader(HttpHeaders.LINK), "next");
+        }
+
+        assertThat(logins).hasSize((int) userCount).contains(DEFAULT_LOGIN).isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    @Transactional
+    void getAllUsersWithInvalidCursor() throws Exception {
+        restUserMockMvc.perform(get("/api/admin/users?cursor=&sort=email,asc")).andExpect(status().isBadRequest());
+        restUserMockMvc.perform(get("/api/admin/users?cursor=&sort=createdDate,asc")).andExpect(status().isBadRequest());
+        restUserMockMvc.perform(get("/api/admin/users?cursor=invalid")).andExpect(status().isBadRequest());
+        String cursor = UserCursor.first(Sort.by("login")).after(1L, "admin").toToken();
+        restUserMockMvc.perform(get("/api/admin/users?cursor={cursor}&sort=id,asc", cursor)).andExpect(status().isBadRequest());
+        restUserMockMvc.perform(get("/api/admin/users?cursor={cursor}&sort=login,asc", cursor)).andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void exportUsersAsNdjson() throws Exception {
+        // Initialize the database
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        user.setAuthorities(Set.of(authority));
+        userRepository.saveAndFlush(user);
+        User userWithoutAuthority = userRepository.saveAndFlush(createEntity(em));
+
+        MvcResult result = restUserMockMvc
+            .perform(get("/api/admin/users.ndjson"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andReturn();
+
+        List<String> lines = result.getResponse().getContentAsString().lines().collect(Collectors.toList());
+        assertThat(lines).hasSize(2);
+        List<AdminUserDTO> users = new ArrayList<>();
+        for (String line : lines) {
+            users.add(objectMapper.readValue(line, AdminUserDTO.class));
+        }
+        assertThat(users).extracting(AdminUserDTO::getId).isSorted();
+        assertThat(users)
+            .filteredOn(exportedUser -> DEFAULT_LOGIN.equals(exportedUser.getLogin()))
+            .singleElement()
+            .satisfies(exportedUser -> {
+                assertThat(exportedUser.getEmail()).isEqualTo(DEFAULT_EMAIL);
+                assertThat(exportedUser.getAuthorities()).containsExactly(AuthoritiesConstants.USER);
+            });
+        assertThat(users)
+            .filteredOn(exportedUser -> userWithoutAuthority.getLogin().equals(exportedUser.getLogin()))
+            .singleElement()
+            .satisfies(exportedUser -> assertThat(exportedUser.getAuthorities()).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void exportUsersAsCsv() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        MvcResult result = restUserMockMvc
+            .perform(get("/api/admin/users.csv"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\""))
+            .andReturn();
+
+        List<String> lines = result.getResponse().getContentAsString().lines().collect(Collectors.toList());
+        assertThat(lines).hasSize(2).startsWith(UserExportWriter.CSV_HEADER);
+        assertThat(lines).anyMatch(line -> line.contains("," + DEFAULT_LOGIN + "," + DEFAULT_FIRSTNAME + "," + DEFAULT_LASTNAME + ","));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser
+    void exportUsersIsOnlyAllowedForAdmins() throws Exception {
+        restUserMockMvc.perform(get("/api/admin/users.ndjson")).andExpect(status().isForbidden());
+        restUserMockMvc.perform(get("/api/admin/users.csv")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Transactional
+    void importUsersFromNdjson() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        int databaseSizeBeforeImport = userRepository.findAll().size();
+
+        String content =
+            "{\"login\":\"Imported\",\"email\":\"Imported@localhost\",\"password\":\"secret\",\"authorities\":[\"ROLE_USER\"]}\n" +
+            "{\"login\":\"" +
+            DEFAULT_LOGIN +
+            "\",\"email\":\"other@localhost\"}\n" +
+            "{\"login\":\"imported\"}\n" +
+            "{\"login\":\"\"}\n";
+        restUserMockMvc
+            .perform(post("/api/admin/users/import").contentType("application/x-ndjson").content(content))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.rejected").value(3))
+            .andExpect(jsonPath("$.rows[*].line").value(contains(1, 2, 3, 4)))
+            .andExpect(jsonPath("$.rows[*].status").value(contains("CREATED", "CONFLICT", "DUPLICATE", "INVALID")));
+
+        assertPersistedUsers(users -> {
+            assertThat(users).hasSize(databaseSizeBeforeImport + 1);
+            User imported = users.stream().filter(u -> "imported".equals(u.getLogin())).findAny().orElseThrow();
+            assertThat(imported.getEmail()).isEqualTo("imported@localhost");
+            assertThat(imported.isActivated()).isTrue();
+            assertThat(passwordEncoder.matches("secret", imported.getPassword())).isTrue();
+            assertThat(imported.getAuthorities()).extracting(Authority::getName).containsExactly(AuthoritiesConstants.USER);
+        });
+    }
+
+    @Test
+    @Transactional
+    void importUsersFromCsv() throws Exception {
+        int databaseSizeBeforeImport = userRepository.findAll().size();
+
+        String content = UserExportWriter.CSV_HEADER + "\r\n" + ",imported,John,\"Doe, Jr.\",imported@localhost,,true,fr,,,,,ROLE_USER\r\n";
+        restUserMockMvc
+            .perform(post("/api/admin/users/import").contentType("text/csv").content(content))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.rows[0].line").value(2))
+            .andExpect(jsonPath("$.rows[0].login").value("imported"));
+
+        assertPersistedUsers(users -> {
+            assertThat(users).hasSize(databaseSizeBeforeImport + 1);
+            User imported = users.stream().filter(u -> "imported".equals(u.getLogin())).findAny().orElseThrow();
+            assertThat(imported.getLastName()).isEqualTo("Doe, Jr.");
+            assertThat(imported.getLangKey()).isEqualTo("fr");
+        });
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser
+    void importUsersIsOnlyAllowedForAdmins() throws Exception {
+        restUserMockMvc
+            .perform(post("/api/admin/users/import").contentType("application/x-ndjson").content("{\"login\":\"imported\"}\n"))
+            .andExpect(status().isForbidden());
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {
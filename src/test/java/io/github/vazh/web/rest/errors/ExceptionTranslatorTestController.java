@@ -1,5 +1,7 @@
 package io.github.vazh.web.rest.errors;
 
+import io.github.vazh.security.PasswordHashingBusyException;
+import java.time.Duration;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.springframework.dao.ConcurrencyFailureException;
@@ -41,6 +43,11 @@ public class ExceptionTranslatorTestController {
         throw new TestResponseStatusException();
     }
 
+    @GetMapping("/password-hashing-busy")
+    public void passwordHashingBusy() {
+        throw new PasswordHashingBusyException("test password hashing busy", Duration.ofSeconds(2));
+    }
+
     @GetMapping("/internal-server-error")
     public void internalServerError() {
         throw new RuntimeException();